@@ -1,25 +1,53 @@
-//package com.example.SS2_Backend.config;
-//
-//import org.springframework.context.annotation.Bean;
-//import org.springframework.context.annotation.Configuration;
-//import org.springframework.scheduling.annotation.EnableAsync;
-//import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-//
-//import java.util.concurrent.Executor;
-//import java.util.concurrent.ThreadPoolExecutor;
-//
-//@EnableAsync
-//@Configuration
-//public class AsyncConfig {
-//    @Bean(name = "taskExecutor")
-//    public Executor taskExecutor() {
-//        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-//        executor.setCorePoolSize(10 * Runtime.getRuntime().availableProcessors());
-//        executor.setMaxPoolSize(10 * Runtime.getRuntime().availableProcessors());
-//        executor.setQueueCapacity(5);
-//        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
-//        executor.setThreadNamePrefix("Async-");
-//        executor.initialize();
-//        return executor;
-//    }
-//}
+package org.fit.ssapp.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * AsyncConfig - Bounded solver pool shared by the {@code @Async} endpoints and the job API.
+ * Every solve already distributes its evaluations over the cores, so only a few solves run at
+ * once and the others wait in a bounded queue. A full queue rejects the submission (503 for the
+ * {@code @Async} endpoints, 429 for the job API) instead of oversubscribing the machine.
+ */
+@EnableAsync
+@Configuration
+public class AsyncConfig {
+
+  /**
+   * Solver pool.
+   *
+   * @param solverPoolConfig pool size and queue capacity
+   * @return ThreadPoolTaskExecutor
+   */
+  @Bean(name = "taskExecutor")
+  public ThreadPoolTaskExecutor taskExecutor(SolverPoolConfig solverPoolConfig) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(solverPoolConfig.getPoolSize());
+    executor.setMaxPoolSize(solverPoolConfig.getPoolSize());
+    executor.setQueueCapacity(solverPoolConfig.getQueueCapacity());
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+    executor.setThreadNamePrefix("Solver-");
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Pool running the independent benchmark runs of insight requests. Insight requests are already
+   * admitted by the solver pool, so their runs simply queue here.
+   *
+   * @param solverPoolConfig runs executed at the same time
+   * @return ThreadPoolTaskExecutor
+   */
+  @Bean(name = "insightExecutor")
+  public ThreadPoolTaskExecutor insightExecutor(SolverPoolConfig solverPoolConfig) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(Math.max(1, solverPoolConfig.getInsightParallelRuns()));
+    executor.setMaxPoolSize(Math.max(1, solverPoolConfig.getInsightParallelRuns()));
+    executor.setThreadNamePrefix("Insight-");
+    executor.initialize();
+    return executor;
+  }
+}
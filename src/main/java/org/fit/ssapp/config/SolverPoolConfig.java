@@ -0,0 +1,37 @@
+package org.fit.ssapp.config;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Solver settings under the solver prefix: worker pool and queue, job retention and retry hint,
+ * core budget, parallel insight runs and the directory of matching data files.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "solver")
+@Data
+public class SolverPoolConfig {
+  @Value("${solver.pool.size}")
+  private int poolSize;
+
+  @Value("${solver.pool.queue-capacity}")
+  private int queueCapacity;
+
+  @Value("${solver.jobs.retention-minutes}")
+  private int jobRetentionMinutes;
+
+  @Value("${solver.jobs.retry-after-seconds}")
+  private int retryAfterSeconds;
+
+  @Value("${solver.cores.budget:0}")
+  private int coreBudget;
+
+  @Value("${solver.insights.parallel-runs:4}")
+  private int insightParallelRuns;
+
+  @Value("${solver.data.directory:}")
+  private String dataDirectory;
+
+}
@@ -25,4 +25,7 @@ public class ValidationConfig {
   @Value("${validation.stable-matching.run-count-per-algorithm.max}")
   private int maxRunCountPerAlgorithm;
 
+  @Value("${validation.stable-matching.evaluation-cache-size.max:100000}")
+  private int maxEvaluationCacheSize;
+
 }
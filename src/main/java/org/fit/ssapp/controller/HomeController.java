@@ -1,18 +1,43 @@
 package org.fit.ssapp.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import org.fit.ssapp.config.SolverPoolConfig;
+import org.fit.ssapp.dto.mapper.StableMatchingRequestReader;
+import org.fit.ssapp.dto.mapper.StableMatchingRequestReader.StableMatchingRequest;
 import org.fit.ssapp.dto.request.GameTheoryProblemDto;
 import org.fit.ssapp.dto.request.StableMatchingProblemDto;
 import org.fit.ssapp.dto.response.Response;
+import org.fit.ssapp.dto.validator.ValidIndividualArrayPropertyCount;
+import org.fit.ssapp.dto.validator.ValidIndividualArraysSize;
 import org.fit.ssapp.service.GameTheoryService;
 import org.fit.ssapp.service.PsoCompatSmtService;
+import org.fit.ssapp.service.SolverJobService;
 import org.fit.ssapp.service.StableMatchingOtmService;
 import org.fit.ssapp.service.StableMatchingService;
 import org.fit.ssapp.service.TripletMatchingService;
+import org.fit.ssapp.ss.smt.MatchingData;
+import org.fit.ssapp.ss.smt.MatchingDataFile;
+import org.fit.ssapp.util.ResponseUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -29,6 +54,13 @@ import org.springframework.web.bind.annotation.RestController;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class HomeController {
 
+  /**
+   * constraints on the individual arrays, which streamed and file requests do not keep. The stream
+   * reader and the file mapping check their shape themselves.
+   */
+  private static final Set<Class<? extends Annotation>> INDIVIDUAL_ARRAY_CONSTRAINTS = Set.of(
+      ValidIndividualArraysSize.class, ValidIndividualArrayPropertyCount.class);
+
   @Autowired
   private GameTheoryService gameTheoryService;
 
@@ -44,6 +76,22 @@ public class HomeController {
   @Autowired
   private PsoCompatSmtService psoCompatSmtService;
 
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private Validator validator;
+
+  @Autowired
+  @Qualifier("taskExecutor")
+  private ThreadPoolTaskExecutor taskExecutor;
+
+  @Autowired
+  private SolverJobService solverJobService;
+
+  @Autowired
+  private SolverPoolConfig solverPoolConfig;
+
 
   /**
    * Status check serverside page.
@@ -69,6 +117,119 @@ public class HomeController {
     return CompletableFuture.completedFuture(stableMatchingSolver.solve(object));
   }
 
+  /**
+   * Solve MTM matching problem, reading the request as a stream: individual arrays go straight
+   * into the matching data instead of a {@link StableMatchingProblemDto}. The rest of the request
+   * is validated like the other solver requests. The body is read on the request thread, only the
+   * solve is handed to the solver pool, so a slow upload does not hold a solver thread.
+   *
+   * @param body JSON Matching Problem Request.
+   *
+   * @return CompletableFuture
+   * @throws RejectedExecutionException if the solver queue is full
+   */
+  @PostMapping(value = "/stable-matching-solver/stream",
+          consumes = MediaType.APPLICATION_JSON_VALUE)
+  public CompletableFuture<ResponseEntity<Response>> solveStableMatchingStream(
+          InputStream body) {
+    // refuse before reading the body, the submission below still decides admission
+    if (solverJobService.getRemainingCapacity() == 0) {
+      throw new RejectedExecutionException("Solver queue is full");
+    }
+    StableMatchingRequest request;
+    try {
+      request = new StableMatchingRequestReader(objectMapper).read(body);
+    } catch (JsonProcessingException e) {
+      return CompletableFuture.completedFuture(
+              ResponseUtils.getBadRequestResponse(e.getOriginalMessage()));
+    } catch (IOException e) {
+      return CompletableFuture.completedFuture(
+              ResponseUtils.getInternalErrorResponse(e.getMessage()));
+    }
+    String violations = violationsOf(request.request());
+    if (!violations.isEmpty()) {
+      return CompletableFuture.completedFuture(ResponseUtils.getBadRequestResponse(violations));
+    }
+    return CompletableFuture.supplyAsync(
+            () -> stableMatchingSolver.solve(request.request(), request.data()), taskExecutor);
+  }
+
+  /**
+   * Solve MTM matching problem over a matching data file of the configured data directory, see
+   * {@link MatchingDataFile}. The file is mapped, so instances far too large for a JSON body are
+   * solved without reading their characteristic data into the heap. The body carries the run
+   * configuration only, the number of individuals and properties are those of the file.
+   *
+   * @param fileId file name in the data directory, without {@link MatchingDataFile#EXTENSION}
+   * @param object run configuration, individual arrays are ignored
+   *
+   * @return CompletableFuture
+   * @throws RejectedExecutionException if the solver queue is full
+   */
+  @PostMapping("/stable-matching-solver/files/{fileId}")
+  public CompletableFuture<ResponseEntity<Response>> solveStableMatchingFile(
+          @PathVariable String fileId,
+          @RequestBody StableMatchingProblemDto object) {
+    String directory = solverPoolConfig.getDataDirectory();
+    if (directory == null || directory.isBlank()) {
+      return CompletableFuture.completedFuture(
+              notFound("Solving matching data files is not enabled"));
+    }
+    Path file;
+    try {
+      file = MatchingDataFile.resolve(Path.of(directory), fileId);
+    } catch (IllegalArgumentException e) {
+      return CompletableFuture.completedFuture(
+              ResponseUtils.getBadRequestResponse(e.getMessage()));
+    }
+    if (!Files.isRegularFile(file)) {
+      return CompletableFuture.completedFuture(
+              notFound("Unknown matching data file " + fileId));
+    }
+    MatchingData data;
+    try {
+      data = MatchingDataFile.map(file);
+    } catch (IOException e) {
+      return CompletableFuture.completedFuture(
+              ResponseUtils.getBadRequestResponse(e.getMessage()));
+    }
+    object.setNumberOfIndividuals(data.getSize());
+    object.setNumberOfProperty(data.getPropertyNum());
+    String violations = violationsOf(object);
+    if (!violations.isEmpty()) {
+      return CompletableFuture.completedFuture(ResponseUtils.getBadRequestResponse(violations));
+    }
+    return CompletableFuture.supplyAsync(() -> stableMatchingSolver.solve(object, data),
+            taskExecutor);
+  }
+
+  private static ResponseEntity<Response> notFound(String message) {
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Response.builder()
+            .status(HttpStatus.NOT_FOUND.value())
+            .message(message)
+            .build());
+  }
+
+  /**
+   * Bean validation of a request whose individual arrays are not kept in the DTO.
+   *
+   * @param request StableMatchingProblemDto
+   * @return violations, empty if the request is valid
+   */
+  private String violationsOf(StableMatchingProblemDto request) {
+    return validator.validate(request).stream()
+            .filter(violation -> !INDIVIDUAL_ARRAY_CONSTRAINTS.contains(
+                    violation.getConstraintDescriptor().getAnnotation().annotationType()))
+            .map(HomeController::describe)
+            .sorted()
+            .collect(Collectors.joining("; "));
+  }
+
+  private static String describe(ConstraintViolation<?> violation) {
+    String field = violation.getPropertyPath().toString();
+    return field.isEmpty() ? violation.getMessage() : field + ": " + violation.getMessage();
+  }
+
   //  @Async("taskExecutor")
   //  @PostMapping("/stable-matching-oto-solver")
   //  public CompletableFuture<ResponseEntity<Response>> solveStableMatchingOTO(
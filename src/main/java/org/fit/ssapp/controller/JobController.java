@@ -0,0 +1,209 @@
+package org.fit.ssapp.controller;
+
+import jakarta.validation.Valid;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import org.fit.ssapp.config.SolverPoolConfig;
+import org.fit.ssapp.dto.request.GameTheoryProblemDto;
+import org.fit.ssapp.dto.request.StableMatchingProblemDto;
+import org.fit.ssapp.dto.response.Response;
+import org.fit.ssapp.dto.response.SolverJob;
+import org.fit.ssapp.service.GameTheoryService;
+import org.fit.ssapp.service.PsoCompatSmtService;
+import org.fit.ssapp.service.SolverJobService;
+import org.fit.ssapp.service.StableMatchingOtmService;
+import org.fit.ssapp.service.StableMatchingService;
+import org.fit.ssapp.service.TripletMatchingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Job Controller: submit a solve, get a job id (202), then poll {@code /api/jobs/{id}} or
+ * subscribe to {@code /topic/jobs/{id}} for the result. A submission is answered 429 with a
+ * {@code Retry-After} header when the solver queue is full.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class JobController {
+
+  @Autowired
+  private SolverJobService solverJobService;
+
+  @Autowired
+  private SolverPoolConfig solverPoolConfig;
+
+  @Autowired
+  private GameTheoryService gameTheoryService;
+
+  @Autowired
+  private StableMatchingService stableMatchingSolver;
+
+  @Autowired
+  private StableMatchingOtmService otmProblemSolver;
+
+  @Autowired
+  private TripletMatchingService tripletMatchingSolver;
+
+  @Autowired
+  private PsoCompatSmtService psoCompatSmtService;
+
+  /**
+   * Submit MTM matching problem.
+   *
+   * @param object StableMatchingProblemDto.
+   *
+   * @return ResponseEntity
+   */
+  @PostMapping("/stable-matching")
+  public ResponseEntity<Response> submitStableMatching(
+      @RequestBody @Valid StableMatchingProblemDto object) {
+    return submit("stable-matching", () -> stableMatchingSolver.solve(object));
+  }
+
+  /**
+   * Submit OTM matching problem.
+   *
+   * @param object StableMatchingProblemDto.
+   *
+   * @return ResponseEntity
+   */
+  @PostMapping("/stable-matching-otm")
+  public ResponseEntity<Response> submitStableMatchingOtm(
+      @RequestBody @Valid StableMatchingProblemDto object) {
+    return submit("stable-matching-otm", () -> otmProblemSolver.solve(object));
+  }
+
+  /**
+   * Submit triplet (3 set) matching problem.
+   *
+   * @param object StableMatchingProblemDto.
+   *
+   * @return ResponseEntity
+   */
+  @PostMapping("/triplet-matching")
+  public ResponseEntity<Response> submitTripletMatching(
+      @RequestBody @Valid StableMatchingProblemDto object) {
+    return submit("triplet-matching", () -> tripletMatchingSolver.solve(object));
+  }
+
+  /**
+   * Submit PSO compatible matching problem.
+   *
+   * @param object StableMatchingProblemDto.
+   *
+   * @return ResponseEntity
+   */
+  @PostMapping("/smt-pso-compat")
+  public ResponseEntity<Response> submitPsoCompatSmt(
+      @RequestBody @Valid StableMatchingProblemDto object) {
+    return submit("smt-pso-compat", () -> psoCompatSmtService.solve(object));
+  }
+
+  /**
+   * Submit game theory problem.
+   *
+   * @param gameTheoryProblem GameTheoryProblemDto.
+   *
+   * @return ResponseEntity
+   */
+  @PostMapping("/game-theory")
+  public ResponseEntity<Response> submitGameTheory(
+      @RequestBody @Valid GameTheoryProblemDto gameTheoryProblem) {
+    return submit("game-theory", () -> gameTheoryService.solveGameTheory(gameTheoryProblem));
+  }
+
+  /**
+   * Job state, with the solver response once finished.
+   *
+   * @param jobId job id
+   *
+   * @return ResponseEntity
+   */
+  @GetMapping("/{jobId}")
+  public ResponseEntity<Response> getJob(@PathVariable String jobId) {
+    return solverJobService.find(jobId)
+        .map(job -> jobResponse(HttpStatus.OK, job))
+        .orElseGet(() -> notFound(jobId));
+  }
+
+  /**
+   * Cancel a job.
+   *
+   * @param jobId job id
+   *
+   * @return ResponseEntity
+   */
+  @DeleteMapping("/{jobId}")
+  public ResponseEntity<Response> cancelJob(@PathVariable String jobId) {
+    return solverJobService.cancel(jobId)
+        .map(job -> jobResponse(HttpStatus.OK, job))
+        .orElseGet(() -> notFound(jobId));
+  }
+
+  /**
+   * Solver pool load.
+   *
+   * @return ResponseEntity
+   */
+  @GetMapping
+  public ResponseEntity<Response> getLoad() {
+    return ResponseEntity.ok(Response.builder()
+        .status(HttpStatus.OK.value())
+        .message("Solver pool load")
+        .data(Map.of(
+            "active", solverJobService.getActiveCount(),
+            "queued", solverJobService.getQueueDepth(),
+            "remainingCapacity", solverJobService.getRemainingCapacity()))
+        .build());
+  }
+
+  private ResponseEntity<Response> submit(String type,
+                                          Supplier<ResponseEntity<Response>> solve) {
+    SolverJob job;
+    try {
+      job = solverJobService.submit(type, solve);
+    } catch (RejectedExecutionException e) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+          .header(HttpHeaders.RETRY_AFTER, String.valueOf(solverPoolConfig.getRetryAfterSeconds()))
+          .body(Response.builder()
+              .status(HttpStatus.TOO_MANY_REQUESTS.value())
+              .message("Solver queue is full. Please try again later.")
+              .build());
+    }
+    return ResponseEntity.accepted()
+        .location(URI.create("/api/jobs/" + job.getId()))
+        .body(Response.builder()
+            .status(HttpStatus.ACCEPTED.value())
+            .message("Job " + job.getState())
+            .data(job)
+            .build());
+  }
+
+  private static ResponseEntity<Response> jobResponse(HttpStatus status, SolverJob job) {
+    return ResponseEntity.status(status).body(Response.builder()
+        .status(status.value())
+        .message("Job " + job.getState())
+        .data(job)
+        .build());
+  }
+
+  private static ResponseEntity<Response> notFound(String jobId) {
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Response.builder()
+        .status(HttpStatus.NOT_FOUND.value())
+        .message("Unknown job " + jobId)
+        .build());
+  }
+}
@@ -39,6 +39,7 @@ public class GameTheoryProblemMapper {
     problem.setNormalPlayers(request.getNormalPlayers());
     problem.setConflictSet(request.getConflictSet());
     problem.setMaximizing(request.isMaximizing());
+    problem.setExactDecimal(request.isExactDecimal());
 
     return problem;
   }
@@ -59,6 +60,7 @@ public class GameTheoryProblemMapper {
     result.setNormalPlayers(problem.getNormalPlayers());
     result.setConflictSet(problem.getConflictSet());
     result.setMaximizing(problem.isMaximizing());
+    result.setExactDecimal(problem.isExactDecimal());
     return result;
   }
 
@@ -79,6 +81,7 @@ public class GameTheoryProblemMapper {
     result.setNormalPlayers(problem.getNormalPlayers());
     result.setConflictSet(problem.getConflictSet());
     result.setMaximizing(problem.isMaximizing());
+    result.setExactDecimal(problem.isExactDecimal());
     return result;
   }
 }
@@ -1,7 +1,9 @@
 package org.fit.ssapp.dto.mapper;
 
+import java.util.Objects;
 import org.fit.ssapp.dto.request.StableMatchingProblemDto;
 import org.fit.ssapp.ss.smt.MatchingData;
+import org.fit.ssapp.ss.smt.MatchingDataFile;
 import org.fit.ssapp.ss.smt.MatchingProblem;
 import org.fit.ssapp.ss.smt.evaluator.FitnessEvaluator;
 import org.fit.ssapp.ss.smt.evaluator.impl.TwoSetFitnessEvaluator;
@@ -12,6 +14,7 @@ import org.fit.ssapp.ss.smt.implement.PsoCompatMtmProblem;
 import org.fit.ssapp.ss.smt.implement.TripletOTOProblem;
 import org.fit.ssapp.ss.smt.preference.PreferenceBuilder;
 import org.fit.ssapp.ss.smt.preference.PreferenceListWrapper;
+import org.fit.ssapp.ss.smt.preference.ScorePrecision;
 import org.fit.ssapp.ss.smt.preference.impl.provider.TripletPreferenceProvider;
 import org.fit.ssapp.ss.smt.preference.impl.provider.TwoSetPreferenceProvider;
 import org.fit.ssapp.ss.smt.requirement.Requirement;
@@ -24,6 +27,39 @@ import org.fit.ssapp.util.EvaluatorUtils;
  */
 public class StableMatchingProblemMapper {
 
+  /**
+   * Preference score storage asked by a request.
+   *
+   * @param request StableMatchingProblemDto
+   * @return ScorePrecision, {@link ScorePrecision#DOUBLE} if none
+   */
+  public static ScorePrecision precisionOf(StableMatchingProblemDto request) {
+    return Objects.requireNonNullElse(request.getScorePrecision(), ScorePrecision.DOUBLE);
+  }
+
+  /**
+   * Map the individual arrays of a request to matching data.
+   *
+   * @param request StableMatchingProblemDto
+   * @return MatchingData
+   */
+  public static MatchingData toMatchingData(StableMatchingProblemDto request) {
+    return toMatchingData(request, request.getIndividualCapacities());
+  }
+
+  private static MatchingData toMatchingData(StableMatchingProblemDto request, int[] capacities) {
+    Requirement[][] requirements = RequirementDecoder.decode(request.getIndividualRequirements());
+    MatchingData data = new MatchingData(request.getNumberOfIndividuals(),
+            request.getNumberOfProperty(),
+            request.getIndividualSetIndices(),
+            capacities,
+            request.getIndividualProperties(),
+            request.getIndividualWeights(),
+            requirements);
+    data.setExcludedPairs(request.getExcludedPairs());
+    return data;
+  }
+
   /**
    * Map from request to problem.
    *
@@ -31,26 +67,27 @@ public class StableMatchingProblemMapper {
    * @return OTOProblem
    */
   public static OTOProblem toOTO(StableMatchingProblemDto dto) {
-    Requirement[][] requirements = RequirementDecoder.decode(dto.getIndividualRequirements());
-    MatchingData data = new MatchingData(
-            dto.getNumberOfIndividuals(),
-            dto.getNumberOfProperty(),
-            dto.getIndividualSetIndices(),
-            null,
-            dto.getIndividualProperties(),
-            dto.getIndividualWeights(),
-            requirements
-    );
-    data.setExcludedPairs(dto.getExcludedPairs());
-    PreferenceBuilder builder = new TwoSetPreferenceProvider(
+    return toOTO(dto, toMatchingData(dto, null));
+  }
+
+  /**
+   * Map from request and already built matching data (e.g. mapped by {@link MatchingDataFile}) to
+   * problem. The individual arrays of the request are not read.
+   *
+   * @param dto  StableMatchingProblemDto
+   * @param data MatchingData
+   * @return OTOProblem
+   */
+  public static OTOProblem toOTO(StableMatchingProblemDto dto, MatchingData data) {
+    TwoSetPreferenceProvider builder = new TwoSetPreferenceProvider(
             data,
             dto.getEvaluateFunctions()
     );
-    PreferenceListWrapper preferenceLists = builder.toListWrapper();
+    PreferenceListWrapper preferenceLists = builder.toMatrixWrapper(precisionOf(dto));
     FitnessEvaluator fitnessEvaluator = new TwoSetFitnessEvaluator(data);
     return new OTOProblem(
             dto.getProblemName(),
-            dto.getNumberOfIndividuals(),
+            data.getSize(),
             dto.getNumberOfSets(),
             data,
             preferenceLists,
@@ -65,24 +102,26 @@ public class StableMatchingProblemMapper {
    * @return OTMProblem
    */
   public static OTMProblem toOTM(StableMatchingProblemDto request) {
-    Requirement[][] requirements = RequirementDecoder.decode(request.getIndividualRequirements());
-    MatchingData data = new MatchingData(request.getNumberOfIndividuals(),
-            request.getNumberOfProperty(),
-            request.getIndividualSetIndices(),
-            request.getIndividualCapacities(),
-            request.getIndividualProperties(),
-            request.getIndividualWeights(),
-            requirements);
-    data.setExcludedPairs(request.getExcludedPairs());
-    PreferenceBuilder builder = new TwoSetPreferenceProvider(data,
+    return toOTM(request, toMatchingData(request));
+  }
+
+  /**
+   * Map from request and already built matching data to problem.
+   *
+   * @param request StableMatchingProblemDto
+   * @param data    MatchingData
+   * @return OTMProblem
+   */
+  public static OTMProblem toOTM(StableMatchingProblemDto request, MatchingData data) {
+    TwoSetPreferenceProvider builder = new TwoSetPreferenceProvider(data,
             request.getEvaluateFunctions());
-    PreferenceListWrapper preferenceLists = builder.toListWrapper();
+    PreferenceListWrapper preferenceLists = builder.toMatrixWrapper(precisionOf(request));
     FitnessEvaluator fitnessEvaluator = new TwoSetFitnessEvaluator(data);
 
     return new OTMProblem(
             request.getProblemName(),
 
-            request.getNumberOfIndividuals(),
+            data.getSize(),
             request.getNumberOfSets(),
             data,
             preferenceLists,
@@ -97,22 +136,24 @@ public class StableMatchingProblemMapper {
    * @return MTMProblem
    */
   public static MTMProblem toMTM(StableMatchingProblemDto request) {
-    Requirement[][] requirements = RequirementDecoder.decode(request.getIndividualRequirements());
-    MatchingData data = new MatchingData(request.getNumberOfIndividuals(),
-            request.getNumberOfProperty(),
-            request.getIndividualSetIndices(),
-            request.getIndividualCapacities(),
-            request.getIndividualProperties(),
-            request.getIndividualWeights(),
-            requirements);
-    data.setExcludedPairs(request.getExcludedPairs());
-    PreferenceBuilder builder = new TwoSetPreferenceProvider(data,
+    return toMTM(request, toMatchingData(request));
+  }
+
+  /**
+   * Map from request and already built matching data to problem.
+   *
+   * @param request StableMatchingProblemDto
+   * @param data    MatchingData
+   * @return MTMProblem
+   */
+  public static MTMProblem toMTM(StableMatchingProblemDto request, MatchingData data) {
+    TwoSetPreferenceProvider builder = new TwoSetPreferenceProvider(data,
             request.getEvaluateFunctions());
-    PreferenceListWrapper preferenceLists = builder.toListWrapper();
+    PreferenceListWrapper preferenceLists = builder.toMatrixWrapper(precisionOf(request));
     FitnessEvaluator fitnessEvaluator = new TwoSetFitnessEvaluator(data);
     String fitnessFunction = EvaluatorUtils.getValidFitnessFunction(request.getFitnessFunction());
     return new MTMProblem(request.getProblemName(),
-            request.getNumberOfIndividuals(),
+            data.getSize(),
             request.getNumberOfSets(),
             data,
             preferenceLists,
@@ -127,21 +168,24 @@ public class StableMatchingProblemMapper {
    * @return TripletOTOProblem
    */
   public static TripletOTOProblem toTripletOTO(StableMatchingProblemDto request) {
-    Requirement[][] requirements = RequirementDecoder.decode(request.getIndividualRequirements());
-    MatchingData data = new MatchingData(request.getNumberOfIndividuals(),
-            request.getNumberOfProperty(),
-            request.getIndividualSetIndices(),
-            request.getIndividualCapacities(),
-            request.getIndividualProperties(),
-            request.getIndividualWeights(),
-            requirements);
-    data.setExcludedPairs(request.getExcludedPairs());
+    return toTripletOTO(request, toMatchingData(request));
+  }
+
+  /**
+   * Map from request and already built matching data to problem.
+   *
+   * @param request StableMatchingProblemDto
+   * @param data    MatchingData
+   * @return TripletOTOProblem
+   */
+  public static TripletOTOProblem toTripletOTO(StableMatchingProblemDto request,
+                                               MatchingData data) {
     PreferenceBuilder builder = new TripletPreferenceProvider(data,
             request.getEvaluateFunctions());
     PreferenceListWrapper preferenceLists = builder.toListWrapper();
     FitnessEvaluator fitnessEvaluator = new TwoSetFitnessEvaluator(data);
     return new TripletOTOProblem(request.getProblemName(),
-            request.getNumberOfIndividuals(),
+            data.getSize(),
             request.getNumberOfSets(),
             data,
             preferenceLists,
@@ -151,22 +195,24 @@ public class StableMatchingProblemMapper {
 
 
   public static MatchingProblem toPsoCompat(StableMatchingProblemDto request) {
-    Requirement[][] requirements = RequirementDecoder.decode(request.getIndividualRequirements());
-    MatchingData data = new MatchingData(request.getNumberOfIndividuals(),
-        request.getNumberOfProperty(),
-        request.getIndividualSetIndices(),
-        request.getIndividualCapacities(),
-        request.getIndividualProperties(),
-        request.getIndividualWeights(),
-        requirements);
-    data.setExcludedPairs(request.getExcludedPairs());
-    PreferenceBuilder builder = new TwoSetPreferenceProvider(data,
+    return toPsoCompat(request, toMatchingData(request));
+  }
+
+  /**
+   * Map from request and already built matching data to problem.
+   *
+   * @param request StableMatchingProblemDto
+   * @param data    MatchingData
+   * @return PsoCompatMtmProblem
+   */
+  public static MatchingProblem toPsoCompat(StableMatchingProblemDto request, MatchingData data) {
+    TwoSetPreferenceProvider builder = new TwoSetPreferenceProvider(data,
         request.getEvaluateFunctions());
-    PreferenceListWrapper preferenceLists = builder.toListWrapper();
+    PreferenceListWrapper preferenceLists = builder.toMatrixWrapper(precisionOf(request));
     FitnessEvaluator fitnessEvaluator = new TwoSetFitnessEvaluator(data);
     String fitnessFunction = EvaluatorUtils.getValidFitnessFunction(request.getFitnessFunction());
     return new PsoCompatMtmProblem(request.getProblemName(),
-        request.getNumberOfIndividuals(),
+        data.getSize(),
         request.getNumberOfSets(),
         data,
         preferenceLists,
@@ -0,0 +1,297 @@
+package org.fit.ssapp.dto.mapper;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import org.fit.ssapp.dto.request.StableMatchingProblemDto;
+import org.fit.ssapp.ss.smt.MatchingData;
+import org.fit.ssapp.ss.smt.requirement.RequirementDecoder;
+
+/**
+ * Streaming reader of a stable matching request (JSON). Individual properties, weights and
+ * requirements are written into row-major {@link MatchingData} arrays as the tokens arrive, each
+ * requirement being decoded on the spot, so the {@code double[][]} / {@code String[][]} of a
+ * {@link StableMatchingProblemDto} are never materialised. The other fields are bound to a
+ * {@link StableMatchingProblemDto} whose individual arrays are left {@code null}.
+ */
+public class StableMatchingRequestReader {
+
+  private static final String PROPERTIES = "individualProperties";
+  private static final String WEIGHTS = "individualWeights";
+  private static final String REQUIREMENTS = "individualRequirements";
+
+  static final int MAX_PRESIZED_CELLS = 1 << 16;
+
+  private final ObjectMapper objectMapper;
+
+  /**
+   * StableMatchingRequestReader.
+   *
+   * @param objectMapper mapper binding the fields other than the individual arrays
+   */
+  public StableMatchingRequestReader(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Request and its matching data.
+   *
+   * @param request request, without individual properties, weights and requirements
+   * @param data    matching data
+   */
+  public record StableMatchingRequest(StableMatchingProblemDto request, MatchingData data) {
+  }
+
+  /**
+   * Reads a request.
+   *
+   * @param input JSON stable matching request
+   * @return request and matching data
+   * @throws IOException if the input is not a valid stable matching request
+   */
+  public StableMatchingRequest read(InputStream input) throws IOException {
+    try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw MismatchedInputException.from(parser, StableMatchingProblemDto.class,
+            "Expected a stable matching request object");
+      }
+      ObjectNode fields = objectMapper.createObjectNode();
+      DoubleMatrix properties = null;
+      DoubleMatrix weights = null;
+      RequirementMatrix requirements = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        parser.nextToken();
+        switch (field) {
+          case PROPERTIES -> properties = readDoubles(parser,
+              new DoubleMatrix(PROPERTIES, expectedCells(fields)));
+          case WEIGHTS -> weights = readDoubles(parser,
+              new DoubleMatrix(WEIGHTS, expectedCells(fields)));
+          case REQUIREMENTS -> requirements = readRequirements(parser,
+              new RequirementMatrix(expectedCells(fields)));
+          default -> fields.set(field, objectMapper.readTree(parser));
+        }
+      }
+      StableMatchingProblemDto request = objectMapper.treeToValue(fields,
+          StableMatchingProblemDto.class);
+      return new StableMatchingRequest(request,
+          toMatchingData(parser, request, properties, weights, requirements));
+    }
+  }
+
+  /**
+   * number of cells announced by the fields read so far, to presize the arrays when the counts
+   * come before the individual arrays. The counts are not validated yet, so the presize is capped
+   * and larger arrays grow as their values arrive.
+   */
+  static int expectedCells(ObjectNode fields) {
+    long cells = (long) fields.path("numberOfIndividuals").asInt(0)
+        * fields.path("numberOfProperty").asInt(0);
+    return cells > 0 ? (int) Math.min(cells, MAX_PRESIZED_CELLS) : 16;
+  }
+
+  private static MatchingData toMatchingData(JsonParser parser,
+                                             StableMatchingProblemDto request,
+                                             DoubleMatrix properties,
+                                             DoubleMatrix weights,
+                                             RequirementMatrix requirements)
+      throws MismatchedInputException {
+    int size = request.getNumberOfIndividuals();
+    int propertyNum = request.getNumberOfProperty();
+    if (properties == null || weights == null || requirements == null) {
+      throw mismatch(parser, "Missing " + PROPERTIES + ", " + WEIGHTS + " or " + REQUIREMENTS);
+    }
+    int[] sets = request.getIndividualSetIndices();
+    int[] capacities = request.getIndividualCapacities();
+    if (sets == null || sets.length != size
+        || capacities != null && capacities.length != size) {
+      throw mismatch(parser, "Individual set indices and capacities must have "
+          + size + " entries");
+    }
+    for (int set : sets) {
+      if (set < 0) {
+        throw mismatch(parser, "Negative individual set index " + set);
+      }
+    }
+    properties.check(parser, size, propertyNum);
+    weights.check(parser, size, propertyNum);
+    requirements.check(parser, size, propertyNum);
+    int cells = size * propertyNum;
+    MatchingData data = MatchingData.ofRowMajor(size, propertyNum, sets, capacities,
+        trimmed(properties.values, cells),
+        trimmed(weights.values, cells),
+        trimmed(requirements.types, cells),
+        trimmed(requirements.bounds1, cells),
+        trimmed(requirements.bounds2, cells));
+    data.setExcludedPairs(request.getExcludedPairs());
+    return data;
+  }
+
+  private static DoubleMatrix readDoubles(JsonParser parser, DoubleMatrix matrix)
+      throws IOException {
+    expectArray(parser, matrix.name);
+    while (parser.nextToken() == JsonToken.START_ARRAY) {
+      int columns = 0;
+      for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY;
+           token = parser.nextToken()) {
+        if (token.isNumeric()) {
+          matrix.add(parser.getDoubleValue());
+        } else if (token == JsonToken.VALUE_STRING) {
+          matrix.add(parseDouble(parser, matrix.name));
+        } else {
+          throw mismatch(parser, "Expected a number in " + matrix.name);
+        }
+        columns++;
+      }
+      matrix.endRow(parser, columns);
+    }
+    expectEnd(parser, matrix.name);
+    return matrix;
+  }
+
+  private static RequirementMatrix readRequirements(JsonParser parser, RequirementMatrix matrix)
+      throws IOException {
+    expectArray(parser, REQUIREMENTS);
+    while (parser.nextToken() == JsonToken.START_ARRAY) {
+      int columns = 0;
+      for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY;
+           token = parser.nextToken()) {
+        if (!token.isScalarValue() || token == JsonToken.VALUE_NULL) {
+          throw mismatch(parser, "Expected a requirement in " + REQUIREMENTS);
+        }
+        matrix.add(parser, parser.getText());
+        columns++;
+      }
+      matrix.endRow(parser, columns);
+    }
+    expectEnd(parser, REQUIREMENTS);
+    return matrix;
+  }
+
+  private static double[] trimmed(double[] values, int length) {
+    return values.length == length ? values : Arrays.copyOf(values, length);
+  }
+
+  private static int[] trimmed(int[] values, int length) {
+    return values.length == length ? values : Arrays.copyOf(values, length);
+  }
+
+  private static double parseDouble(JsonParser parser, String field)
+      throws IOException {
+    try {
+      return Double.parseDouble(parser.getText());
+    } catch (NumberFormatException e) {
+      throw mismatch(parser, "Expected a number in " + field);
+    }
+  }
+
+  private static void expectArray(JsonParser parser, String field)
+      throws MismatchedInputException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      throw mismatch(parser, "Expected an array of rows for " + field);
+    }
+  }
+
+  private static void expectEnd(JsonParser parser, String field)
+      throws MismatchedInputException {
+    if (parser.currentToken() != JsonToken.END_ARRAY) {
+      throw mismatch(parser, "Expected an array of rows for " + field);
+    }
+  }
+
+  private static MismatchedInputException mismatch(JsonParser parser, String message) {
+    return MismatchedInputException.from(parser, StableMatchingProblemDto.class, message);
+  }
+
+  /**
+   * Row-major rows of equal length, grown as values arrive.
+   */
+  private static class Rows {
+
+    final String name;
+    int rows;
+    int columns = -1;
+    int length;
+
+    Rows(String name) {
+      this.name = name;
+    }
+
+    int nextCell() {
+      return length++;
+    }
+
+    void endRow(JsonParser parser, int rowColumns) throws MismatchedInputException {
+      if (columns == -1) {
+        columns = rowColumns;
+      } else if (columns != rowColumns) {
+        throw mismatch(parser, "Rows of " + name + " must have the same length");
+      }
+      rows++;
+    }
+
+    void check(JsonParser parser, int size, int propertyNum) throws MismatchedInputException {
+      if (rows != size || size > 0 && columns != propertyNum) {
+        throw mismatch(parser, name + " must have " + size + " rows of " + propertyNum
+            + " values");
+      }
+    }
+
+    static int grow(int capacity, int needed) {
+      return Math.max(needed, capacity + (capacity >> 1) + 1);
+    }
+  }
+
+  private static final class DoubleMatrix extends Rows {
+
+    double[] values;
+
+    DoubleMatrix(String name, int capacity) {
+      super(name);
+      this.values = new double[capacity];
+    }
+
+    void add(double value) {
+      int cell = nextCell();
+      if (cell == values.length) {
+        values = Arrays.copyOf(values, grow(values.length, cell + 1));
+      }
+      values[cell] = value;
+    }
+  }
+
+  private static final class RequirementMatrix extends Rows {
+
+    int[] types;
+    double[] bounds1;
+    double[] bounds2;
+
+    RequirementMatrix(int capacity) {
+      super(REQUIREMENTS);
+      this.types = new int[capacity];
+      this.bounds1 = new double[capacity];
+      this.bounds2 = new double[capacity];
+    }
+
+    void add(JsonParser parser, String requirement) throws MismatchedInputException {
+      int cell = nextCell();
+      if (cell == types.length) {
+        int capacity = grow(types.length, cell + 1);
+        types = Arrays.copyOf(types, capacity);
+        bounds1 = Arrays.copyOf(bounds1, capacity);
+        bounds2 = Arrays.copyOf(bounds2, capacity);
+      }
+      try {
+        MatchingData.encodeRequirement(RequirementDecoder.decode(requirement),
+            cell, types, bounds1, bounds2);
+      } catch (RuntimeException e) {
+        throw mismatch(parser, "Invalid requirement '" + requirement + "' in " + REQUIREMENTS);
+      }
+    }
+  }
+}
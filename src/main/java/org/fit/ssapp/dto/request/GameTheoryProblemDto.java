@@ -33,11 +33,13 @@ public class GameTheoryProblemDto implements ProblemRequestDto {
   private String defaultPayoffFunction;
   private String algorithm;
   private boolean isMaximizing;
+  private boolean exactDecimal;
   private String distributedCores;
   private Integer maxTime;
   private Integer generation;
   private Integer populationSize;
   private int runCountPerAlgorithm = GameTheoryConst.DEFAULT_RUN_COUNT_PER_ALGO;
+  private Long seed;
 
   @Override
   public String toString() {
@@ -49,10 +51,12 @@ public class GameTheoryProblemDto implements ProblemRequestDto {
         ", defaultPayoffFunction='" + defaultPayoffFunction + '\'' +
         ", algorithm='" + algorithm + '\'' +
         ", isMaximizing=" + isMaximizing +
+        ", exactDecimal=" + exactDecimal +
         ", distributedCores='" + distributedCores + '\'' +
         ", maxTime=" + maxTime +
         ", generation=" + generation +
         ", populationSize=" + populationSize +
+        ", seed=" + seed +
         '}';
   }
 
@@ -19,7 +19,9 @@ import org.fit.ssapp.dto.validator.ValidIndividualArrayPropertyCount;
 import org.fit.ssapp.dto.validator.ValidIndividualArraysSize;
 import org.fit.ssapp.dto.validator.ValidRequirementSyntax;
 import org.fit.ssapp.dto.validator.ValidStableMatchingConfig;
+import org.fit.ssapp.ss.smt.preference.ScorePrecision;
 
+import java.lang.reflect.Array;
 import java.util.Arrays;
 
 
@@ -87,7 +89,35 @@ public class StableMatchingProblemDto implements ProblemRequestDto {
   private int runCountPerAlgorithm = StableMatchingConst.DEFAULT_RUN_COUNT_PER_ALGO;
 
   /**
-   * auto generated by Intellij
+   * base seed of insight runs, random if absent.
+   */
+  private Long seed;
+
+  /**
+   * stop a run when the best fitness did not improve for this many generations, off if absent.
+   */
+  private Integer stagnationGenerations;
+
+  /**
+   * stop a run once this fitness is reached, off if absent.
+   */
+  private Double targetFitness;
+
+  /**
+   * number of evaluated permutations memoized during a run, off if absent. Bounded by
+   * {@code validation.stable-matching.evaluation-cache-size.max}.
+   */
+  private Integer evaluationCacheSize;
+
+  /**
+   * storage of preference scores of two-set problems, {@link ScorePrecision#DOUBLE} if absent.
+   */
+  private ScorePrecision scorePrecision;
+
+  /**
+   * Individual arrays are described by their dimensions only, printing them would cost more than
+   * the request itself on large instances.
+   *
    * @return String __repr__
    */
   @Override
@@ -96,14 +126,14 @@ public class StableMatchingProblemDto implements ProblemRequestDto {
         "problemName='" + problemName + '\'' +
         ", numberOfSets=" + numberOfSets +
         ", numberOfProperty=" + numberOfProperty +
-        ", individualSetIndices=" + Arrays.toString(individualSetIndices) +
-        ", individualCapacities=" + Arrays.toString(individualCapacities) +
-        ", individualRequirements=" + Arrays.toString(individualRequirements) +
-        ", individualWeights=" + Arrays.toString(individualWeights) +
-        ", individualProperties=" + Arrays.toString(individualProperties) +
+        ", individualSetIndices=" + dimensions(individualSetIndices) +
+        ", individualCapacities=" + dimensions(individualCapacities) +
+        ", individualRequirements=" + dimensions(individualRequirements) +
+        ", individualWeights=" + dimensions(individualWeights) +
+        ", individualProperties=" + dimensions(individualProperties) +
         ", evaluateFunctions=" + Arrays.toString(evaluateFunctions) +
         ", fitnessFunction='" + fitnessFunction + '\'' +
-        ", excludedPairs=" + Arrays.toString(excludedPairs) +
+        ", excludedPairs=" + dimensions(excludedPairs) +
         ", populationSize=" + populationSize +
         ", generation=" + generation +
         ", numberOfIndividuals=" + numberOfIndividuals +
@@ -111,6 +141,23 @@ public class StableMatchingProblemDto implements ProblemRequestDto {
         ", algorithm='" + algorithm + '\'' +
         ", distributedCores='" + distributedCores + '\'' +
         ", runCountPerAlgorithm=" + runCountPerAlgorithm +
+        ", seed=" + seed +
+        ", stagnationGenerations=" + stagnationGenerations +
+        ", targetFitness=" + targetFitness +
+        ", evaluationCacheSize=" + evaluationCacheSize +
+        ", scorePrecision=" + scorePrecision +
         '}';
   }
+
+  private static String dimensions(int[] array) {
+    return array == null ? "null" : "[" + array.length + "]";
+  }
+
+  private static String dimensions(Object[] rows) {
+    if (rows == null) {
+      return "null";
+    }
+    int columns = rows.length == 0 || rows[0] == null ? 0 : Array.getLength(rows[0]);
+    return "[" + rows.length + "x" + columns + "]";
+  }
 }
@@ -0,0 +1,124 @@
+package org.fit.ssapp.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.Instant;
+import java.util.concurrent.Future;
+import lombok.Getter;
+
+/**
+ * Represents a *solve job* submitted to the job API.
+ * ## **Main Attributes:**
+ * - **`id`** → Job id, used to poll {@code /api/jobs/{id}} or subscribe to
+ *   {@code /topic/jobs/{id}}.
+ * - **`type`** → Kind of problem solved.
+ * - **`state`** → {@link State} of the job.
+ * - **`cancelRequested`** → Whether a cancel was asked, a running job stays RUNNING until its solve
+ *   stops.
+ * - **`result`** → Response of the solver once the job is done or failed.
+ */
+@Getter
+public class SolverJob {
+
+  /**
+   * Job lifecycle.
+   */
+  public enum State {
+    QUEUED, RUNNING, DONE, FAILED, CANCELLED;
+
+    /**
+     * whether the job will not change anymore.
+     *
+     * @return boolean
+     */
+    public boolean isFinished() {
+      return this != QUEUED && this != RUNNING;
+    }
+  }
+
+  private final String id;
+  private final String type;
+  private final Instant submittedAt = Instant.now();
+  private volatile State state = State.QUEUED;
+  private volatile Instant startedAt;
+  private volatile Instant finishedAt;
+  private volatile Response result;
+  private volatile boolean cancelRequested;
+
+  @JsonIgnore
+  private volatile Future<?> future;
+
+  /**
+   * SolverJob.
+   *
+   * @param id   job id
+   * @param type kind of problem solved
+   */
+  public SolverJob(String id, String type) {
+    this.id = id;
+    this.type = type;
+  }
+
+  /**
+   * attach the future running this job.
+   *
+   * @param future Future
+   */
+  public void setFuture(Future<?> future) {
+    this.future = future;
+  }
+
+  /**
+   * QUEUED -> RUNNING.
+   *
+   * @return false if the job was cancelled meanwhile
+   */
+  public synchronized boolean start() {
+    if (state != State.QUEUED) {
+      return false;
+    }
+    state = State.RUNNING;
+    startedAt = Instant.now();
+    return true;
+  }
+
+  /**
+   * RUNNING -> DONE or FAILED, depending on the status of the response, or CANCELLED if a cancel
+   * was asked while running. A cancelled job keeps the response of its stopped solve.
+   *
+   * @param response solver response
+   */
+  public synchronized void complete(Response response) {
+    if (state.isFinished()) {
+      return;
+    }
+    result = response;
+    if (cancelRequested) {
+      state = State.CANCELLED;
+    } else {
+      state = response != null && response.getStatus() < 400 ? State.DONE : State.FAILED;
+    }
+    finishedAt = Instant.now();
+  }
+
+  /**
+   * QUEUED -> CANCELLED. A running job is only asked to stop: its solve ends at the next step of
+   * the run and the job turns CANCELLED when it completes.
+   *
+   * @return false if the job had already finished
+   */
+  public synchronized boolean cancel() {
+    if (state.isFinished()) {
+      return false;
+    }
+    cancelRequested = true;
+    if (state == State.QUEUED) {
+      state = State.CANCELLED;
+      finishedAt = Instant.now();
+      Future<?> queued = future;
+      if (queued != null) {
+        queued.cancel(false);
+      }
+    }
+    return true;
+  }
+}
@@ -33,6 +33,10 @@ public class IndividualArrayPropertyCountValidator implements
   @Override
   public boolean isValid(StableMatchingProblemDto dto, ConstraintValidatorContext context) {
     int expectedPropertyCount = dto.getNumberOfProperty();
+    if (dto.getIndividualRequirements() == null || dto.getIndividualWeights() == null
+            || dto.getIndividualProperties() == null) {
+      return false;
+    }
 
     return Arrays.stream(dto.getIndividualRequirements())
             .allMatch(row -> row.length == expectedPropertyCount)
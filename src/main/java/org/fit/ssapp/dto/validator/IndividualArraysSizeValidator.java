@@ -24,11 +24,17 @@ public class IndividualArraysSizeValidator implements
    *
    * @param dto     The `StableMatchingProblemDto` containing the arrays to validate.
    * @param context The validation context.
-   * @return `true` if all arrays match the expected number of individuals, otherwise `false`.
+   * @return `true` if all arrays match the expected number of individuals, `false` if one is
+   *         missing or does not.
    */
   @Override
   public boolean isValid(StableMatchingProblemDto dto, ConstraintValidatorContext context) {
     int expectedCount = dto.getNumberOfIndividuals();
+    if (dto.getIndividualSetIndices() == null || dto.getIndividualCapacities() == null
+            || dto.getIndividualRequirements() == null || dto.getIndividualWeights() == null
+            || dto.getIndividualProperties() == null) {
+      return false;
+    }
     return
             dto.getIndividualSetIndices().length == expectedCount
                     &&
@@ -33,10 +33,14 @@ public class RequirementSyntaxValidator implements
    *
    * @param value   The `String[][]` array containing requirement expressions.
    * @param context The validation context for reporting violations.
-   * @return `true` if all expressions match the expected format, otherwise `false`.
+   * @return `true` if all expressions match the expected format or there are none, otherwise
+   *         `false`.
    */
   @Override
   public boolean isValid(String[][] value, ConstraintValidatorContext context) {
+    if (value == null) {
+      return true;
+    }
     for (String[] row : value) {
       for (String requirement : row) {
         if (!VALID_PATTERN.matcher(requirement).matches()) {
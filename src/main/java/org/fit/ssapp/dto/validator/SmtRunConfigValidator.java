@@ -5,6 +5,8 @@ import jakarta.validation.ConstraintValidatorContext;
 import org.fit.ssapp.config.ValidationConfig;
 import org.fit.ssapp.constants.MessageConst.ErrMessage;
 import org.fit.ssapp.dto.request.StableMatchingProblemDto;
+import org.fit.ssapp.ss.smt.preference.ScorePrecision;
+import org.fit.ssapp.util.EvaluatorUtils;
 import org.fit.ssapp.util.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -95,6 +97,25 @@ public class SmtRunConfigValidator
       isValid = false;
     }
 
+    Integer cacheSize = dto.getEvaluationCacheSize();
+    int maxCacheSize = validationConfig.getMaxEvaluationCacheSize();
+    if (cacheSize != null && cacheSize > maxCacheSize) {
+      addErrorToContext(context,
+          "evaluationCacheSize",
+          "Evaluation cache size must not exceed " + maxCacheSize);
+      isValid = false;
+    }
+
+    // rank-only preferences carry no raw scores for a custom fitness function to read
+    if (dto.getScorePrecision() == ScorePrecision.RANK16
+        && dto.getFitnessFunction() != null
+        && !EvaluatorUtils.getValidFitnessFunction(dto.getFitnessFunction()).isEmpty()) {
+      addErrorToContext(context,
+          "scorePrecision",
+          "RANK16 scores keep the ordering only, use it with the default fitness function");
+      isValid = false;
+    }
+
     return isValid;
   }
 
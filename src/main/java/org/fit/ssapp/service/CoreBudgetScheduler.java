@@ -0,0 +1,249 @@
+package org.fit.ssapp.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.fit.ssapp.config.SolverPoolConfig;
+import org.springframework.stereotype.Service;
+
+/**
+ * CoreBudgetScheduler - Shares one work-stealing pool of evaluation threads between the MOEA runs
+ * in progress. Every run leases an executor whose number of in-flight evaluations is capped by
+ * its share of the global core budget. Shares are weighted by problem size, never exceed the cores
+ * a run asked for and are recomputed whenever a run starts or finishes, so the requested number
+ * of cores ({@code distributedCores}) is an upper bound rather than a guarantee.
+ */
+@Service
+@Slf4j
+public class CoreBudgetScheduler {
+
+  private static final String ALL_CORES = "all";
+
+  private final int budget;
+  private final ForkJoinPool pool;
+  private final Set<Lease> leases = new LinkedHashSet<>();
+
+  /**
+   * CoreBudgetScheduler.
+   *
+   * @param solverPoolConfig core budget, all available processors if not positive
+   */
+  public CoreBudgetScheduler(SolverPoolConfig solverPoolConfig) {
+    int configured = solverPoolConfig.getCoreBudget();
+    this.budget = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    this.pool = new ForkJoinPool(budget);
+  }
+
+  /**
+   * Lease evaluation cores for a run. The lease must be closed when the run ends.
+   *
+   * @param distributedCores cores requested, {@code "all"} or {@code null} for the whole budget
+   * @param weight           relative size of the problem solved by the run
+   * @return executor running the evaluations of the run
+   * @throws NumberFormatException if the requested cores are not a number
+   */
+  public Lease acquire(String distributedCores, int weight) {
+    int requested = budget;
+    if (distributedCores != null && !distributedCores.equals(ALL_CORES)) {
+      requested = Math.max(1, Math.min(budget, Integer.parseInt(distributedCores)));
+    }
+    Lease lease = new Lease(requested, Math.max(1, weight));
+    synchronized (this) {
+      leases.add(lease);
+      rebalance();
+    }
+    return lease;
+  }
+
+  public int getBudget() {
+    return budget;
+  }
+
+  /**
+   * Number of runs holding a lease.
+   *
+   * @return active runs
+   */
+  public synchronized int getActiveRuns() {
+    return leases.size();
+  }
+
+  /**
+   * Stops the shared pool once the application closes.
+   */
+  @PreDestroy
+  public void shutdown() {
+    pool.shutdown();
+  }
+
+  private void release(Lease lease) {
+    synchronized (this) {
+      if (leases.remove(lease)) {
+        rebalance();
+      }
+    }
+  }
+
+  /**
+   * Weighted water-filling of the budget: each round hands out the cores left in proportion to the
+   * weights of the runs still below their request. Every run keeps at least one core, even when
+   * more runs than cores are active.
+   */
+  private void rebalance() {
+    List<Lease> open = new ArrayList<>(leases);
+    for (Lease lease : open) {
+      lease.share = 0;
+    }
+    int remaining = budget;
+    while (remaining > 0 && !open.isEmpty()) {
+      long totalWeight = 0;
+      for (Lease lease : open) {
+        totalWeight += lease.weight;
+      }
+      int available = remaining;
+      for (Iterator<Lease> it = open.iterator(); it.hasNext() && remaining > 0; ) {
+        Lease lease = it.next();
+        int portion = (int) Math.max(1, available * lease.weight / totalWeight);
+        portion = Math.min(portion, Math.min(lease.requested - lease.share, remaining));
+        lease.share += portion;
+        remaining -= portion;
+        if (lease.share == lease.requested) {
+          it.remove();
+        }
+      }
+    }
+    for (Lease lease : leases) {
+      lease.setLimit(Math.max(1, lease.share));
+    }
+    log.debug("Core budget {} shared between {} runs", budget, leases.size());
+  }
+
+  /**
+   * Executor of one run, dispatching at most its share of evaluations at a time to the shared
+   * pool. Closing it returns the share to the other runs, it does not stop the shared pool.
+   */
+  public final class Lease extends AbstractExecutorService implements AutoCloseable {
+
+    private final int requested;
+    private final int weight;
+    private final Deque<Runnable> queue = new ArrayDeque<>();
+    private int share;
+    private int limit;
+    private int running;
+    private boolean shutdown;
+
+    private Lease(int requested, int weight) {
+      this.requested = requested;
+      this.weight = weight;
+    }
+
+    /**
+     * Evaluations this run may have in flight.
+     *
+     * @return current share of the budget
+     */
+    public synchronized int getLimit() {
+      return limit;
+    }
+
+    private synchronized void setLimit(int limit) {
+      this.limit = limit;
+      dispatch();
+    }
+
+    @Override
+    public synchronized void execute(Runnable command) {
+      if (shutdown) {
+        throw new RejectedExecutionException("Core lease already closed");
+      }
+      queue.add(command);
+      dispatch();
+    }
+
+    private void dispatch() {
+      while (running < limit && !queue.isEmpty()) {
+        Runnable task = queue.poll();
+        running++;
+        pool.execute(() -> runTask(task));
+      }
+    }
+
+    private void runTask(Runnable task) {
+      try {
+        task.run();
+      } finally {
+        synchronized (this) {
+          running--;
+          dispatch();
+          if (isTerminated()) {
+            notifyAll();
+          }
+        }
+      }
+    }
+
+    @Override
+    public void shutdown() {
+      synchronized (this) {
+        if (shutdown) {
+          return;
+        }
+        shutdown = true;
+        if (isTerminated()) {
+          notifyAll();
+        }
+      }
+      release(this);
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      List<Runnable> pending;
+      synchronized (this) {
+        pending = new ArrayList<>(queue);
+        queue.clear();
+      }
+      shutdown();
+      return pending;
+    }
+
+    @Override
+    public synchronized boolean isShutdown() {
+      return shutdown;
+    }
+
+    @Override
+    public synchronized boolean isTerminated() {
+      return shutdown && running == 0 && queue.isEmpty();
+    }
+
+    @Override
+    public synchronized boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+      long deadline = System.nanoTime() + unit.toNanos(timeout);
+      while (!isTerminated()) {
+        long left = deadline - System.nanoTime();
+        if (left <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(this, left);
+      }
+      return true;
+    }
+
+    @Override
+    public void close() {
+      shutdown();
+    }
+  }
+}
@@ -1,9 +1,14 @@
 package org.fit.ssapp.service;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.fit.ssapp.constants.AppConst;
@@ -41,6 +46,8 @@ import org.springframework.stereotype.Service;
 public class GameTheoryService {
 
   private final SimpMessagingTemplate simpMessagingTemplate;
+  private final CoreBudgetScheduler coreBudgetScheduler;
+  private final InsightRunScheduler insightRunScheduler;
 
   /**
    * Solves a game theory problem using the specified algorithm and returns the solution.
@@ -95,7 +102,7 @@ public class GameTheoryService {
    * @param algorithm        the algorithm to use for solving the problem
    * @param generation       the number of generations
    * @param populationSize   the population size
-   * @param distributedCores the number of cores to distribute the computation
+   * @param distributedCores the number of cores requested for the computation
    * @param maxTime          the maximum time allowed for computation
    * @return the nominated population of solutions
    */
@@ -106,65 +113,33 @@ public class GameTheoryService {
       String distributedCores,
       Integer maxTime) {
 
-    NondominatedPopulation results;
     try {
-      if (distributedCores.equals("all")) {
-        results = new Executor()
-            .withProblem(problem)
-            .withAlgorithm(algorithm)
-            .withMaxEvaluations(generation
-                *
-                populationSize)
-            .withProperty("populationSize", populationSize)
-            .withProperty("maxTime", maxTime)
-            .distributeOnAllCores()
-            .run();
-
-
-      } else {
-        int numberOfCores = Integer.parseInt(distributedCores);
-        results = new Executor()
-            .withProblem(problem)
-            .withAlgorithm(algorithm)
-            .withMaxEvaluations(generation
-                *
-                populationSize)
-            .withProperty("populationSize", populationSize)
-            .withProperty("maxTime", maxTime)
-            .distributeOn(numberOfCores)
-            .run();
-      }
-      return results;
+      return runOnLease(problem, algorithm, generation, populationSize, distributedCores,
+          maxTime);
     } catch (Exception e) {
-
       // second attempt to solve the problem if the first run got some error
-      if (distributedCores.equals("all")) {
-        results = new Executor()
-            .withProblem(problem)
-            .withAlgorithm(algorithm)
-            .withMaxEvaluations(generation
-                *
-                populationSize)
-            .withProperty("populationSize", populationSize)
-            .withProperty("maxTime", maxTime)
-            .distributeOnAllCores()
-            .run();
-
-
-      } else {
-        int numberOfCores = Integer.parseInt(distributedCores);
-        results = new Executor()
-            .withProblem(problem)
-            .withAlgorithm(algorithm)
-            .withMaxEvaluations(generation * populationSize)
-            .withProperty("populationSize", populationSize)
-            .withProperty("maxTime", maxTime)
-            .distributeOn(numberOfCores)
-            .run();
-      }
-      return results;
-
+      return runOnLease(problem, algorithm, generation, populationSize, distributedCores,
+          maxTime);
+    }
+  }
 
+  private NondominatedPopulation runOnLease(GameTheoryProblem problem,
+      String algorithm,
+      Integer generation,
+      Integer populationSize,
+      String distributedCores,
+      Integer maxTime) {
+    try (CoreBudgetScheduler.Lease cores = coreBudgetScheduler.acquire(distributedCores,
+        problem.getNumberOfVariables())) {
+      return new Executor()
+          .withProblem(problem)
+          .withAlgorithm(algorithm)
+          .withMaxEvaluations(generation * populationSize)
+          .withTerminationCondition(JobCancellation.termination())
+          .withProperty("populationSize", populationSize)
+          .withProperty("maxTime", maxTime)
+          .distributeWith(cores)
+          .run();
     }
   }
 
@@ -202,7 +177,11 @@ public class GameTheoryService {
         chosenStratIdx = EncodingUtils.getInt(var);
       }
 
-      double strategyPayoff = normalPlayer.getStrategyAt(chosenStratIdx).getPayoff();
+      // payoffs are evaluated as plain doubles, round them for the response only
+      double strategyPayoff = BigDecimal
+          .valueOf(normalPlayer.getStrategyAt(chosenStratIdx).getPayoff())
+          .setScale(10, RoundingMode.HALF_UP)
+          .doubleValue();
 
       String playerName = getPlayerName(normalPlayer, i);
       String strategyName = getStrategyName(chosenStratIdx, normalPlayer, i);
@@ -241,66 +220,68 @@ public class GameTheoryService {
         createProgressMessage("Initializing the problem..."));
 
     log.info("Mapping request to problem ...");
+    // both forms are built once, every run only reads them
     GameTheoryProblem problem = GameTheoryProblemMapper.toProblem(request);
+    StandardGameTheoryProblem standardProblem;
+    PsoCompatibleGameTheoryProblem psoProblem;
+    if (problem instanceof PsoCompatibleGameTheoryProblem) {
+      psoProblem = (PsoCompatibleGameTheoryProblem) problem;
+      standardProblem = GameTheoryProblemMapper.toStandardProblem(psoProblem);
+    } else {
+      standardProblem = (StandardGameTheoryProblem) problem;
+      psoProblem = GameTheoryProblemMapper.toPsoProblem(standardProblem);
+    }
     GameSolutionInsights gameSolutionInsights = initGameSolutionInsights(algorithms);
+    long baseSeed = Objects.requireNonNullElseGet(request.getSeed(),
+        () -> ThreadLocalRandom.current().nextLong());
+    gameSolutionInsights.setSeed(baseSeed);
 
-    int currentRunCount      = 1;
+    AtomicInteger finishedRunCount = new AtomicInteger();
     int runCountPerAlgorithm = request.getRunCountPerAlgorithm();
     int maxRunCount          = algorithms.length * runCountPerAlgorithm;
+    double[][] fitnessValues = new double[algorithms.length][runCountPerAlgorithm];
+    double[][] runtimes      = new double[algorithms.length][runCountPerAlgorithm];
 
     log.info("Start benchmarking the algorithms...");
     simpMessagingTemplate.convertAndSendToUser(sessionCode,
         "/progress",
         createProgressMessage("Start benchmarking the algorithms..."));
 
-    for (String algorithm : algorithms) {
-      log.info("Running algorithm: {}...", algorithm);
-      for (int i = 0; i < runCountPerAlgorithm; i++) {
-        System.out.println("Iteration: " + i);
-        long start = System.currentTimeMillis();
-
-        if (problem instanceof StandardGameTheoryProblem
-            && AppConst.PSO_BASED_ALGOS.contains(algorithm)) {
-          problem = GameTheoryProblemMapper
-              .toPsoProblem((StandardGameTheoryProblem) problem);
-        }
-
-        if (problem instanceof PsoCompatibleGameTheoryProblem
-            && !AppConst.PSO_BASED_ALGOS.contains(algorithm)) {
-          problem = GameTheoryProblemMapper
-              .toStandardProblem((PsoCompatibleGameTheoryProblem) problem);
-        }
-
-        NondominatedPopulation results = solveProblem(problem,
-            algorithm,
-            request.getGeneration(),
-            request.getPopulationSize(),
-            request.getDistributedCores(),
-            request.getMaxTime());
-
-        long end = System.currentTimeMillis();
-
-        double runtime = (double) (end - start) / 1000;
-        double fitnessValue;
-        fitnessValue = getFitnessValue(results);
-        fitnessValue = NumberUtils.formatDouble(fitnessValue, 4);
-
-        // send the progress to the client
-        String message =
-            "Algorithm " + algorithm + " finished iteration: #" + (i + 1) + "/"
-                + runCountPerAlgorithm;
-        Progress progress = createProgress(message, runtime, currentRunCount, maxRunCount);
-        System.out.println(progress);
-        simpMessagingTemplate.convertAndSendToUser(sessionCode, "/progress", progress);
-        currentRunCount++;
-
-        // add the fitness value and runtime to the insights
-        gameSolutionInsights.getFitnessValues().get(algorithm).add(fitnessValue);
-        gameSolutionInsights.getRuntimes().get(algorithm).add(runtime);
+    insightRunScheduler.runAll(algorithms.length, runCountPerAlgorithm, baseSeed, (a, i) -> {
+      String algorithm = algorithms[a];
+      long start = System.currentTimeMillis();
+
+      GameTheoryProblem runProblem = AppConst.PSO_BASED_ALGOS.contains(algorithm)
+          ? psoProblem
+          : standardProblem;
+      NondominatedPopulation results = solveProblem(runProblem,
+          algorithm,
+          request.getGeneration(),
+          request.getPopulationSize(),
+          request.getDistributedCores(),
+          request.getMaxTime());
 
+      long end = System.currentTimeMillis();
 
-      }
+      double runtime = (double) (end - start) / 1000;
+      fitnessValues[a][i] = NumberUtils.formatDouble(getFitnessValue(results), 4);
+      runtimes[a][i] = runtime;
 
+      // send the progress to the client
+      String message =
+          "Algorithm " + algorithm + " finished iteration: #" + (i + 1) + "/"
+              + runCountPerAlgorithm;
+      Progress progress = createProgress(message, runtime, finishedRunCount.incrementAndGet(),
+          maxRunCount);
+      simpMessagingTemplate.convertAndSendToUser(sessionCode, "/progress", progress);
+    });
+
+    // add the fitness values and runtimes to the insights, in run order
+    for (int a = 0; a < algorithms.length; a++) {
+      for (int i = 0; i < runCountPerAlgorithm; i++) {
+        gameSolutionInsights.getFitnessValues().get(algorithms[a]).add(fitnessValues[a][i]);
+        gameSolutionInsights.getRuntimes().get(algorithms[a]).add(runtimes[a][i]);
+      }
     }
     log.info("Benchmarking finished!");
     simpMessagingTemplate.convertAndSendToUser(sessionCode,
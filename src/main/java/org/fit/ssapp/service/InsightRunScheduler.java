@@ -0,0 +1,94 @@
+package org.fit.ssapp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.fit.ssapp.util.ThreadLocalPrng;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * InsightRunScheduler - Runs the (algorithm, run) pairs of an insight request concurrently on the
+ * insight pool. Every run is seeded from the base seed of the request before it starts, on the
+ * thread executing it, so a benchmark is reproducible whatever the order in which runs complete.
+ */
+@Service
+@Slf4j
+public class InsightRunScheduler {
+
+  private final ThreadPoolTaskExecutor insightExecutor;
+
+  /**
+   * InsightRunScheduler.
+   *
+   * @param insightExecutor insight pool
+   */
+  public InsightRunScheduler(@Qualifier("insightExecutor") ThreadPoolTaskExecutor insightExecutor) {
+    this.insightExecutor = insightExecutor;
+  }
+
+  /**
+   * One benchmark run.
+   */
+  @FunctionalInterface
+  public interface InsightRun {
+
+    /**
+     * Runs an algorithm once, the {@code PRNG} of the calling thread being already seeded.
+     *
+     * @param algorithm algorithm index
+     * @param run       run index of the algorithm
+     */
+    void run(int algorithm, int run);
+  }
+
+  /**
+   * Runs every algorithm {@code runCount} times and waits for all runs. If a run fails, the runs
+   * not started yet are cancelled and its error is rethrown.
+   *
+   * @param algorithmCount number of algorithms
+   * @param runCount       runs per algorithm
+   * @param baseSeed       seed of the benchmark
+   * @param insightRun     run body, called concurrently
+   */
+  public void runAll(int algorithmCount, int runCount, long baseSeed, InsightRun insightRun) {
+    List<Future<?>> futures = new ArrayList<>(algorithmCount * runCount);
+    for (int a = 0; a < algorithmCount; a++) {
+      for (int r = 0; r < runCount; r++) {
+        int algorithm = a;
+        int run = r;
+        long seed = ThreadLocalPrng.seedOf(baseSeed, algorithm, run);
+        futures.add(insightExecutor.submit(() -> {
+          ThreadLocalPrng.seed(seed);
+          insightRun.run(algorithm, run);
+        }));
+      }
+    }
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancel(futures);
+      throw new CancellationException("Insight runs interrupted");
+    } catch (ExecutionException e) {
+      cancel(futures);
+      log.error("Insight run failed: {}", e.getCause().getMessage(), e.getCause());
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  private static void cancel(List<Future<?>> futures) {
+    for (Future<?> future : futures) {
+      future.cancel(true);
+    }
+  }
+}
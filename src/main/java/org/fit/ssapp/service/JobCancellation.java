@@ -0,0 +1,65 @@
+package org.fit.ssapp.service;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import org.moeaframework.core.Algorithm;
+import org.moeaframework.core.TerminationCondition;
+
+/**
+ * Cancellation of the job running on the current thread. MOEA runs ignore interrupts, so a
+ * cancelled job is only stopped when the termination condition of its run reads this flag. Solves
+ * run outside of a job are never cancelled.
+ */
+final class JobCancellation {
+
+  private static final BooleanSupplier NEVER = () -> false;
+  private static final ThreadLocal<BooleanSupplier> CURRENT = ThreadLocal.withInitial(() -> NEVER);
+
+  private JobCancellation() {
+  }
+
+  /**
+   * Runs a solve of a job on the current thread.
+   *
+   * @param cancelled whether the job was cancelled
+   * @param solve     solver call
+   * @param <T>       result type
+   * @return result of the solve
+   */
+  static <T> T runWith(BooleanSupplier cancelled, Supplier<T> solve) {
+    CURRENT.set(cancelled);
+    try {
+      return solve.get();
+    } finally {
+      CURRENT.remove();
+    }
+  }
+
+  /**
+   * Cancellation of the job running on the current thread, to be read from its run.
+   *
+   * @return whether the job was cancelled
+   */
+  static BooleanSupplier current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Stops a run once the job running on the current thread is cancelled.
+   *
+   * @return TerminationCondition
+   */
+  static TerminationCondition termination() {
+    BooleanSupplier cancelled = current();
+    return new TerminationCondition() {
+      @Override
+      public void initialize(Algorithm algorithm) {
+      }
+
+      @Override
+      public boolean shouldTerminate(Algorithm algorithm) {
+        return cancelled.getAsBoolean();
+      }
+    };
+  }
+}
@@ -18,13 +18,11 @@ import org.fit.ssapp.ss.smt.MatchingProblem;
 import org.fit.ssapp.ss.smt.implement.MTMProblem;
 import org.fit.ssapp.ss.smt.result.MatchingSolution;
 import org.fit.ssapp.ss.smt.result.MatchingSolutionInsights;
+import org.fit.ssapp.ss.smt.termination.MatchingTermination;
 import org.fit.ssapp.util.ComputerSpecsUtil;
 import org.moeaframework.Executor;
 import org.moeaframework.core.NondominatedPopulation;
-import org.moeaframework.core.Problem;
 import org.moeaframework.core.Solution;
-import org.moeaframework.core.TerminationCondition;
-import org.moeaframework.core.termination.MaxFunctionEvaluations;
 import org.moeaframework.util.TypedProperties;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -38,6 +36,7 @@ public class PsoCompatSmtService implements ProblemService {
 
   private static final int RUN_COUNT_PER_ALGORITHM = 10;
   private final SimpMessagingTemplate simpMessagingTemplate;
+  private final CoreBudgetScheduler coreBudgetScheduler;
 
   /**
    * Solves a stable matching problem based on the given request.
@@ -56,11 +55,11 @@ public class PsoCompatSmtService implements ProblemService {
           problem.getMatchingData().getSize());
       long startTime = System.currentTimeMillis();
 
+      MatchingTermination termination = SmtCommonService.newTermination(request);
       NondominatedPopulation results = solveProblem(problem,
           request.getAlgorithm(),
           request.getPopulationSize(),
-          request.getGeneration(),
-          request.getMaxTime(),
+          termination,
           request.getDistributedCores());
 
       if (Objects.isNull(results)) {
@@ -81,6 +80,8 @@ public class PsoCompatSmtService implements ProblemService {
       String algorithm = request.getAlgorithm();
 
       MatchingSolution matchingSolution = formatSolution(algorithm, results, runtime);
+      matchingSolution.setTerminationReason(termination.getReason());
+      log.info("Run stopped on {}", termination.getReason());
       matchingSolution.setSetSatisfactions(problem.getMatchesSatisfactions((Matches) results
           .get(0)
           .getAttribute(StableMatchingConst.MATCHES_KEY)));
@@ -132,52 +133,31 @@ public class PsoCompatSmtService implements ProblemService {
    * @param problem The stable matching problem instance.
    * @param algorithm The algorithm to use for solving.
    * @param populationSize The population size for evolutionary algorithms.
-   * @param generation The number of generations to run.
-   * @param maxTime The maximum execution time allowed.
-   * @param distributedCores The number of computing cores used for execution.
+   * @param termination Termination of the run, it keeps the reason the run stopped.
+   * @param distributedCores The number of computing cores requested for execution.
    * @return A `NondominatedPopulation` containing the solutions.
    */
-  private NondominatedPopulation solveProblem(Problem problem,
+  private NondominatedPopulation solveProblem(MatchingProblem problem,
       String algorithm,
       int populationSize,
-      int generation,
-      int maxTime,
+      MatchingTermination termination,
       String distributedCores) {
     NondominatedPopulation result;
     if (algorithm == null) {
       algorithm = "PESA2";
     }
-    if (distributedCores == null) {
-      distributedCores = "all";
-    }
     TypedProperties properties = new TypedProperties();
     properties.setInt("populationSize", populationSize);
-    properties.setInt("maxTime", maxTime);
-    TerminationCondition maxEval =
-        new MaxFunctionEvaluations(generation * populationSize);
-
-    try {
-      if (distributedCores.equals("all")) {
-        result = new Executor()
 
-            .withProblem(problem)
-            .withAlgorithm(algorithm)
-            .withMaxEvaluations(generation * populationSize)
-            .withTerminationCondition(maxEval)
-            .withProperties(properties)
-            .distributeOnAllCores()
-            .run();
-      } else {
-        int numberOfCores = Integer.parseInt(distributedCores);
-        result = new Executor()
-            .withProblem(problem)
-            .withAlgorithm(algorithm)
-            .withMaxEvaluations(generation * populationSize)
-            .withTerminationCondition(maxEval)
-            .withProperties(properties)
-            .distributeOn(numberOfCores)
-            .run();
-      }
+    try (CoreBudgetScheduler.Lease cores = coreBudgetScheduler.acquire(distributedCores,
+        problem.getMatchingData().getSize())) {
+      result = new Executor()
+          .withProblem(problem)
+          .withAlgorithm(algorithm)
+          .withTerminationCondition(termination)
+          .withProperties(properties)
+          .distributeWith(cores)
+          .run();
       log.info("Problem {} solved successfully!", problem.getName());
       return result;
     } catch (Exception e) {
@@ -242,9 +222,8 @@ public class PsoCompatSmtService implements ProblemService {
 
         NondominatedPopulation results = solveProblem(problem,
             algorithm,
-            request.getGeneration(),
             request.getPopulationSize(),
-            request.getMaxTime(),
+            SmtCommonService.newTermination(request),
             request.getDistributedCores());
 
         long end = System.currentTimeMillis();
@@ -8,14 +8,13 @@ import org.fit.ssapp.dto.response.Progress;
 import org.fit.ssapp.dto.response.Response;
 import org.fit.ssapp.ss.smt.Matches;
 import org.fit.ssapp.ss.smt.MatchingProblem;
+import org.fit.ssapp.ss.smt.cache.CachedMatchingProblem;
 import org.fit.ssapp.ss.smt.result.MatchingSolution;
 import org.fit.ssapp.ss.smt.result.MatchingSolutionInsights;
+import org.fit.ssapp.ss.smt.termination.MatchingTermination;
 import org.moeaframework.Executor;
 import org.moeaframework.core.NondominatedPopulation;
-import org.moeaframework.core.Problem;
 import org.moeaframework.core.Solution;
-import org.moeaframework.core.TerminationCondition;
-import org.moeaframework.core.termination.MaxFunctionEvaluations;
 import org.moeaframework.util.TypedProperties;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +26,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Service
@@ -34,6 +35,8 @@ import java.util.Objects;
 public class SmtCommonService {
 
   private final SimpMessagingTemplate simpMessagingTemplate;
+  private final CoreBudgetScheduler coreBudgetScheduler;
+  private final InsightRunScheduler insightRunScheduler;
 
   private static final Integer RUN_COUNT_PER_ALGORITHM = 10;
 
@@ -54,11 +57,12 @@ public class SmtCommonService {
           problem.getMatchingData().getSize());
       long startTime = System.currentTimeMillis();
 
-      NondominatedPopulation results = solveProblem(problem,
+      MatchingProblem solvedProblem = withEvaluationCache(problem, request);
+      MatchingTermination termination = newTermination(request);
+      NondominatedPopulation results = solveProblem(solvedProblem,
           request.getAlgorithm(),
           request.getPopulationSize(),
-          request.getGeneration(),
-          request.getMaxTime(),
+          termination,
           request.getDistributedCores());
 
       if (Objects.isNull(results)) {
@@ -80,6 +84,14 @@ public class SmtCommonService {
       String algorithm = request.getAlgorithm();
 
       MatchingSolution matchingSolution = formatSolution(algorithm, results, runtime);
+      matchingSolution.setTerminationReason(termination.getReason());
+      log.info("Run stopped on {}", termination.getReason());
+      if (solvedProblem instanceof CachedMatchingProblem cachedProblem) {
+        matchingSolution.setEvaluationCache(cachedProblem.getCache().getStats());
+        log.info("Evaluation cache: {}", matchingSolution.getEvaluationCache());
+        matchingSolution.setMatchingCache(cachedProblem.getScores().getStats());
+        log.info("Matching cache: {}", matchingSolution.getMatchingCache());
+      }
       matchingSolution.setSetSatisfactions(problem.getMatchesSatisfactions((Matches) results
           .get(0)
           .getAttribute(StableMatchingConst.MATCHES_KEY)));
@@ -114,51 +126,32 @@ public class SmtCommonService {
    * @param problem The stable matching problem instance.
    * @param algorithm The algorithm to use for solving.
    * @param populationSize The population size for evolutionary algorithms.
-   * @param generation The number of generations to run.
-   * @param maxTime The maximum execution time allowed.
-   * @param distributedCores The number of computing cores used for execution.
+   * @param termination Termination of the run, it keeps the reason the run stopped.
+   * @param distributedCores The number of computing cores requested for execution.
    * @return A `NondominatedPopulation` containing the solutions.
    */
-  private NondominatedPopulation solveProblem(Problem problem,
+  private NondominatedPopulation solveProblem(MatchingProblem problem,
       String algorithm,
       int populationSize,
-      int generation,
-      int maxTime,
+      MatchingTermination termination,
       String distributedCores) {
     NondominatedPopulation result;
     if (algorithm == null) {
       algorithm = "PESA2";
     }
-    if (distributedCores == null) {
-      distributedCores = "all";
-    }
     TypedProperties properties = new TypedProperties();
     properties.setInt("populationSize", populationSize);
-    properties.setInt("maxTime", maxTime);
-    TerminationCondition maxEval = new MaxFunctionEvaluations(generation * populationSize);
 
 
-    try {
-      if (distributedCores.equals("all")) {
-        result = new Executor()
-            .withProblem(problem)
-            .withAlgorithm(algorithm)
-            .withMaxEvaluations(generation * populationSize)
-            .withTerminationCondition(maxEval)
-            .withProperties(properties)
-            .distributeOnAllCores()
-            .run();
-      } else {
-        int numberOfCores = Integer.parseInt(distributedCores);
-        result = new Executor()
-            .withProblem(problem)
-            .withAlgorithm(algorithm)
-            .withMaxEvaluations(generation * populationSize)
-            .withTerminationCondition(maxEval)
-            .withProperties(properties)
-            .distributeOn(numberOfCores)
-            .run();
-      }
+    try (CoreBudgetScheduler.Lease cores = coreBudgetScheduler.acquire(distributedCores,
+        problem.getMatchingData().getSize())) {
+      result = new Executor()
+          .withProblem(problem)
+          .withAlgorithm(algorithm)
+          .withTerminationCondition(termination)
+          .withProperties(properties)
+          .distributeWith(cores)
+          .run();
       //log.info("[Service] Stable Matching: Problem solved successfully!");
       return result;
     } catch (Exception e) {
@@ -167,6 +160,40 @@ public class SmtCommonService {
     }
   }
 
+  /**
+   * Termination of one run of a request: its evaluation budget, deadline (maxTime, in
+   * milliseconds), fitness stagnation and target fitness. A run of a job also stops once the job is
+   * cancelled.
+   *
+   * @param request StableMatchingProblemDto
+   * @return MatchingTermination
+   */
+  public static MatchingTermination newTermination(StableMatchingProblemDto request) {
+    return new MatchingTermination(request.getGeneration() * request.getPopulationSize(),
+        request.getPopulationSize(),
+        request.getMaxTime(),
+        Objects.requireNonNullElse(request.getStagnationGenerations(), 0),
+        request.getTargetFitness(),
+        JobCancellation.current());
+  }
+
+  /**
+   * The problem behind an evaluation cache of the size asked by the request, the problem itself if
+   * the request asks for none. A cache holds the evaluations of one run.
+   *
+   * @param problem MatchingProblem
+   * @param request StableMatchingProblemDto
+   * @return MatchingProblem
+   */
+  public static MatchingProblem withEvaluationCache(MatchingProblem problem,
+      StableMatchingProblemDto request) {
+    Integer cacheSize = request.getEvaluationCacheSize();
+    if (cacheSize == null || cacheSize <= 0) {
+      return problem;
+    }
+    return new CachedMatchingProblem(problem, cacheSize);
+  }
+
   /**
    * getInsights.
    *
@@ -188,43 +215,53 @@ public class SmtCommonService {
 
     MatchingSolutionInsights matchingSolutionInsights =
         initMatchingSolutionInsights(algorithms);
+    long baseSeed = Objects.requireNonNullElseGet(request.getSeed(),
+        () -> ThreadLocalRandom.current().nextLong());
+    matchingSolutionInsights.setSeed(baseSeed);
 
-    int currentRunCount      = 1;
+    AtomicInteger finishedRunCount = new AtomicInteger();
     int runCountPerAlgorithm = request.getRunCountPerAlgorithm();
     int maxRunCount          = algorithms.length * runCountPerAlgorithm;
+    double[][] fitnessValues = new double[algorithms.length][runCountPerAlgorithm];
+    double[][] runtimes      = new double[algorithms.length][runCountPerAlgorithm];
 
     simpMessagingTemplate.convertAndSendToUser(sessionCode,
         "/progress",
         createProgressMessage("Start benchmarking the algorithms..."));
 
-    for (String algorithm : algorithms) {
+    // independent (algorithm, run) pairs run concurrently, progress is sent as each one finishes
+    insightRunScheduler.runAll(algorithms.length, runCountPerAlgorithm, baseSeed, (a, i) -> {
+      String algorithm = algorithms[a];
+      long start = System.currentTimeMillis();
+
+      NondominatedPopulation results = solveProblem(withEvaluationCache(problem, request),
+          algorithm,
+          request.getPopulationSize(),
+          newTermination(request),
+          request.getDistributedCores());
+
+      long end = System.currentTimeMillis();
+      if (results == null) {
+        throw new IllegalStateException("Algorithm " + algorithm + " failed on iteration #"
+            + (i + 1));
+      }
+      double runtime = (double) (end - start) / 1000;
+      fitnessValues[a][i] = -getFitnessValue(results);
+      runtimes[a][i] = runtime;
+
+      String message =
+          "Algorithm " + algorithm + " finished iteration: #" + (i + 1) + "/"
+              + runCountPerAlgorithm;
+      Progress progress = createProgress(message, runtime, finishedRunCount.incrementAndGet(),
+          maxRunCount);
+      simpMessagingTemplate.convertAndSendToUser(sessionCode, "/progress", progress);
+    });
+
+    // add the fitness values and runtimes to the insights, in run order
+    for (int a = 0; a < algorithms.length; a++) {
       for (int i = 0; i < runCountPerAlgorithm; i++) {
-        System.out.println("Iteration: " + i);
-        long start = System.currentTimeMillis();
-
-        NondominatedPopulation results = solveProblem(problem,
-            algorithm,
-            request.getGeneration(),
-            request.getPopulationSize(),
-            request.getMaxTime(),
-            request.getDistributedCores());
-
-        long end = System.currentTimeMillis();
-        assert results != null;
-        double runtime = (double) (end - start) / 1000;
-        double fitnessValue = getFitnessValue(results);
-
-        String message =
-            "Algorithm " + algorithm + " finished iteration: #" + (i + 1) + "/"
-                + runCountPerAlgorithm;
-        Progress progress = createProgress(message, runtime, currentRunCount, maxRunCount);
-        System.out.println(progress);
-        simpMessagingTemplate.convertAndSendToUser(sessionCode, "/progress", progress);
-        currentRunCount++;
-
-        // add the fitness value and runtime to the insights
-        matchingSolutionInsights.getFitnessValues().get(algorithm).add(-fitnessValue);
-        matchingSolutionInsights.getRuntimes().get(algorithm).add(runtime);
+        matchingSolutionInsights.getFitnessValues().get(algorithms[a]).add(fitnessValues[a][i]);
+        matchingSolutionInsights.getRuntimes().get(algorithms[a]).add(runtimes[a][i]);
       }
     }
 
@@ -0,0 +1,168 @@
+package org.fit.ssapp.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.fit.ssapp.config.SolverPoolConfig;
+import org.fit.ssapp.dto.response.Response;
+import org.fit.ssapp.dto.response.SolverJob;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * SolverJobService - Runs solve requests as jobs on the bounded solver pool.
+ * A job is admitted only if the pool queue has room, otherwise the submission is rejected so the
+ * caller can retry later. Finished jobs are kept for the configured retention, their final state
+ * is also published to {@code /topic/jobs/{id}}. Cancelling a running job stops its solve at the
+ * next step of the run, the job keeps its pool thread until then.
+ */
+@Service
+@Slf4j
+public class SolverJobService {
+
+  private final ThreadPoolTaskExecutor taskExecutor;
+  private final SimpMessagingTemplate simpMessagingTemplate;
+  private final Duration retention;
+  private final Map<String, SolverJob> jobs = new ConcurrentHashMap<>();
+
+  /**
+   * SolverJobService.
+   *
+   * @param taskExecutor          solver pool
+   * @param simpMessagingTemplate websocket messaging
+   * @param solverPoolConfig      job retention
+   */
+  public SolverJobService(@Qualifier("taskExecutor") ThreadPoolTaskExecutor taskExecutor,
+                          SimpMessagingTemplate simpMessagingTemplate,
+                          SolverPoolConfig solverPoolConfig) {
+    this.taskExecutor = taskExecutor;
+    this.simpMessagingTemplate = simpMessagingTemplate;
+    this.retention = Duration.ofMinutes(solverPoolConfig.getJobRetentionMinutes());
+  }
+
+  /**
+   * Submit a solve.
+   *
+   * @param type  kind of problem solved
+   * @param solve solver call
+   * @return queued job
+   * @throws RejectedExecutionException if the solver queue is full
+   */
+  public SolverJob submit(String type, Supplier<ResponseEntity<Response>> solve) {
+    evictExpired();
+    SolverJob job = new SolverJob(UUID.randomUUID().toString(), type);
+    jobs.put(job.getId(), job);
+    try {
+      job.setFuture(taskExecutor.submit(() -> run(job, solve)));
+    } catch (RejectedExecutionException e) {
+      jobs.remove(job.getId());
+      throw e;
+    }
+    log.info("Job {} ({}) queued", job.getId(), type);
+    return job;
+  }
+
+  /**
+   * Find a job.
+   *
+   * @param id job id
+   * @return job, empty if unknown or expired
+   */
+  public Optional<SolverJob> find(String id) {
+    evictExpired();
+    return Optional.ofNullable(jobs.get(id));
+  }
+
+  /**
+   * Cancel a job.
+   *
+   * @param id job id
+   * @return job, empty if unknown or expired
+   */
+  public Optional<SolverJob> cancel(String id) {
+    Optional<SolverJob> job = find(id);
+    job.filter(SolverJob::cancel).ifPresent(this::publish);
+    // cancelled queued solves would hold their queue slot until a pool thread picks them
+    threadPool().purge();
+    return job;
+  }
+
+  /**
+   * number of solves waiting for a pool thread.
+   *
+   * @return queue depth
+   */
+  public int getQueueDepth() {
+    return threadPool().getQueue().size();
+  }
+
+  /**
+   * number of solves the queue can still admit.
+   *
+   * @return remaining capacity
+   */
+  public int getRemainingCapacity() {
+    return threadPool().getQueue().remainingCapacity();
+  }
+
+  /**
+   * number of solves running.
+   *
+   * @return active count
+   */
+  public int getActiveCount() {
+    return taskExecutor.getActiveCount();
+  }
+
+  private ThreadPoolExecutor threadPool() {
+    return taskExecutor.getThreadPoolExecutor();
+  }
+
+  private void run(SolverJob job, Supplier<ResponseEntity<Response>> solve) {
+    if (!job.start()) {
+      return;
+    }
+    publish(job);
+    Response response;
+    try {
+      ResponseEntity<Response> entity = JobCancellation.runWith(job::isCancelRequested, solve);
+      response = entity.getBody() != null
+          ? entity.getBody()
+          : Response.builder().status(entity.getStatusCode().value()).build();
+    } catch (RuntimeException e) {
+      log.error("Job {} failed: {}", job.getId(), e.getMessage(), e);
+      response = Response.builder()
+          .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
+          .message(e.getMessage())
+          .build();
+    }
+    job.complete(response);
+    log.info("Job {} {}", job.getId(), job.getState());
+    publish(job);
+  }
+
+  private void publish(SolverJob job) {
+    try {
+      simpMessagingTemplate.convertAndSend("/topic/jobs/" + job.getId(), job);
+    } catch (RuntimeException e) {
+      log.warn("Cannot publish job {}: {}", job.getId(), e.getMessage());
+    }
+  }
+
+  private void evictExpired() {
+    Instant expiry = Instant.now().minus(retention);
+    jobs.values().removeIf(job -> job.getState().isFinished()
+        && job.getFinishedAt() != null && job.getFinishedAt().isBefore(expiry));
+  }
+}
@@ -13,6 +13,7 @@ import org.fit.ssapp.dto.request.StableMatchingProblemDto;
 import org.fit.ssapp.dto.response.Progress;
 import org.fit.ssapp.dto.response.Response;
 import org.fit.ssapp.ss.smt.Matches;
+import org.fit.ssapp.ss.smt.MatchingData;
 import org.fit.ssapp.ss.smt.MatchingProblem;
 import org.fit.ssapp.ss.smt.implement.MTMProblem;
 import org.fit.ssapp.ss.smt.result.MatchingSolution;
@@ -72,6 +73,26 @@ public class StableMatchingService implements ProblemService {
     return this.commonService.solve(request, problem);
   }
 
+  /**
+   * Solve SMT MTM problem type over matching data already read from the request, see
+   * {@link org.fit.ssapp.dto.mapper.StableMatchingRequestReader}.
+   *
+   * @param request StableMatchingProblemDto, individual arrays are not read
+   * @param data MatchingData
+   * @return ResponseEntity
+   */
+  public ResponseEntity<Response> solve(StableMatchingProblemDto request, MatchingData data) {
+    MatchingProblem problem;
+    try {
+      problem = StableMatchingProblemMapper.toMTM(request, data);
+    } catch (Exception e) {
+      String errMessage = e.getMessage();
+      log.error("ERROR, error when trying to convert dto {}", errMessage, e);
+      return ResponseUtils.getInternalErrorResponse(errMessage);
+    }
+    return this.commonService.solve(request, problem);
+  }
+
   /**
    * Get insight session for problem type SMT MTM
    * use SmtCommonService
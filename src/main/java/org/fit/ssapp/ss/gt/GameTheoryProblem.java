@@ -43,6 +43,11 @@ public interface GameTheoryProblem extends Problem {
 
   void setMaximizing(boolean isMaximizing);
 
+  /**
+   * Evaluates with payoffs and fitness rounded to 10 decimals as BigDecimal instead of doubles.
+   */
+  void setExactDecimal(boolean exactDecimal);
+
   /**
    * Sets the default payoff function for the game.
    */
@@ -1,9 +1,5 @@
 package org.fit.ssapp.ss.gt.implement;
 
-import static org.fit.ssapp.util.StringExpressionEvaluator.evaluateFitnessValue;
-import static org.fit.ssapp.util.StringExpressionEvaluator.evaluatePayoffFunctionNoRelative;
-import static org.fit.ssapp.util.StringExpressionEvaluator.evaluatePayoffFunctionWithRelativeToOtherPlayers;
-
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -17,6 +13,7 @@ import org.fit.ssapp.ss.gt.GameTheoryProblem;
 import org.fit.ssapp.ss.gt.NormalPlayer;
 import org.fit.ssapp.ss.gt.SpecialPlayer;
 import org.fit.ssapp.ss.gt.Strategy;
+import org.fit.ssapp.util.CompiledPayoffFunction;
 import org.moeaframework.core.Solution;
 import org.moeaframework.core.variable.BinaryIntegerVariable;
 
@@ -73,7 +70,6 @@ public class StandardGameTheoryProblem implements GameTheoryProblem, Serializabl
   @Setter
   private List<Double> playerAvgDiffs;
   @Getter
-  @Setter
   private String fitnessFunction;
   @Setter
   @Getter
@@ -82,6 +78,15 @@ public class StandardGameTheoryProblem implements GameTheoryProblem, Serializabl
   @Getter
   @Setter
   int[] bestResponses = new int[4];
+  //Payoff function of each normal player and fitness function, compiled once
+  private transient CompiledPayoffFunction[] payoffFunctions;
+  private transient CompiledPayoffFunction compiledFitnessFunction;
+  //Payoff of each strategy of each player whose payoff function is not relative
+  private transient double[][] payoffTable;
+  //Evaluate with the rounded BigDecimal values of NormalPlayer.payoffValues
+  @Getter
+  @Setter
+  private boolean exactDecimal;
 
   /**
    * Default constructor for StandardGameTheoryProblem. Initializes an empty game theory problem.
@@ -160,30 +165,71 @@ public class StandardGameTheoryProblem implements GameTheoryProblem, Serializabl
   /**
    * Sets the list of normal players and initializes their payoff values. If a player's payoff
    * function is null, it will be assigned the default payoff function. If the payoff function is
-   * relative to other players (contains "P"), it will be skipped. Otherwise, payoff values will be
+   * relative to other players (uses Pjpi variables), it will be skipped. Otherwise, payoff values will be
    * calculated and assigned.
    *
    * @param normalPlayers List of normal players to be set.
    */
   public void setNormalPlayers(List<NormalPlayer> normalPlayers) {
     this.normalPlayers = normalPlayers;
-    for (NormalPlayer player : normalPlayers) {
-      String payoffFunction = player.getPayoffFunction();
+    this.payoffFunctions = compilePayoffFunctions();
+    this.payoffTable = buildPayoffTable(payoffFunctions);
+    for (int p = 0; p < normalPlayers.size(); p++) {
+      double[] playerPayoffs = payoffTable[p];
+      if (playerPayoffs == null) {
+        continue;
+      }
+      List<BigDecimal> payoffValues = new ArrayList<>();
+      for (double payoffValue : playerPayoffs) {
+        payoffValues.add(payoffFunctions[p].toDecimal(payoffValue));
+      }
+      normalPlayers.get(p).setPayoffValues(payoffValues);
+    }
+  }
+
+  /**
+   * Sets the fitness function, it is compiled on the next evaluation.
+   *
+   * @param fitnessFunction fitness function over the payoffs of the players
+   */
+  public void setFitnessFunction(String fitnessFunction) {
+    this.fitnessFunction = fitnessFunction;
+    this.compiledFitnessFunction = null;
+  }
+
+  /**
+   * one compiled payoff function per normal player, the default payoff function for players
+   * without their own.
+   */
+  private CompiledPayoffFunction[] compilePayoffFunctions() {
+    CompiledPayoffFunction[] compiled = new CompiledPayoffFunction[normalPlayers.size()];
+    for (int i = 0; i < compiled.length; i++) {
+      String payoffFunction = normalPlayers.get(i).getPayoffFunction();
       if (payoffFunction == null) {
         payoffFunction = defaultPayoffFunction;
       }
-      if (payoffFunction.contains("P")) {
+      compiled[i] = CompiledPayoffFunction.compilePayoff(payoffFunction);
+    }
+    return compiled;
+  }
+
+  /**
+   * payoff of every strategy of the players whose payoff function is not relative, a null row
+   * for the others.
+   */
+  private double[][] buildPayoffTable(CompiledPayoffFunction[] compiledPayoffs) {
+    double[][] table = new double[normalPlayers.size()][];
+    for (int p = 0; p < table.length; p++) {
+      if (compiledPayoffs[p].isRelative()) {
         continue;
       }
-      List<BigDecimal> payoffValues = new ArrayList<>();
-      for (int i = 0; i < player.getStrategies().size(); ++i) {
-        BigDecimal payoffValue = evaluatePayoffFunctionNoRelative(player.getStrategies().get(i),
-            payoffFunction);
-        payoffValues.add(payoffValue);
+      List<Strategy> strategies = normalPlayers.get(p).getStrategies();
+      table[p] = new double[strategies.size()];
+      for (int i = 0; i < strategies.size(); i++) {
+        table[p][i] = compiledPayoffs[p].evaluate(strategies.get(i), null, null);
       }
-      player.setPayoffValues(payoffValues);
-
     }
+    return table;
   }
 
   @Override
@@ -240,25 +286,71 @@ public class StandardGameTheoryProblem implements GameTheoryProblem, Serializabl
       }
     }
 
+    // compiled functions are transient, rebuild them after deserialization
+    CompiledPayoffFunction[] compiledPayoffs = payoffFunctions;
+    if (compiledPayoffs == null) {
+      compiledPayoffs = compilePayoffFunctions();
+      payoffFunctions = compiledPayoffs;
+    }
+    CompiledPayoffFunction compiledFitness = compiledFitnessFunction;
+    if (compiledFitness == null) {
+      compiledFitness = CompiledPayoffFunction.compileFitness(fitnessFunction);
+      compiledFitnessFunction = compiledFitness;
+    }
+
+    if (exactDecimal) {
+      evaluateExact(solution, payoffs, chosenStrategyIndices, compiledPayoffs, compiledFitness);
+      return;
+    }
+    double[][] table = payoffTable;
+    if (table == null) {
+      table = buildPayoffTable(compiledPayoffs);
+      payoffTable = table;
+    }
+
     // calculate the payoff of the strategy each player has chosen
+    for (int i = 0; i < normalPlayers.size(); i++) {
+      CompiledPayoffFunction payoffFunction = compiledPayoffs[i];
+      int chosenStrategyIndex = chosenStrategyIndices[i];
+      Strategy chosenStrategy = normalPlayers.get(i).getStrategyAt(chosenStrategyIndex);
+
+      double chosenStrategyPayoff;
+      if (payoffFunction.isRelative()) {
+        chosenStrategyPayoff = requireFinite(
+            payoffFunction.evaluate(chosenStrategy, normalPlayers, chosenStrategyIndices));
+      } else {
+        chosenStrategyPayoff = requireFinite(table[i][chosenStrategyIndex]);
+      }
+
+      chosenStrategy.setPayoff(chosenStrategyPayoff);
+      payoffs[i] = chosenStrategyPayoff;
+    }
+
+    double fitnessValue = requireFinite(compiledFitness.evaluate(payoffs));
+
+    if (isMaximizing) {
+      fitnessValue = -fitnessValue;
+    }
+    solution.setObjective(0, fitnessValue);
+  }
+
+  /**
+   * evaluation with payoffs and fitness rounded to 10 decimals as BigDecimal.
+   */
+  private void evaluateExact(Solution solution,
+                             double[] payoffs,
+                             int[] chosenStrategyIndices,
+                             CompiledPayoffFunction[] compiledPayoffs,
+                             CompiledPayoffFunction compiledFitness) {
     for (int i = 0; i < normalPlayers.size(); i++) {
       NormalPlayer normalPlayer = normalPlayers.get(i);
       Strategy chosenStrategy = normalPlayer.getStrategyAt(chosenStrategyIndices[i]);
-
-      String payoffFunction = normalPlayer.getPayoffFunction();
-      // if the player does not have his own payoff function, use the default one
-      if (payoffFunction == null) {
-        payoffFunction = defaultPayoffFunction;
-      }
+      CompiledPayoffFunction payoffFunction = compiledPayoffs[i];
 
       BigDecimal chosenStrategyPayoff;
-      if (payoffFunction.contains("P")) {
-
-        chosenStrategyPayoff
-                = evaluatePayoffFunctionWithRelativeToOtherPlayers(chosenStrategy,
-                payoffFunction,
-                normalPlayers,
-                chosenStrategyIndices);
+      if (payoffFunction.isRelative()) {
+        chosenStrategyPayoff = payoffFunction.toDecimal(
+            payoffFunction.evaluate(chosenStrategy, normalPlayers, chosenStrategyIndices));
       } else {
         chosenStrategyPayoff = normalPlayer.getPayoffValues().get(chosenStrategyIndices[i]);
       }
@@ -267,15 +359,24 @@ public class StandardGameTheoryProblem implements GameTheoryProblem, Serializabl
       payoffs[i] = chosenStrategyPayoff.doubleValue();
     }
 
-    BigDecimal fitnessValue = evaluateFitnessValue(payoffs, fitnessFunction);
+    BigDecimal fitnessValue = compiledFitness.toDecimal(compiledFitness.evaluate(payoffs));
 
     if (isMaximizing) {
       fitnessValue = fitnessValue.negate();
     }
-
     solution.setObjective(0, fitnessValue.doubleValue());
   }
 
+  /**
+   * NaN or infinite payoffs fail the evaluation like the BigDecimal conversion does.
+   */
+  private static double requireFinite(double value) {
+    if (!Double.isFinite(value)) {
+      throw new NumberFormatException("Infinite or NaN");
+    }
+    return value;
+  }
+
   // SOLUTION = VARIABLE -> OBJECTIVE || CONSTRAINT
 
   @Override
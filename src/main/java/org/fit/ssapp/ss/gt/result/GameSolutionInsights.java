@@ -20,6 +20,6 @@ public class GameSolutionInsights {
 
   Map<String, List<Double>> fitnessValues;
   Map<String, List<Double>> runtimes;
-
+  Long seed;
 
 }
@@ -0,0 +1,113 @@
+package org.fit.ssapp.ss.smt;
+
+import java.util.Arrays;
+
+/**
+ * Excluded pairs compiled into a sorted adjacency list per node: the nodes excluded with node
+ * {@code i} are {@code excluded[offsets[i] .. offsets[i + 1])} in ascending order. Exclusions are
+ * symmetric, so matching algorithms can skip an excluded partner at proposal time with a binary
+ * search over the few exclusions of one node instead of scanning every pair afterwards. Pairs
+ * naming a node outside the problem can never be matched and are dropped.
+ */
+public final class ExclusionIndex {
+
+  private final int[] offsets;
+  private final int[] excluded;
+
+  private ExclusionIndex(int[] offsets, int[] excluded) {
+    this.offsets = offsets;
+    this.excluded = excluded;
+  }
+
+  /**
+   * Compile excluded pairs.
+   *
+   * @param size          number of individuals
+   * @param excludedPairs excluded pairs, may be {@code null}
+   * @return ExclusionIndex
+   */
+  public static ExclusionIndex of(int size, int[][] excludedPairs) {
+    int[] offsets = new int[size + 1];
+    if (excludedPairs == null || excludedPairs.length == 0) {
+      return new ExclusionIndex(offsets, new int[0]);
+    }
+    for (int[] pair : excludedPairs) {
+      if (isValid(pair, size)) {
+        offsets[pair[0] + 1]++;
+        offsets[pair[1] + 1]++;
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      offsets[i + 1] += offsets[i];
+    }
+    int[] excluded = new int[offsets[size]];
+    int[] fill = Arrays.copyOf(offsets, size);
+    for (int[] pair : excludedPairs) {
+      if (isValid(pair, size)) {
+        excluded[fill[pair[0]]++] = pair[1];
+        excluded[fill[pair[1]]++] = pair[0];
+      }
+    }
+    // sort each node's list and drop duplicates, compacting in place
+    int end = 0;
+    for (int i = 0; i < size; i++) {
+      int from = offsets[i];
+      int to = offsets[i + 1];
+      Arrays.sort(excluded, from, to);
+      offsets[i] = end;
+      for (int k = from; k < to; k++) {
+        if (k == from || excluded[k] != excluded[k - 1]) {
+          excluded[end++] = excluded[k];
+        }
+      }
+    }
+    offsets[size] = end;
+    return new ExclusionIndex(offsets, Arrays.copyOf(excluded, end));
+  }
+
+  /**
+   * whether two nodes must not be matched.
+   *
+   * @param node1 node1
+   * @param node2 node2
+   * @return true if excluded
+   */
+  public boolean isExcluded(int node1, int node2) {
+    int from = offsets[node1];
+    int to = offsets[node1 + 1];
+    return from != to && Arrays.binarySearch(excluded, from, to, node2) >= 0;
+  }
+
+  /**
+   * whether a node must not be matched with any node of a group.
+   *
+   * @param group nodes
+   * @param node  node
+   * @return true if excluded with one of them
+   */
+  public boolean isExcluded(Iterable<Integer> group, int node) {
+    if (offsets[node] == offsets[node + 1]) {
+      return false;
+    }
+    for (int member : group) {
+      if (isExcluded(node, member)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * whether no pair is excluded.
+   *
+   * @return true if empty
+   */
+  public boolean isEmpty() {
+    return excluded.length == 0;
+  }
+
+  private static boolean isValid(int[] pair, int size) {
+    return pair != null && pair.length >= 2 && pair[0] != pair[1]
+        && pair[0] >= 0 && pair[0] < size && pair[1] >= 0 && pair[1] < size;
+  }
+}
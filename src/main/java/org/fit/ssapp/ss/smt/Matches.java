@@ -1,33 +1,91 @@
 package org.fit.ssapp.ss.smt;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TreeSet;
 import lombok.AccessLevel;
-import lombok.Data;
+import lombok.Getter;
 import lombok.experimental.FieldDefaults;
 
 /**
  * Data Structure for result of StableMatchingExtra algorithm Matches = {Match1, Match2, Match3,
- * ...} Match can be an Object of "Pair" or "MatchSet" Class, both Implement "MatchItem" Interface.
+ * ...}.
+ * Partners of every node are kept in one flat {@code int[]}: each node owns a region
+ * {@code [offsets[node], offsets[node] + slots[node])} of which the first {@code counts[node]}
+ * entries are used and kept in ascending order. A region is relocated to the end of the array
+ * (with doubled room) when a node receives more partners than it has slots for, so no boxing or
+ * per-node objects are involved.
+ * When capacities are high relative to the problem size (dense many-to-many problems), partners
+ * are instead kept as one bitset row of {@code words} longs per node, where membership, insertion
+ * and removal touch a single word; the regions are then unused. Both storages are read the same
+ * way, ascending, through {@link #nextPartner(int, int)}.
+ * A fingerprint of the matching, independent of the order matches were added in, is maintained on
+ * every insertion and removal, so equal matchings can be told apart cheaply from different ones.
  */
-@Data
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class Matches implements Serializable {
 
+  private static final long serialVersionUID = 1L;
+
   /**
    * size of Matches.
    */
+  @Getter
   final int size;
 
   /**
-   * matches data.
+   * start of each node's region in partners.
+   */
+  final int[] offsets;
+
+  /**
+   * number of slots reserved for each node.
    */
-  final TreeSet<Integer>[] matches;
+  final int[] slots;
+
+  /**
+   * number of partners of each node.
+   */
+  final int[] counts;
+
+  /**
+   * matches data, partners of all nodes.
+   */
+  int[] partners;
+
+  /**
+   * first unreserved index of partners.
+   */
+  int end;
+
+  /**
+   * partners of all nodes as bitsets, row-major, {@code null} unless dense.
+   */
+  long[] bits;
+
+  /**
+   * longs per bitset row.
+   */
+  int words;
+
+  /**
+   * satisfaction of each node with its partners, as accumulated by the matching algorithm,
+   * {@code null} if unknown or outdated.
+   */
+  transient double[] satisfactions;
+
+  /**
+   * sum of the mixed hashes of all (node, partner) pairs.
+   */
+  long fingerprint;
 
   /**
    * Matches.
@@ -38,14 +96,76 @@ public class Matches implements Serializable {
    */
   public Matches(int size) {
     this.size = size;
-    this.matches = new TreeSet[size];
+    this.offsets = new int[size];
+    this.slots = new int[size];
+    this.counts = new int[size];
+    this.partners = new int[size];
+    for (int i = 0; i < size; i++) {
+      this.offsets[i] = i;
+      this.slots[i] = 1;
+    }
+    this.end = size;
+  }
+
+  /**
+   * Matches with one region per node sized by its capacity, so matching within capacities never
+   * relocates, or with one bitset row per node when the bitsets take no more memory than the
+   * regions.
+   *
+   * @param capacities capacity of each node
+   */
+  public Matches(int[] capacities) {
+    this.size = capacities.length;
+    this.offsets = new int[size];
+    this.slots = new int[size];
+    this.counts = new int[size];
+    long total = 0;
+    for (int capacity : capacities) {
+      total += Math.max(capacity, 1);
+    }
+    int rowWords = (size + 63) >>> 6;
+    if ((long) size * rowWords * Long.SIZE <= total * Integer.SIZE) {
+      this.partners = new int[0];
+      this.words = rowWords;
+      this.bits = new long[size * rowWords];
+      return;
+    }
+    int offset = 0;
     for (int i = 0; i < size; i++) {
-      this.matches[i] = new TreeSet<>();
+      int capacity = Math.max(capacities[i], 1);
+      this.offsets[i] = offset;
+      this.slots[i] = capacity;
+      offset += capacity;
     }
+    this.partners = new int[offset];
+    this.end = offset;
+  }
+
+  /**
+   * Matches kept as one bitset row per node whatever the capacities.
+   *
+   * @param size number of nodes
+   * @return Matches
+   */
+  public static Matches withBitsets(int size) {
+    int[] capacities = new int[size];
+    Arrays.fill(capacities, size);
+    return new Matches(capacities);
+  }
+
+  /**
+   * whether partners are kept as bitsets.
+   *
+   * @return true if dense
+   */
+  @JsonIgnore
+  public boolean isBitset() {
+    return bits != null;
   }
 
   /**
    * get matched individual(s) of targetIndividual.
+   * The returned set is a read-only view backed by this Matches.
    *
    * @param targetIndividual int
    *
@@ -53,7 +173,73 @@ public class Matches implements Serializable {
    *
    */
   public Set<Integer> getSetOf(int targetIndividual) {
-    return matches[targetIndividual];
+    return new PartnerSet(targetIndividual);
+  }
+
+  /**
+   * number of partners of a node.
+   *
+   * @param node node
+   * @return int
+   */
+  public int getCountOf(int node) {
+    return counts[node];
+  }
+
+  /**
+   * k-th partner (ascending order) of a node. O(1) on regions, walks the row of a bitset, prefer
+   * {@link #nextPartner(int, int)} to iterate.
+   *
+   * @param node node
+   * @param k    index in [0, getCountOf(node))
+   * @return partner
+   */
+  public int getPartnerOf(int node, int k) {
+    if (k < 0 || k >= counts[node]) {
+      throw new IndexOutOfBoundsException("Partner index " + k + " of node " + node);
+    }
+    if (bits == null) {
+      return partners[offsets[node] + k];
+    }
+    int partner = nextPartner(node, 0);
+    for (int i = 0; i < k; i++) {
+      partner = nextPartner(node, partner + 1);
+    }
+    return partner;
+  }
+
+  /**
+   * smallest partner of a node not lower than from, iterate with
+   * {@code for (int p = nextPartner(n, 0); p >= 0; p = nextPartner(n, p + 1))}.
+   *
+   * @param node node
+   * @param from lowest partner to return
+   * @return partner, -1 if none
+   */
+  public int nextPartner(int node, int from) {
+    if (from >= size || counts[node] == 0) {
+      return -1;
+    }
+    from = Math.max(from, 0);
+    if (bits == null) {
+      int start = offsets[node];
+      int last = start + counts[node];
+      int k = Arrays.binarySearch(partners, start, last, from);
+      if (k < 0) {
+        k = -k - 1;
+      }
+      return k < last ? partners[k] : -1;
+    }
+    int row = node * words;
+    int w = from >>> 6;
+    long word = bits[row + w] & (-1L << from);
+    while (word == 0) {
+      if (++w == words) {
+        return -1;
+      }
+      word = bits[row + w];
+    }
+    return (w << 6) + Long.numberOfTrailingZeros(word);
   }
 
   /**
@@ -62,7 +248,7 @@ public class Matches implements Serializable {
    * @return int
    */
   public int size() {
-    return matches.length;
+    return size;
   }
 
   /**
@@ -74,7 +260,7 @@ public class Matches implements Serializable {
    *
    */
   public boolean isMatched(int node) {
-    return !matches[node].isEmpty();
+    return counts[node] != 0;
   }
 
   /**
@@ -88,7 +274,7 @@ public class Matches implements Serializable {
    *
    */
   public boolean isMatched(int node1, int node2) {
-    return matches[node1].contains(node2) || matches[node2].contains(node1);
+    return has(node1, node2) || has(node2, node1);
   }
 
   /**
@@ -102,8 +288,7 @@ public class Matches implements Serializable {
    *
    */
   public boolean isFull(int targetNode, int targetNodeCapacity) {
-    int currentSize = this.getSetOf(targetNode).size();
-    return currentSize >= targetNodeCapacity;
+    return counts[targetNode] >= targetNodeCapacity;
   }
 
   /**
@@ -115,7 +300,37 @@ public class Matches implements Serializable {
    *
    */
   public void addMatch(int node, int nodeToAdd) {
-    matches[node].add(nodeToAdd);
+    if (bits != null) {
+      int w = node * words + (nodeToAdd >>> 6);
+      long mask = 1L << nodeToAdd;
+      if ((bits[w] & mask) == 0) {
+        bits[w] |= mask;
+        counts[node]++;
+        satisfactions = null;
+        fingerprint += pairHash(node, nodeToAdd);
+      }
+      return;
+    }
+    int count = counts[node];
+    int start = offsets[node];
+    int i = start + count - 1;
+    // insertion step, keeps the region sorted and rejects duplicates
+    while (i >= start && partners[i] > nodeToAdd) {
+      i--;
+    }
+    if (i >= start && partners[i] == nodeToAdd) {
+      return;
+    }
+    int insertAt = i + 1 - start;
+    if (count == slots[node]) {
+      relocate(node);
+      start = offsets[node];
+    }
+    System.arraycopy(partners, start + insertAt, partners, start + insertAt + 1, count - insertAt);
+    partners[start + insertAt] = nodeToAdd;
+    counts[node] = count + 1;
+    satisfactions = null;
+    fingerprint += pairHash(node, nodeToAdd);
   }
 
   /**
@@ -127,8 +342,39 @@ public class Matches implements Serializable {
    *
    */
   public void addMatchBi(int node1, int node2) {
-    matches[node1].add(node2);
-    matches[node2].add(node1);
+    addMatch(node1, node2);
+    addMatch(node2, node1);
+  }
+
+  /**
+   * remove match.
+   *
+   * @param node         as name
+   *
+   * @param nodeToRemove as name
+   *
+   */
+  public void removeMatch(int node, int nodeToRemove) {
+    if (bits != null) {
+      int w = node * words + (nodeToRemove >>> 6);
+      long mask = 1L << nodeToRemove;
+      if ((bits[w] & mask) != 0) {
+        bits[w] &= ~mask;
+        counts[node]--;
+        satisfactions = null;
+        fingerprint -= pairHash(node, nodeToRemove);
+      }
+      return;
+    }
+    int index = indexOf(node, nodeToRemove);
+    if (index < 0) {
+      return;
+    }
+    int last = offsets[node] + counts[node] - 1;
+    System.arraycopy(partners, index + 1, partners, index, last - index);
+    counts[node]--;
+    satisfactions = null;
+    fingerprint -= pairHash(node, nodeToRemove);
   }
 
   /**
@@ -140,11 +386,42 @@ public class Matches implements Serializable {
    *
    */
   public void removeMatchBi(int node1, int node2) {
-    matches[node1].remove(node2);
-    matches[node2].remove(node1);
+    removeMatch(node1, node2);
+    removeMatch(node2, node1);
   }
 
 
+  /**
+   * 64-bit hash of the matching, maintained incrementally. Equal matchings have equal fingerprints
+   * whatever the order their matches were added or removed in.
+   *
+   * @return fingerprint
+   */
+  @JsonIgnore
+  public long getFingerprint() {
+    return fingerprint;
+  }
+
+  /**
+   * Satisfactions accumulated while matching, see
+   * {@link org.fit.ssapp.ss.smt.preference.PreferenceListWrapper#getMatchesSatisfactions}.
+   *
+   * @return satisfaction of each node, {@code null} if not known or the matches changed since
+   */
+  @JsonIgnore
+  public double[] getSatisfactions() {
+    return satisfactions;
+  }
+
+  /**
+   * Attach the satisfactions of the current matches, dropped on the next change.
+   *
+   * @param satisfactions satisfaction of each node
+   */
+  public void setSatisfactions(double[] satisfactions) {
+    this.satisfactions = satisfactions;
+  }
+
   /**
    * as name.
    *
@@ -152,11 +429,9 @@ public class Matches implements Serializable {
    */
   public StringBuilder toStringBuilder() {
     StringBuilder sb = new StringBuilder();
-    int i = 0;
 
-    for (Set<Integer> matchSet : this.matches) {
-      sb.append("[").append(i).append(" -> ").append(matchSet).append("] ").append("\n");
-      i++;
+    for (int i = 0; i < size; i++) {
+      sb.append("[").append(i).append(" -> ").append(getSetOf(i)).append("] ").append("\n");
     }
 
     sb.append("Left Overs: ").append(getLeftOvers()).append("\n");
@@ -172,15 +447,15 @@ public class Matches implements Serializable {
    *
    */
   public Set<Integer> getLeftOvers() {
-    ArrayList<Integer> leftOvers = new ArrayList<>();
+    TreeSet<Integer> leftOvers = new TreeSet<>();
 
-    for (int i = 0; i < matches.length; i++) {
-      if (matches[i].isEmpty()) {
+    for (int i = 0; i < size; i++) {
+      if (counts[i] == 0) {
         leftOvers.add(i);
       }
     }
 
-    return new TreeSet<>(leftOvers);
+    return leftOvers;
   }
 
   /**
@@ -193,6 +468,25 @@ public class Matches implements Serializable {
     return this.toStringBuilder().toString();
   }
 
+  /**
+   * matches data, one ascending array of partners per node.
+   *
+   * @return matches.
+   */
+  public int[][] getMatches() {
+    int[][] result = new int[size][];
+    for (int i = 0; i < size; i++) {
+      if (bits == null) {
+        result[i] = Arrays.copyOfRange(partners, offsets[i], offsets[i] + counts[i]);
+        continue;
+      }
+      result[i] = new int[counts[i]];
+      for (int k = 0, p = nextPartner(i, 0); p >= 0; p = nextPartner(i, p + 1)) {
+        result[i][k++] = p;
+      }
+    }
+    return result;
+  }
 
   /**
    * getAllMatches.
@@ -201,8 +495,8 @@ public class Matches implements Serializable {
    * @return matches.
    *
    */
-  public TreeSet<Integer>[] getAllMatches() {
-    return matches;
+  public int[][] getAllMatches() {
+    return getMatches();
   }
 
   /**
@@ -246,6 +540,137 @@ public class Matches implements Serializable {
    *
    */
   public void disMatch(int target, Collection<Integer> nodeToRemove) {
-    matches[target].removeAll(nodeToRemove);
+    for (int node : nodeToRemove) {
+      removeMatch(target, node);
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Matches other) || other.size != size
+        || other.fingerprint != fingerprint || !Arrays.equals(counts, other.counts)) {
+      return false;
+    }
+    if (bits != null && other.bits != null) {
+      return Arrays.equals(bits, other.bits);
+    }
+    for (int i = 0; i < size; i++) {
+      if (bits == null && other.bits == null) {
+        if (!Arrays.equals(partners, offsets[i], offsets[i] + counts[i],
+            other.partners, other.offsets[i], other.offsets[i] + other.counts[i])) {
+          return false;
+        }
+        continue;
+      }
+      for (int p = nextPartner(i, 0); p >= 0; p = nextPartner(i, p + 1)) {
+        if (!other.has(i, p)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * size + Long.hashCode(fingerprint);
+  }
+
+  /**
+   * SplitMix64 finalizer of a (node, partner) pair, summed into the fingerprint.
+   */
+  private static long pairHash(int node, int partner) {
+    long h = ((long) node << 32 | (partner & 0xFFFFFFFFL)) + 0x9E3779B97F4A7C15L;
+    h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+    h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+    return h ^ (h >>> 31);
+  }
+
+  /**
+   * whether partner is one of node's partners.
+   */
+  private boolean has(int node, int partner) {
+    if (bits != null) {
+      return partner >= 0 && partner < size
+          && (bits[node * words + (partner >>> 6)] & (1L << partner)) != 0;
+    }
+    return indexOf(node, partner) >= 0;
+  }
+
+  /**
+   * position of partner inside node's region, -1 if absent.
+   */
+  private int indexOf(int node, int partner) {
+    for (int k = offsets[node], last = offsets[node] + counts[node]; k < last; k++) {
+      int value = partners[k];
+      if (value == partner) {
+        return k;
+      }
+      if (value > partner) {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * move node's region to the end of partners with twice as many slots.
+   */
+  private void relocate(int node) {
+    int newSlots = Math.max(slots[node] * 2, 1);
+    if (end + newSlots > partners.length) {
+      partners = Arrays.copyOf(partners, Math.max(partners.length * 2, end + newSlots));
+    }
+    System.arraycopy(partners, offsets[node], partners, end, counts[node]);
+    offsets[node] = end;
+    slots[node] = newSlots;
+    end += newSlots;
+  }
+
+  /**
+   * Read-only ascending view over the partners of one node.
+   */
+  private final class PartnerSet extends AbstractSet<Integer> {
+
+    private final int node;
+
+    private PartnerSet(int node) {
+      this.node = node;
+    }
+
+    @Override
+    public int size() {
+      return counts[node];
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof Integer value && has(node, value);
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return new Iterator<>() {
+        private int next = nextPartner(node, 0);
+
+        @Override
+        public boolean hasNext() {
+          return next >= 0;
+        }
+
+        @Override
+        public Integer next() {
+          if (next < 0) {
+            throw new NoSuchElementException();
+          }
+          int partner = next;
+          next = nextPartner(node, partner + 1);
+          return partner;
+        }
+      };
+    }
   }
 }
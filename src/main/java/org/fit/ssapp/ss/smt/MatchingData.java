@@ -3,14 +3,22 @@ package org.fit.ssapp.ss.smt;
 import static org.fit.ssapp.util.NumberUtils.formatDouble;
 import static org.fit.ssapp.util.StringUtils.fillWithChar;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.Setter;
+import org.fit.ssapp.constants.StableMatchingConst.ReqTypes;
 import org.fit.ssapp.ss.smt.requirement.Requirement;
+import org.fit.ssapp.ss.smt.requirement.impl.OneBound;
+import org.fit.ssapp.ss.smt.requirement.impl.ScaleTarget;
+import org.fit.ssapp.ss.smt.requirement.impl.TwoBound;
 
 /**
  * Matching Data.
+ * Characteristic data is stored row-major in flat buffers (value of property j of individual i at
+ * {@code i * propertyNum + j}) and requirements are decoded into parallel primitive buffers, so
+ * readers walk contiguous memory instead of one array or object per individual. The buffers wrap
+ * heap arrays, or are mapped off-heap from a file written by {@link MatchingDataFile}.
  */
 @Getter
 public class MatchingData {
@@ -36,23 +44,52 @@ public class MatchingData {
   private final int[] capacities;
 
   /**
-   * total individual foreach set.
+   * total individual foreach set, indexed by set no.
    */
-  private final Map<Integer, Integer> setNums;
+  private final int[] setSizes;
 
   /**
-   * exclude/ conflict pairs, solution will be considered as NOT GOOD if Matches it produces,
-   * contains one of the excludedPairs.
+   * position of the first individual of each set, individuals being grouped by ascending set no.
+   */
+  private final int[] setOffsets;
+
+  /**
+   * number of non-empty sets.
+   */
+  private final int numberOfSets;
+
+  /**
+   * exclude/ conflict pairs, individuals of a pair are never matched together.
    */
-  @Setter
   int[][] excludedPairs;
 
   /**
-   * characteristic data.
+   * excludedPairs compiled for lookups by node.
+   */
+  private ExclusionIndex exclusions;
+
+  /**
+   * characteristic data, row-major.
+   */
+  @Getter(AccessLevel.NONE)
+  private final DoubleBuffer propertyValues;
+  @Getter(AccessLevel.NONE)
+  private final DoubleBuffer weights;
+
+  /**
+   * decoded requirements, row-major.
+   * <ul>
+   *   <li>{@link ReqTypes#ONE_BOUND}: bound1 = bound, bound2 = 1 if increasing else 0</li>
+   *   <li>{@link ReqTypes#TWO_BOUND}: bound1 = lower bound, bound2 = upper bound</li>
+   *   <li>{@link ReqTypes#SCALE_TARGET}: bound1 = target value</li>
+   * </ul>
    */
-  private final double[][] propertyValues;
-  private final double[][] weights;
-  private final Requirement[][] requirements;
+  @Getter(AccessLevel.NONE)
+  private final IntBuffer requirementTypes;
+  @Getter(AccessLevel.NONE)
+  private final DoubleBuffer requirementBounds1;
+  @Getter(AccessLevel.NONE)
+  private final DoubleBuffer requirementBounds2;
 
   /**
    * MatchingData constructor.
@@ -70,6 +107,7 @@ public class MatchingData {
    * @param weights double[][]
    *
    * @param requirements requirement
+   * @throws IllegalArgumentException if a requirement type is not supported
    */
   public MatchingData(int size,
                       int propertyNum,
@@ -79,19 +117,169 @@ public class MatchingData {
                       double[][] weights,
                       Requirement[][] requirements) {
 
-    Map<Integer, Integer> setNums = new HashMap<>();
-    for (int set : sets) {
-      setNums.putIfAbsent(set, 0);
-      setNums.put(set, setNums.get(set) + 1);
+    this.size = size;
+    this.propertyNum = propertyNum;
+    this.sets = sets;
+    this.capacities = capacities;
+    this.setSizes = countSets(sets);
+    this.setOffsets = offsetsOf(setSizes);
+    this.numberOfSets = nonEmptySetsOf(setSizes);
+    this.exclusions = ExclusionIndex.of(size, null);
+
+    int cells = size * propertyNum;
+    double[] flatValues = new double[cells];
+    double[] flatWeights = new double[cells];
+    int[] types = new int[cells];
+    double[] bounds1 = new double[cells];
+    double[] bounds2 = new double[cells];
+    for (int i = 0; i < size; i++) {
+      int row = i * propertyNum;
+      System.arraycopy(propertyValues[i], 0, flatValues, row, propertyNum);
+      System.arraycopy(weights[i], 0, flatWeights, row, propertyNum);
+      for (int j = 0; j < propertyNum; j++) {
+        encodeRequirement(requirements[i][j], row + j, types, bounds1, bounds2);
+      }
     }
+    this.propertyValues = DoubleBuffer.wrap(flatValues);
+    this.weights = DoubleBuffer.wrap(flatWeights);
+    this.requirementTypes = IntBuffer.wrap(types);
+    this.requirementBounds1 = DoubleBuffer.wrap(bounds1);
+    this.requirementBounds2 = DoubleBuffer.wrap(bounds2);
+  }
+
+  /**
+   * MatchingData over already decoded row-major buffers, see {@link MatchingDataFile}.
+   *
+   * @param size               number of individuals
+   * @param propertyNum        number of properties
+   * @param sets               individual set
+   * @param capacities         individual capacities
+   * @param propertyValues     property values
+   * @param weights            property weights
+   * @param requirementTypes   requirement types
+   * @param requirementBounds1 first requirement bounds
+   * @param requirementBounds2 second requirement bounds
+   */
+  MatchingData(int size,
+               int propertyNum,
+               int[] sets,
+               int[] capacities,
+               DoubleBuffer propertyValues,
+               DoubleBuffer weights,
+               IntBuffer requirementTypes,
+               DoubleBuffer requirementBounds1,
+               DoubleBuffer requirementBounds2) {
     this.size = size;
     this.propertyNum = propertyNum;
     this.sets = sets;
     this.capacities = capacities;
-    this.setNums = setNums;
+    this.setSizes = countSets(sets);
+    this.setOffsets = offsetsOf(setSizes);
+    this.numberOfSets = nonEmptySetsOf(setSizes);
+    this.exclusions = ExclusionIndex.of(size, null);
     this.propertyValues = propertyValues;
     this.weights = weights;
-    this.requirements = requirements;
+    this.requirementTypes = requirementTypes;
+    this.requirementBounds1 = requirementBounds1;
+    this.requirementBounds2 = requirementBounds2;
+  }
+
+  /**
+   * MatchingData over row-major arrays, see {@link #encodeRequirement}. The arrays are wrapped,
+   * not copied.
+   *
+   * @param size               number of individuals
+   * @param propertyNum        number of properties
+   * @param sets               individual set
+   * @param capacities         individual capacities
+   * @param propertyValues     property values
+   * @param weights            property weights
+   * @param requirementTypes   requirement types
+   * @param requirementBounds1 first requirement bounds
+   * @param requirementBounds2 second requirement bounds
+   * @return MatchingData
+   */
+  public static MatchingData ofRowMajor(int size,
+                                        int propertyNum,
+                                        int[] sets,
+                                        int[] capacities,
+                                        double[] propertyValues,
+                                        double[] weights,
+                                        int[] requirementTypes,
+                                        double[] requirementBounds1,
+                                        double[] requirementBounds2) {
+    return new MatchingData(size, propertyNum, sets, capacities,
+        DoubleBuffer.wrap(propertyValues),
+        DoubleBuffer.wrap(weights),
+        IntBuffer.wrap(requirementTypes),
+        DoubleBuffer.wrap(requirementBounds1),
+        DoubleBuffer.wrap(requirementBounds2));
+  }
+
+  /**
+   * decode a requirement into row-major requirement arrays.
+   *
+   * @param requirement requirement
+   * @param cell        {@code individual * propertyNum + property}
+   * @param types       requirement types
+   * @param bounds1     first requirement bounds
+   * @param bounds2     second requirement bounds
+   * @throws IllegalArgumentException if the requirement type is not supported
+   */
+  public static void encodeRequirement(Requirement requirement, int cell,
+                                       int[] types, double[] bounds1, double[] bounds2) {
+    types[cell] = requirement.getType();
+    if (requirement instanceof OneBound oneBound) {
+      bounds1[cell] = oneBound.getBound();
+      bounds2[cell] = oneBound.isExpression() ? 1 : 0;
+    } else if (requirement instanceof TwoBound twoBound) {
+      bounds1[cell] = twoBound.lowerBound();
+      bounds2[cell] = twoBound.upperBound();
+    } else if (requirement instanceof ScaleTarget scaleTarget) {
+      bounds1[cell] = scaleTarget.targetValue();
+    } else {
+      throw new IllegalArgumentException("Unsupported requirement: " + requirement);
+    }
+  }
+
+  /**
+   * set exclude/ conflict pairs and compile them into {@link #getExclusions()}.
+   *
+   * @param excludedPairs pairs of individuals never to match
+   */
+  public void setExcludedPairs(int[][] excludedPairs) {
+    this.excludedPairs = excludedPairs;
+    this.exclusions = ExclusionIndex.of(size, excludedPairs);
+  }
+
+  private static int[] countSets(int[] sets) {
+    int maxSet = -1;
+    for (int set : sets) {
+      maxSet = Math.max(maxSet, set);
+    }
+    int[] setSizes = new int[maxSet + 1];
+    for (int set : sets) {
+      setSizes[set]++;
+    }
+    return setSizes;
+  }
+
+  private static int[] offsetsOf(int[] setSizes) {
+    int[] setOffsets = new int[setSizes.length];
+    for (int set = 1; set < setSizes.length; set++) {
+      setOffsets[set] = setOffsets[set - 1] + setSizes[set - 1];
+    }
+    return setOffsets;
+  }
+
+  private static int nonEmptySetsOf(int[] setSizes) {
+    int nonEmpty = 0;
+    for (int setSize : setSizes) {
+      if (setSize > 0) {
+        nonEmpty++;
+      }
+    }
+    return nonEmpty;
   }
 
   /**
@@ -101,7 +289,7 @@ public class MatchingData {
    * @return number of set
    */
   public int getNumberOfSets() {
-    return this.setNums.size();
+    return this.numberOfSets;
   }
 
   /**
@@ -121,7 +309,17 @@ public class MatchingData {
    * @return total
    */
   public int getTotalIndividualOfSet(int setNo) {
-    return this.setNums.get(setNo);
+    return this.setSizes[setNo];
+  }
+
+  /**
+   * get position of the first individual of a given set.
+   *
+   * @param setNo set
+   * @return offset
+   */
+  public int getSetOffsetOf(int setNo) {
+    return this.setOffsets[setNo];
   }
 
   /**
@@ -142,7 +340,7 @@ public class MatchingData {
    * @return value
    */
   public double getPropertyValueOf(int idx, int indexOfProperty) {
-    return this.propertyValues[idx][indexOfProperty];
+    return this.propertyValues.get(idx * propertyNum + indexOfProperty);
   }
 
   /**
@@ -153,18 +351,75 @@ public class MatchingData {
    * @return weight value
    */
   public double getPropertyWeightOf(int idx, int indexOfProperty) {
-    return this.weights[idx][indexOfProperty];
+    return this.weights.get(idx * propertyNum + indexOfProperty);
   }
 
   /**
-   * get property Requirement.
+   * get property Requirement, rebuilt from its decoded form. Hot paths should read
+   * {@link #getRequirementTypeOf(int, int)} and the bounds instead.
    *
    * @param idx             position of individual
    * @param indexOfProperty position of property
    * @return Requirement
    */
   public Requirement getRequirementOf(int idx, int indexOfProperty) {
-    return this.requirements[idx][indexOfProperty];
+    int cell = idx * propertyNum + indexOfProperty;
+    double bound1 = this.requirementBounds1.get(cell);
+    double bound2 = this.requirementBounds2.get(cell);
+    return switch (this.requirementTypes.get(cell)) {
+      case ReqTypes.ONE_BOUND -> new OneBound(bound1, bound2 != 0);
+      case ReqTypes.TWO_BOUND -> new TwoBound(bound1, bound2);
+      default -> new ScaleTarget((int) bound1);
+    };
+  }
+
+  /**
+   * get type of a property Requirement, see {@link ReqTypes}.
+   *
+   * @param idx             position of individual
+   * @param indexOfProperty position of property
+   * @return type
+   */
+  public int getRequirementTypeOf(int idx, int indexOfProperty) {
+    return this.requirementTypes.get(idx * propertyNum + indexOfProperty);
+  }
+
+  /**
+   * get first bound of a property Requirement.
+   *
+   * @param idx             position of individual
+   * @param indexOfProperty position of property
+   * @return bound, target value for a scale target
+   */
+  public double getRequirementBound1Of(int idx, int indexOfProperty) {
+    return this.requirementBounds1.get(idx * propertyNum + indexOfProperty);
+  }
+
+  /**
+   * get second bound of a property Requirement.
+   *
+   * @param idx             position of individual
+   * @param indexOfProperty position of property
+   * @return upper bound of a two bound, 1 (increasing) or 0 (decreasing) for a one bound
+   */
+  public double getRequirementBound2Of(int idx, int indexOfProperty) {
+    return this.requirementBounds2.get(idx * propertyNum + indexOfProperty);
+  }
+
+  /**
+   * get value of a property Requirement for custom function computation, same as
+   * {@link Requirement#getValueForFunction()}.
+   *
+   * @param idx             position of individual
+   * @param indexOfProperty position of property
+   * @return value
+   */
+  public double getRequirementValueOf(int idx, int indexOfProperty) {
+    int cell = idx * propertyNum + indexOfProperty;
+    if (this.requirementTypes.get(cell) == ReqTypes.TWO_BOUND) {
+      return (this.requirementBounds1.get(cell) + this.requirementBounds2.get(cell)) / 2;
+    }
+    return this.requirementBounds1.get(cell);
   }
 
   /**
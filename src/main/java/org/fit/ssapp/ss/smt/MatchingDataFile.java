@@ -0,0 +1,272 @@
+package org.fit.ssapp.ss.smt;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import org.fit.ssapp.constants.StableMatchingConst.ReqTypes;
+
+/**
+ * Compact binary file of a {@link MatchingData}, little-endian:
+ * <pre>
+ *   int    magic, version
+ *   int    size, propertyNum, number of excluded pairs, flags (1 = has capacities)
+ *   int[]  sets, capacities (if flagged), excluded pairs (2 per pair), requirement types
+ *   ...    zero padding to a multiple of 8 bytes
+ *   double[] property values, weights, requirement bounds 1, requirement bounds 2
+ * </pre>
+ * Every per-property section is row-major ({@code i * propertyNum + j}). Mapping a file keeps those
+ * sections off-heap: each one is a read-only {@link FileChannel#map} view, so instances far larger
+ * than a JSON request can be solved without copying the characteristic data into the heap.
+ */
+public final class MatchingDataFile {
+
+  /**
+   * extension of matching data files.
+   */
+  public static final String EXTENSION = ".smtd";
+
+  private static final Pattern FILE_ID = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*");
+  private static final int MAGIC = 0x534D5444;
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 6 * Integer.BYTES;
+  private static final int FLAG_CAPACITIES = 1;
+  private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+  private MatchingDataFile() {
+  }
+
+  /**
+   * Writes matching data to a file, replacing it if it exists.
+   *
+   * @param data matching data
+   * @param path file
+   * @throws IOException if the file cannot be written
+   */
+  public static void write(MatchingData data, Path path) throws IOException {
+    int size = data.getSize();
+    int propertyNum = data.getPropertyNum();
+    int[][] excludedPairs = Objects.requireNonNullElse(data.getExcludedPairs(), new int[0][]);
+    int[] capacities = data.getCapacities();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES)
+          .order(ByteOrder.LITTLE_ENDIAN);
+      Sink sink = new Sink(channel, buffer);
+      sink.putInt(MAGIC);
+      sink.putInt(VERSION);
+      sink.putInt(size);
+      sink.putInt(propertyNum);
+      sink.putInt(excludedPairs.length);
+      sink.putInt(capacities == null ? 0 : FLAG_CAPACITIES);
+      for (int i = 0; i < size; i++) {
+        sink.putInt(data.getSetNoOf(i));
+      }
+      if (capacities != null) {
+        for (int i = 0; i < size; i++) {
+          sink.putInt(capacities[i]);
+        }
+      }
+      for (int[] pair : excludedPairs) {
+        sink.putInt(pair[0]);
+        sink.putInt(pair[1]);
+      }
+      for (int i = 0; i < size; i++) {
+        for (int j = 0; j < propertyNum; j++) {
+          sink.putInt(data.getRequirementTypeOf(i, j));
+        }
+      }
+      while (sink.written % Double.BYTES != 0) {
+        sink.putByte((byte) 0);
+      }
+      for (int i = 0; i < size; i++) {
+        for (int j = 0; j < propertyNum; j++) {
+          sink.putDouble(data.getPropertyValueOf(i, j));
+        }
+      }
+      for (int i = 0; i < size; i++) {
+        for (int j = 0; j < propertyNum; j++) {
+          sink.putDouble(data.getPropertyWeightOf(i, j));
+        }
+      }
+      for (int i = 0; i < size; i++) {
+        for (int j = 0; j < propertyNum; j++) {
+          sink.putDouble(data.getRequirementBound1Of(i, j));
+        }
+      }
+      for (int i = 0; i < size; i++) {
+        for (int j = 0; j < propertyNum; j++) {
+          sink.putDouble(data.getRequirementBound2Of(i, j));
+        }
+      }
+      sink.flush();
+    }
+  }
+
+  /**
+   * Matching data file of an id in a directory, the file name being the id with
+   * {@link #EXTENSION}. Ids are plain file names, they cannot leave the directory.
+   *
+   * @param directory directory of matching data files
+   * @param id        file id
+   * @return file
+   * @throws IllegalArgumentException if the id is not a plain file name
+   */
+  public static Path resolve(Path directory, String id) {
+    if (id == null || !FILE_ID.matcher(id).matches()) {
+      throw new IllegalArgumentException("Invalid matching data file id: " + id);
+    }
+    return directory.resolve(id + EXTENSION);
+  }
+
+  /**
+   * Maps a file written by {@link #write(MatchingData, Path)}. Sets, capacities and excluded pairs
+   * are read into the heap, characteristic data and requirements stay in the mapped file.
+   *
+   * @param path file
+   * @return matching data
+   * @throws IOException if the file cannot be read or is not a valid matching data file
+   */
+  public static MatchingData map(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer header = section(channel, 0, HEADER_BYTES);
+      if (header.getInt() != MAGIC) {
+        throw new IOException("Not a matching data file: " + path);
+      }
+      int version = header.getInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported matching data file version " + version + ": " + path);
+      }
+      int size = header.getInt();
+      int propertyNum = header.getInt();
+      int excludedPairCount = header.getInt();
+      boolean hasCapacities = (header.getInt() & FLAG_CAPACITIES) != 0;
+      if (size < 0 || propertyNum < 0 || excludedPairCount < 0) {
+        throw new IOException("Corrupted matching data file header: " + path);
+      }
+
+      long cells = (long) size * propertyNum;
+      long intCount = size + (hasCapacities ? size : 0) + 2L * excludedPairCount + cells;
+      long doubleStart = align(HEADER_BYTES + intCount * Integer.BYTES);
+      long expectedBytes = doubleStart + 4 * cells * Double.BYTES;
+      if (cells > Integer.MAX_VALUE || channel.size() != expectedBytes) {
+        throw new IOException("Corrupted matching data file, expected " + expectedBytes
+            + " bytes: " + path);
+      }
+
+      long position = HEADER_BYTES;
+      final int[] sets = readInts(channel, position, size);
+      position += (long) size * Integer.BYTES;
+      int[] capacities = null;
+      if (hasCapacities) {
+        capacities = readInts(channel, position, size);
+        position += (long) size * Integer.BYTES;
+      }
+      final int[] pairs = readInts(channel, position, 2 * excludedPairCount);
+      position += 2L * excludedPairCount * Integer.BYTES;
+      IntBuffer requirementTypes = section(channel, position, cells * Integer.BYTES).asIntBuffer();
+
+      for (int set : sets) {
+        if (set < 0) {
+          throw new IOException("Corrupted matching data file, negative set no: " + path);
+        }
+      }
+      for (int cell = 0; cell < cells; cell++) {
+        int type = requirementTypes.get(cell);
+        if (type != ReqTypes.ONE_BOUND && type != ReqTypes.TWO_BOUND
+            && type != ReqTypes.SCALE_TARGET) {
+          throw new IOException("Corrupted matching data file, requirement type " + type + ": "
+              + path);
+        }
+      }
+
+      long sectionBytes = cells * Double.BYTES;
+      MatchingData data = new MatchingData(size, propertyNum, sets, capacities,
+          section(channel, doubleStart, sectionBytes).asDoubleBuffer(),
+          section(channel, doubleStart + sectionBytes, sectionBytes).asDoubleBuffer(),
+          requirementTypes,
+          section(channel, doubleStart + 2 * sectionBytes, sectionBytes).asDoubleBuffer(),
+          section(channel, doubleStart + 3 * sectionBytes, sectionBytes).asDoubleBuffer());
+      if (excludedPairCount > 0) {
+        int[][] excludedPairs = new int[excludedPairCount][];
+        for (int p = 0; p < excludedPairCount; p++) {
+          excludedPairs[p] = new int[]{pairs[2 * p], pairs[2 * p + 1]};
+        }
+        data.setExcludedPairs(excludedPairs);
+      }
+      return data;
+    }
+  }
+
+  private static ByteBuffer section(FileChannel channel, long position, long bytes)
+      throws IOException {
+    return channel.map(FileChannel.MapMode.READ_ONLY, position, bytes)
+        .order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private static int[] readInts(FileChannel channel, long position, int count)
+      throws IOException {
+    int[] values = new int[count];
+    if (count > 0) {
+      section(channel, position, (long) count * Integer.BYTES).asIntBuffer().get(values);
+    }
+    return values;
+  }
+
+  private static long align(long bytes) {
+    return (bytes + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+  }
+
+  /**
+   * Buffered little-endian writer over a channel.
+   */
+  private static final class Sink {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long written;
+
+    private Sink(FileChannel channel, ByteBuffer buffer) {
+      this.channel = channel;
+      this.buffer = buffer;
+    }
+
+    private void putByte(byte value) throws IOException {
+      ensure(Byte.BYTES);
+      buffer.put(value);
+      written += Byte.BYTES;
+    }
+
+    private void putInt(int value) throws IOException {
+      ensure(Integer.BYTES);
+      buffer.putInt(value);
+      written += Integer.BYTES;
+    }
+
+    private void putDouble(double value) throws IOException {
+      ensure(Double.BYTES);
+      buffer.putDouble(value);
+      written += Double.BYTES;
+    }
+
+    private void ensure(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+      }
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+}
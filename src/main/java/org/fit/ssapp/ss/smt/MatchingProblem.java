@@ -43,4 +43,13 @@ public interface MatchingProblem extends Problem {
    */
   double[] getMatchesSatisfactions(Matches matches);
 
+  /**
+   * Objective of a matching: its negated fitness. Matchings never contain excluded pairs, the
+   * matching algorithms skip them while proposing.
+   *
+   * @param matches Matches
+   * @return objective
+   */
+  double scoreOf(Matches matches);
+
 }
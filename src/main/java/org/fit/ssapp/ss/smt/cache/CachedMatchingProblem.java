@@ -0,0 +1,127 @@
+package org.fit.ssapp.ss.smt.cache;
+
+import org.fit.ssapp.constants.StableMatchingConst;
+import org.fit.ssapp.ss.smt.Matches;
+import org.fit.ssapp.ss.smt.MatchingData;
+import org.fit.ssapp.ss.smt.MatchingProblem;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.Variable;
+import org.moeaframework.core.variable.Permutation;
+
+/**
+ * Matching problem memoizing the evaluation of permutations. Late in a run, variation keeps
+ * recreating permutations already evaluated, each of them would otherwise go through the whole
+ * stable matching and fitness evaluation again. Permutations not cached yet are decoded, and the
+ * resulting matching is only scored if no equal matching was scored before. Solutions not encoded
+ * as a single permutation (PSO compatible problems) are always evaluated.
+ */
+public class CachedMatchingProblem implements MatchingProblem {
+
+  private final MatchingProblem problem;
+  private final EvaluationCache cache;
+  private final MatchesScoreCache scores;
+
+  /**
+   * CachedMatchingProblem.
+   *
+   * @param problem  evaluated problem
+   * @param capacity maximum number of cached permutations and of cached matchings
+   */
+  public CachedMatchingProblem(MatchingProblem problem, int capacity) {
+    this.problem = problem;
+    this.cache = new EvaluationCache(capacity);
+    this.scores = new MatchesScoreCache(capacity);
+  }
+
+  public EvaluationCache getCache() {
+    return cache;
+  }
+
+  public MatchesScoreCache getScores() {
+    return scores;
+  }
+
+  @Override
+  public void evaluate(Solution solution) {
+    if (solution.getNumberOfVariables() != 1
+        || !(solution.getVariable(0) instanceof Permutation permutation)) {
+      problem.evaluate(solution);
+      return;
+    }
+    int[] order = permutation.toArray();
+    long hash = EvaluationCache.hash(order);
+    EvaluationCache.Entry entry = cache.get(hash, order);
+    if (entry != null) {
+      solution.setObjectives(entry.objectives());
+      if (entry.matches() != null) {
+        solution.setAttribute(StableMatchingConst.MATCHES_KEY, entry.matches());
+      }
+      return;
+    }
+    Matches matches = problem.stableMatching(permutation);
+    solution.setAttribute(StableMatchingConst.MATCHES_KEY, matches);
+    solution.setObjective(0, scoreOf(matches));
+    cache.put(hash, new EvaluationCache.Entry(order, solution.getObjectives(), matches));
+  }
+
+  @Override
+  public double scoreOf(Matches matches) {
+    MatchesScoreCache.Entry entry = scores.get(matches);
+    if (entry != null) {
+      return entry.objective();
+    }
+    double objective = problem.scoreOf(matches);
+    scores.put(matches, objective);
+    return objective;
+  }
+
+  @Override
+  public String getName() {
+    return problem.getName();
+  }
+
+  @Override
+  public String getMatchingTypeName() {
+    return problem.getMatchingTypeName();
+  }
+
+  @Override
+  public MatchingData getMatchingData() {
+    return problem.getMatchingData();
+  }
+
+  @Override
+  public Matches stableMatching(Variable var) {
+    return problem.stableMatching(var);
+  }
+
+  @Override
+  public double[] getMatchesSatisfactions(Matches matches) {
+    return problem.getMatchesSatisfactions(matches);
+  }
+
+  @Override
+  public int getNumberOfVariables() {
+    return problem.getNumberOfVariables();
+  }
+
+  @Override
+  public int getNumberOfObjectives() {
+    return problem.getNumberOfObjectives();
+  }
+
+  @Override
+  public int getNumberOfConstraints() {
+    return problem.getNumberOfConstraints();
+  }
+
+  @Override
+  public Solution newSolution() {
+    return problem.newSolution();
+  }
+
+  @Override
+  public void close() {
+    problem.close();
+  }
+}
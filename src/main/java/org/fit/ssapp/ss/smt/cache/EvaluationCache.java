@@ -0,0 +1,99 @@
+package org.fit.ssapp.ss.smt.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import org.fit.ssapp.ss.smt.Matches;
+import org.fit.ssapp.ss.smt.result.EvaluationCacheStats;
+
+/**
+ * Bounded cache of evaluated permutations: 64-bit hash of the permutation to its objectives and
+ * {@link Matches}. Entries are spread over independently locked segments, each one evicting its
+ * least recently used entry when full, so evaluations running in parallel rarely contend. The
+ * permutation is kept with its entry and compared on every hit, a hash collision is a miss.
+ */
+public class EvaluationCache {
+
+  private final LruSegments<Entry> entries;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * EvaluationCache.
+   *
+   * @param capacity maximum number of cached permutations
+   */
+  public EvaluationCache(int capacity) {
+    this.entries = new LruSegments<>("Evaluation cache", capacity);
+  }
+
+  /**
+   * Cached evaluation of a permutation.
+   *
+   * @param permutation permutation
+   * @param objectives  objectives of the permutation
+   * @param matches     matches of the permutation, {@code null} if the evaluation did not keep any
+   */
+  public record Entry(int[] permutation, double[] objectives, Matches matches) {
+  }
+
+  /**
+   * Looks a permutation up.
+   *
+   * @param hash        {@link #hash(int[])} of the permutation
+   * @param permutation permutation
+   * @return its evaluation, {@code null} if not cached
+   */
+  public Entry get(long hash, int[] permutation) {
+    Entry entry = entries.get(hash);
+    if (entry != null && Arrays.equals(entry.permutation(), permutation)) {
+      hits.increment();
+      return entry;
+    }
+    misses.increment();
+    return null;
+  }
+
+  /**
+   * Caches the evaluation of a permutation.
+   *
+   * @param hash  {@link #hash(int[])} of the permutation
+   * @param entry evaluation
+   */
+  public void put(long hash, Entry entry) {
+    entries.put(hash, entry);
+  }
+
+  /**
+   * Hit, miss and eviction counts so far.
+   *
+   * @return EvaluationCacheStats
+   */
+  public EvaluationCacheStats getStats() {
+    long hitCount = hits.sum();
+    long missCount = misses.sum();
+    long lookups = hitCount + missCount;
+    return EvaluationCacheStats.builder()
+        .hits(hitCount)
+        .misses(missCount)
+        .evictions(entries.getEvictions())
+        .hitRate(lookups == 0 ? 0 : (double) hitCount / lookups)
+        .build();
+  }
+
+  /**
+   * 64-bit hash of a permutation.
+   *
+   * @param permutation permutation
+   * @return hash
+   */
+  public static long hash(int[] permutation) {
+    long h = 0x9E3779B97F4A7C15L;
+    for (int value : permutation) {
+      h = (h ^ value) * 0x100000001B3L;
+      h ^= h >>> 29;
+    }
+    h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+    h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+    return h ^ (h >>> 33);
+  }
+}
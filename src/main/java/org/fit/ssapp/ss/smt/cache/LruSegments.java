@@ -0,0 +1,80 @@
+package org.fit.ssapp.ss.smt.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded map from 64-bit hashes to values, spread over independently locked segments, each one
+ * evicting its least recently used entry when full, so lookups running in parallel rarely contend.
+ *
+ * @param <V> cached value
+ */
+class LruSegments<V> {
+
+  private static final int MAX_SEGMENTS = 16;
+
+  private final List<Segment> segments;
+  private final LongAdder evictions = new LongAdder();
+
+  LruSegments(String name, int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException(name + " capacity must be positive: " + capacity);
+    }
+    int segmentCount = Math.min(MAX_SEGMENTS, capacity);
+    this.segments = new ArrayList<>(segmentCount);
+    for (int s = 0; s < segmentCount; s++) {
+      segments.add(new Segment(capacity / segmentCount + (s < capacity % segmentCount ? 1 : 0)));
+    }
+  }
+
+  V get(long hash) {
+    return segmentOf(hash).get(hash);
+  }
+
+  void put(long hash, V value) {
+    segmentOf(hash).put(hash, value);
+  }
+
+  long getEvictions() {
+    return evictions.sum();
+  }
+
+  private Segment segmentOf(long hash) {
+    return segments.get((int) Long.remainderUnsigned(hash, segments.size()));
+  }
+
+  /**
+   * Access-ordered map evicting its least recently used entry beyond its capacity.
+   */
+  private final class Segment extends LinkedHashMap<Long, V> {
+
+    private final int capacity;
+
+    private Segment(int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized V get(Object key) {
+      return super.get(key);
+    }
+
+    @Override
+    public synchronized V put(Long key, V value) {
+      return super.put(key, value);
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+      if (size() > capacity) {
+        evictions.increment();
+        return true;
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package org.fit.ssapp.ss.smt.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.fit.ssapp.ss.smt.Matches;
+import org.fit.ssapp.ss.smt.result.EvaluationCacheStats;
+
+/**
+ * Bounded cache of scored matchings: {@link Matches#getFingerprint()} to the matching and its
+ * objective. Many permutations decode to the same matching, those are scored once, skipping the
+ * satisfaction and fitness evaluation. The matching is kept with its entry and compared on every
+ * hit, a fingerprint collision is a miss. Cached matchings must not be modified afterwards.
+ */
+public class MatchesScoreCache {
+
+  private final LruSegments<Entry> entries;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * MatchesScoreCache.
+   *
+   * @param capacity maximum number of cached matchings
+   */
+  public MatchesScoreCache(int capacity) {
+    this.entries = new LruSegments<>("Matchings score cache", capacity);
+  }
+
+  /**
+   * Scored matching.
+   *
+   * @param matches   matching
+   * @param objective objective of the matching
+   */
+  public record Entry(Matches matches, double objective) {
+  }
+
+  /**
+   * Looks a matching up.
+   *
+   * @param matches matching
+   * @return its score, {@code null} if not cached
+   */
+  public Entry get(Matches matches) {
+    Entry entry = entries.get(matches.getFingerprint());
+    if (entry != null && entry.matches().equals(matches)) {
+      hits.increment();
+      return entry;
+    }
+    misses.increment();
+    return null;
+  }
+
+  /**
+   * Caches the score of a matching.
+   *
+   * @param matches   matching
+   * @param objective its objective
+   */
+  public void put(Matches matches, double objective) {
+    entries.put(matches.getFingerprint(), new Entry(matches, objective));
+  }
+
+  /**
+   * Hit, miss and eviction counts so far.
+   *
+   * @return EvaluationCacheStats
+   */
+  public EvaluationCacheStats getStats() {
+    long hitCount = hits.sum();
+    long missCount = misses.sum();
+    long lookups = hitCount + missCount;
+    return EvaluationCacheStats.builder()
+        .hits(hitCount)
+        .misses(missCount)
+        .evictions(entries.getEvictions())
+        .hitRate(lookups == 0 ? 0 : (double) hitCount / lookups)
+        .build();
+  }
+}
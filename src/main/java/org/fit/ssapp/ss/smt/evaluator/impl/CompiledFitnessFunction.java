@@ -0,0 +1,236 @@
+package org.fit.ssapp.ss.smt.evaluator.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.fit.ssapp.ss.smt.MatchingData;
+import org.fit.ssapp.util.CompiledExpression;
+
+/**
+ * A two set fitness function parsed once. Supported terms:
+ * <ul>
+ *   <li>{@code M<i>}: satisfaction of individual i (1-based)</li>
+ *   <li>{@code S1}, {@code S2}: total satisfaction of the first / second set</li>
+ *   <li>{@code S(k)}: total satisfaction of the set numbered k</li>
+ *   <li>{@code SIGMA{expr}}: sum of expr over the individuals of the set named by S1 or S2
+ *   inside expr</li>
+ * </ul>
+ * Every term becomes a slot of a {@link CompiledExpression}, so evaluating only computes the set
+ * sums the function refers to and runs the compiled program.
+ */
+public final class CompiledFitnessFunction {
+
+  private static final Pattern SET_SUM = Pattern.compile("S\\((\\d)\\)");
+  private static final Pattern VARIABLE = Pattern.compile("M\\d+|S\\d+|_sum\\d+|_sigma\\d+");
+
+  private final String fitnessFunction;
+  private final CompiledExpression expression;
+  private final List<String> slotNames;
+
+  /**
+   * what each slot of expression is bound to.
+   */
+  private final int[] slotKinds;
+  private final int[] slotArguments;
+
+  private static final int KIND_M = 0;
+  private static final int KIND_SET_SUM = 1;
+  private static final int KIND_SIGMA = 2;
+
+  private final CompiledExpression[] sigmaExpressions;
+  private final int[] sigmaSets;
+
+  /**
+   * individuals of each set number.
+   */
+  private final int[][] setMembers;
+
+  /**
+   * per thread slot values of the outer expression and of a SIGMA body.
+   */
+  private final ThreadLocal<double[][]> scratch = ThreadLocal.withInitial(this::newScratch);
+
+  private CompiledFitnessFunction(String fitnessFunction, MatchingData matchingData) {
+    this.fitnessFunction = fitnessFunction;
+    int size = matchingData.getSize();
+
+    int maxSet = 0;
+    for (int i = 0; i < size; i++) {
+      maxSet = Math.max(maxSet, matchingData.getSetNoOf(i));
+    }
+    int[] counts = new int[maxSet + 1];
+    for (int i = 0; i < size; i++) {
+      counts[matchingData.getSetNoOf(i)]++;
+    }
+    this.setMembers = new int[maxSet + 1][];
+    for (int set = 0; set <= maxSet; set++) {
+      setMembers[set] = new int[counts[set]];
+    }
+    Arrays.fill(counts, 0);
+    for (int i = 0; i < size; i++) {
+      int set = matchingData.getSetNoOf(i);
+      setMembers[set][counts[set]++] = i;
+    }
+
+    // SIGMA{...} blocks become _sigma<k> variables
+    List<CompiledExpression> sigmas = new ArrayList<>();
+    List<Integer> sigmaSetList = new ArrayList<>();
+    StringBuilder outer = new StringBuilder();
+    int c = 0;
+    while (c < fitnessFunction.length()) {
+      if (fitnessFunction.startsWith("SIGMA", c)) {
+        int open = c + 5;
+        if (open >= fitnessFunction.length() || fitnessFunction.charAt(open) != '{') {
+          throw new IllegalArgumentException("Missing '{' after SIGMA: " + fitnessFunction);
+        }
+        int close = fitnessFunction.indexOf('}', open);
+        if (close < 0) {
+          throw new IllegalArgumentException("Missing '}' after SIGMA: " + fitnessFunction);
+        }
+        String inner = fitnessFunction.substring(open + 1, close);
+        outer.append("_sigma").append(sigmas.size());
+        compileSigma(inner, sigmas, sigmaSetList);
+        c = close + 1;
+      } else {
+        outer.append(fitnessFunction.charAt(c));
+        c++;
+      }
+    }
+
+    // S(k) becomes _sum<k>
+    String rewritten = SET_SUM.matcher(outer).replaceAll("_sum$1");
+
+    this.slotNames = new ArrayList<>();
+    Matcher matcher = VARIABLE.matcher(rewritten);
+    while (matcher.find()) {
+      if (!slotNames.contains(matcher.group())) {
+        slotNames.add(matcher.group());
+      }
+    }
+    this.slotKinds = new int[slotNames.size()];
+    this.slotArguments = new int[slotNames.size()];
+    for (int slot = 0; slot < slotNames.size(); slot++) {
+      String name = slotNames.get(slot);
+      if (name.startsWith("M")) {
+        int position = Integer.parseInt(name.substring(1));
+        if (position < 1 || position > size) {
+          throw new IllegalArgumentException("invalid position after variable M: " + position);
+        }
+        slotKinds[slot] = KIND_M;
+        slotArguments[slot] = position - 1;
+      } else if (name.startsWith("S")) {
+        // S1 is the first set, S2 the second one, as inside SIGMA
+        slotKinds[slot] = KIND_SET_SUM;
+        slotArguments[slot] = Integer.parseInt(name.substring(1)) - 1;
+      } else if (name.startsWith("_sum")) {
+        slotKinds[slot] = KIND_SET_SUM;
+        slotArguments[slot] = Integer.parseInt(name.substring(4));
+      } else {
+        slotKinds[slot] = KIND_SIGMA;
+        slotArguments[slot] = Integer.parseInt(name.substring(6));
+      }
+    }
+    this.sigmaExpressions = sigmas.toArray(new CompiledExpression[0]);
+    this.sigmaSets = sigmaSetList.stream().mapToInt(Integer::intValue).toArray();
+    this.expression = CompiledExpression.compile(rewritten, slotNames);
+  }
+
+  /**
+   * parse a fitness function against the sets of a matching problem.
+   *
+   * @param fitnessFunction fitness function
+   * @param matchingData    matching data
+   * @return compiled function
+   * @throws IllegalArgumentException if the function is malformed
+   */
+  public static CompiledFitnessFunction compile(String fitnessFunction,
+                                                MatchingData matchingData) {
+    return new CompiledFitnessFunction(fitnessFunction, matchingData);
+  }
+
+  /**
+   * evaluate for one matching.
+   *
+   * @param satisfactions satisfaction of every individual
+   * @return fitness value
+   */
+  public double evaluate(double[] satisfactions) {
+    double[] values = scratch.get()[0];
+    for (int slot = 0; slot < slotKinds.length; slot++) {
+      int argument = slotArguments[slot];
+      values[slot] = switch (slotKinds[slot]) {
+        case KIND_M -> satisfactions[argument];
+        case KIND_SET_SUM -> sumOfSet(satisfactions, argument);
+        default -> sigma(satisfactions, argument);
+      };
+    }
+    return expression.evaluate(values);
+  }
+
+  private double[][] newScratch() {
+    return new double[][]{new double[slotKinds.length], new double[1]};
+  }
+
+  @Override
+  public String toString() {
+    return fitnessFunction;
+  }
+
+  private double sumOfSet(double[] satisfactions, int set) {
+    if (set < 0 || set >= setMembers.length) {
+      return 0;
+    }
+    double sum = 0;
+    for (int individual : setMembers[set]) {
+      sum += satisfactions[individual];
+    }
+    return sum;
+  }
+
+  private double sigma(double[] satisfactions, int index) {
+    CompiledExpression term = sigmaExpressions[index];
+    if (term == null) {
+      return 0;
+    }
+    int set = sigmaSets[index];
+    if (set >= setMembers.length) {
+      return 0;
+    }
+    double[] value = scratch.get()[1];
+    double sum = 0;
+    for (int individual : setMembers[set]) {
+      value[0] = satisfactions[individual];
+      sum += term.evaluate(value);
+    }
+    return sum;
+  }
+
+  /**
+   * compile the body of a SIGMA block, its variable (S1 or S2) selects the set.
+   */
+  private static void compileSigma(String inner,
+                                   List<CompiledExpression> sigmas,
+                                   List<Integer> sigmaSets) {
+    String variable = null;
+    for (int i = 0; i < inner.length() - 1; i++) {
+      if (inner.charAt(i) == 'S') {
+        variable = switch (inner.charAt(i + 1)) {
+          case '1' -> "S1";
+          case '2' -> "S2";
+          default -> throw new IllegalArgumentException(
+              "Illegal value after S regex in sigma calculation: " + inner);
+        };
+      }
+    }
+    if (variable == null) {
+      // no set to iterate over, the block sums to 0
+      sigmas.add(null);
+      sigmaSets.add(0);
+      return;
+    }
+    sigmas.add(CompiledExpression.compile(inner, List.of(variable)));
+    sigmaSets.add(variable.equals("S1") ? 0 : 1);
+  }
+}
@@ -0,0 +1,179 @@
+package org.fit.ssapp.ss.smt.implement;
+
+import java.util.Arrays;
+import java.util.Collection;
+import org.fit.ssapp.ss.smt.ExclusionIndex;
+import org.fit.ssapp.ss.smt.Matches;
+import org.fit.ssapp.ss.smt.MatchingData;
+import org.fit.ssapp.ss.smt.preference.PartnerHeap;
+import org.fit.ssapp.ss.smt.preference.PreferenceListWrapper;
+import org.moeaframework.core.variable.Permutation;
+
+/**
+ * Scratch state of one deferred acceptance run: a primitive ring-buffer queue of nodes waiting
+ * to propose, the next rank each node proposes at and the current partners of each node in a
+ * {@link PartnerHeap}. One instance is kept per evaluating thread and reset at the start of
+ * every run, so evaluations do not allocate for it.
+ */
+final class DeferredAcceptanceWorkspace {
+
+  private int[] queue;
+  private int head;
+  private int count;
+  private final int[] nextRank;
+  private final PartnerHeap partners;
+
+  /**
+   * DeferredAcceptanceWorkspace.
+   *
+   * @param capacities capacity of each individual of the problem
+   */
+  DeferredAcceptanceWorkspace(int[] capacities) {
+    this.queue = new int[Math.max(capacities.length, 1) * 2];
+    this.nextRank = new int[capacities.length];
+    this.partners = new PartnerHeap(capacities);
+  }
+
+  /**
+   * clear the state and queue every node in permutation order.
+   *
+   * @param permutation proposing order
+   */
+  void reset(Permutation permutation) {
+    clear();
+    for (int i = 0; i < permutation.size(); i++) {
+      push(permutation.get(i));
+    }
+  }
+
+  /**
+   * clear the state and queue every node in the given order.
+   *
+   * @param order proposing order
+   */
+  void reset(Collection<Integer> order) {
+    clear();
+    for (int node : order) {
+      push(node);
+    }
+  }
+
+  /**
+   * Capacity-constrained deferred acceptance over the queued nodes. A node proposes while it has
+   * no match, walking its preference list from its cursor; a full receiver keeps the proposer
+   * only if it ranks strictly better than its weakest partner, who is then re-queued. Nodes
+   * excluded with the proposer are skipped, so excluded pairs are never formed. The satisfaction
+   * of every node is accumulated as pairs are formed and broken and attached to the result.
+   *
+   * @param preferenceLists preference lists
+   * @param matchingData    matching data
+   * @return Matches
+   */
+  Matches stableMatching(PreferenceListWrapper preferenceLists, MatchingData matchingData) {
+    Matches matches = new Matches(matchingData.getCapacities());
+    ExclusionIndex exclusions = matchingData.getExclusions();
+    double[] satisfactions = new double[matchingData.getSize()];
+
+    while (!isEmpty()) {
+      int leftNode = poll();
+      if (matches.isMatched(leftNode)) {
+        continue;
+      }
+
+      //Get preference list of proposing node
+      int preferenceSize = preferenceLists.sizeOf(leftNode);
+      // every rank before the cursor has already rejected or dropped leftNode
+      int rank = nextRank[leftNode];
+
+      for (; rank < preferenceSize; rank++) {
+        int rightNode = preferenceLists.getPositionByRank(leftNode, rank);
+
+        if (exclusions.isExcluded(leftNode, rightNode)
+            || matches.isMatched(rightNode, leftNode)) {
+          continue;
+        }
+
+        if (!matches.isFull(rightNode, matchingData.getCapacityOf(rightNode))) {
+          matches.addMatchBi(leftNode, rightNode);
+          link(preferenceLists, leftNode, rightNode);
+          credit(preferenceLists, satisfactions, leftNode, rightNode, 1);
+          break;
+        }
+
+        // The node that rightNode has the least preference considering
+        // its currents matches and leftNode
+        int rightLoser = preferenceLists.getLeastScoreNode(rightNode, leftNode, partners);
+
+        // rightNode prefers leftNode over one of its current matches
+        if (rightLoser != leftNode) {
+          matches.removeMatchBi(rightNode, rightLoser);
+          credit(preferenceLists, satisfactions, rightNode, rightLoser, -1);
+          partners.replaceTop(rightNode, leftNode, rankIn(preferenceLists, rightNode, leftNode));
+          partners.remove(rightLoser, rightNode);
+          matches.addMatchBi(leftNode, rightNode);
+          partners.add(leftNode, rightNode, rankIn(preferenceLists, leftNode, rightNode));
+          credit(preferenceLists, satisfactions, leftNode, rightNode, 1);
+          push(rightLoser);
+          break;
+        }
+      }
+      nextRank[leftNode] = rank + 1;
+    }
+
+    matches.setSatisfactions(satisfactions);
+    return matches;
+  }
+
+  boolean isEmpty() {
+    return count == 0;
+  }
+
+  void push(int node) {
+    if (count == queue.length) {
+      grow();
+    }
+    queue[(head + count) % queue.length] = node;
+    count++;
+  }
+
+  int poll() {
+    int node = queue[head];
+    head = (head + 1) % queue.length;
+    count--;
+    return node;
+  }
+
+  private void link(PreferenceListWrapper preferenceLists, int node1, int node2) {
+    partners.add(node1, node2, rankIn(preferenceLists, node1, node2));
+    partners.add(node2, node1, rankIn(preferenceLists, node2, node1));
+  }
+
+  /**
+   * add (sign 1) or take back (sign -1) the scores two nodes give each other.
+   */
+  static void credit(PreferenceListWrapper preferenceLists, double[] satisfactions,
+                     int node1, int node2, double sign) {
+    satisfactions[node1] += sign * preferenceLists.getScore(node1, node2);
+    satisfactions[node2] += sign * preferenceLists.getScore(node2, node1);
+  }
+
+  private static int rankIn(PreferenceListWrapper preferenceLists, int owner, int node) {
+    return preferenceLists.getRankOf(owner, node);
+  }
+
+  private void clear() {
+    head = 0;
+    count = 0;
+    Arrays.fill(nextRank, 0);
+    partners.clear();
+  }
+
+  private void grow() {
+    int[] larger = new int[queue.length * 2];
+    for (int i = 0; i < count; i++) {
+      larger[i] = queue[(head + i) % queue.length];
+    }
+    queue = larger;
+    head = 0;
+  }
+}
@@ -1,8 +1,5 @@
 package org.fit.ssapp.ss.smt.implement;
 
-import java.util.LinkedList;
-import java.util.Objects;
-import java.util.Queue;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -13,12 +10,10 @@ import org.fit.ssapp.ss.smt.Matches;
 import org.fit.ssapp.ss.smt.MatchingData;
 import org.fit.ssapp.ss.smt.MatchingProblem;
 import org.fit.ssapp.ss.smt.evaluator.FitnessEvaluator;
-import org.fit.ssapp.ss.smt.preference.PreferenceList;
 import org.fit.ssapp.ss.smt.preference.PreferenceListWrapper;
 import org.fit.ssapp.util.StringUtils;
 import org.moeaframework.core.Solution;
 import org.moeaframework.core.Variable;
-import org.moeaframework.core.variable.EncodingUtils;
 import org.moeaframework.core.variable.Permutation;
 
 /**
@@ -80,6 +75,16 @@ public class MTMProblem implements MatchingProblem {
    */
   final int UNUSED_VAL = StableMatchingConst.UNUSED_VALUE;
 
+  /**
+   * per thread proposal queue, cursors and partner heaps, reused across evaluations.
+   */
+  @Getter(AccessLevel.NONE)
+  final ThreadLocal<DeferredAcceptanceWorkspace> workspace =
+      ThreadLocal.withInitial(this::newWorkspace);
+
+  private DeferredAcceptanceWorkspace newWorkspace() {
+    return new DeferredAcceptanceWorkspace(matchingData.getCapacities());
+  }
 
   /**
    * generate new solution.
@@ -102,16 +107,18 @@ public class MTMProblem implements MatchingProblem {
   @Override
   public void evaluate(Solution solution) {
     Matches result = this.stableMatching(solution.getVariable(0));
-    // Check Exclude Pairs
-    int[][] excludedPairs = this.matchingData.getExcludedPairs();
-    if (Objects.nonNull(excludedPairs)) {
-      for (int[] excludedPair : excludedPairs) {
-        if (result.isMatched(excludedPair[0], excludedPair[1])) {
-          solution.setObjective(0, Double.MAX_VALUE);
-          return;
-        }
-      }
-    }
+    solution.setAttribute(StableMatchingConst.MATCHES_KEY, result);
+    solution.setObjective(0, this.scoreOf(result));
+  }
+
+  /**
+   * objective of matches: the negated fitness.
+   *
+   * @param result Matches
+   * @return objective
+   */
+  @Override
+  public double scoreOf(Matches result) {
     double[] satisfactions = this.preferenceLists.getMatchesSatisfactions(result, matchingData);
     double fitnessScore;
     if (this.hasFitnessFunc()) {
@@ -120,8 +127,7 @@ public class MTMProblem implements MatchingProblem {
     } else {
       fitnessScore = fitnessEvaluator.defaultFitnessEvaluation(satisfactions);
     }
-    solution.setAttribute(StableMatchingConst.MATCHES_KEY, result);
-    solution.setObjective(0, -fitnessScore);
+    return -fitnessScore;
   }
 
 
@@ -150,65 +156,12 @@ public class MTMProblem implements MatchingProblem {
    */
   @Override
   public Matches stableMatching(Variable var) {
-    Matches matches = new Matches(matchingData.getSize());
-    int[] decodeVar = EncodingUtils.getPermutation(var);
-    Queue<Integer> queue = new LinkedList<>();
-
-    for (int val : decodeVar) {
-      queue.add(val);
-    }
-
-    while (!queue.isEmpty()) {
-      int leftNode = queue.poll();
-      if (matches.isMatched(leftNode)) {
-        continue;
-      }
-
-      //Get preference list of proposing node
-      PreferenceList nodePreference = preferenceLists.get(leftNode);
-
-      //Loop through LeftNode's preference list to find a Match
-      for (int i = 0; i < nodePreference.size(UNUSED_VAL); i++) {
-        int rightNode = nodePreference.getPositionByRank(UNUSED_VAL, i);
-
-        if (matches.isMatched(rightNode, leftNode)) {
-          continue;
-        }
-
-        boolean rightIsFull = matches.isFull(rightNode, this.matchingData.getCapacityOf(rightNode));
-
-        if (!rightIsFull) {
-          matches.addMatchBi(leftNode, rightNode);
-          break;
-        }
-
-        // The node that rightNode has the least preference considering
-        // its currents matches and leftNode
-        int rightLoser = preferenceLists.getLeastScoreNode(
-                UNUSED_VAL,
-                rightNode,
-                leftNode,
-                matches.getSetOf(rightNode),
-                matchingData.getCapacityOf(rightNode));
-
-        // rightNode likes its current matches more than leftNode
-        if (rightLoser == leftNode) {
-          // if leftNode like rightNode the least
-          if (preferenceLists.getLastChoiceOf(UNUSED_VAL, leftNode) == rightNode) {
-            break;
-          }
-        } else {
-          matches.removeMatchBi(rightNode, rightLoser);
-          matches.addMatchBi(leftNode, rightNode);
-          queue.add(rightLoser);
-          break;
-        }
-      }
-    }
-
-    return matches;
+    DeferredAcceptanceWorkspace ws = workspace.get();
+    ws.reset((Permutation) var);
+    return ws.stableMatching(preferenceLists, matchingData);
   }
 
+
   @Override
   public String getMatchingTypeName() {
     return "Many to Many";
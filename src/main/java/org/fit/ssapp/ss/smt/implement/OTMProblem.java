@@ -1,9 +1,5 @@
 package org.fit.ssapp.ss.smt.implement;
 
-import java.util.LinkedList;
-import java.util.Objects;
-import java.util.Queue;
-import java.util.Set;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -14,12 +10,10 @@ import org.fit.ssapp.ss.smt.Matches;
 import org.fit.ssapp.ss.smt.MatchingData;
 import org.fit.ssapp.ss.smt.MatchingProblem;
 import org.fit.ssapp.ss.smt.evaluator.FitnessEvaluator;
-import org.fit.ssapp.ss.smt.preference.PreferenceList;
 import org.fit.ssapp.ss.smt.preference.PreferenceListWrapper;
 import org.fit.ssapp.util.StringUtils;
 import org.moeaframework.core.Solution;
 import org.moeaframework.core.Variable;
-import org.moeaframework.core.variable.EncodingUtils;
 import org.moeaframework.core.variable.Permutation;
 
 /**
@@ -82,6 +76,17 @@ public class OTMProblem implements MatchingProblem {
    */
   final int UNUSED_VAL = StableMatchingConst.UNUSED_VALUE;
 
+  /**
+   * per thread proposal queue, cursors and partner heaps, reused across evaluations.
+   */
+  @Getter(AccessLevel.NONE)
+  final ThreadLocal<DeferredAcceptanceWorkspace> workspace =
+      ThreadLocal.withInitial(this::newWorkspace);
+
+  private DeferredAcceptanceWorkspace newWorkspace() {
+    return new DeferredAcceptanceWorkspace(matchingData.getCapacities());
+  }
+
   @Override
   public String getName() {
     return problemName;
@@ -105,16 +110,18 @@ public class OTMProblem implements MatchingProblem {
   @Override
   public void evaluate(Solution solution) {
     Matches result = this.stableMatching(solution.getVariable(0));
-    // Check Exclude Pairs
-    int[][] excludedPairs = this.matchingData.getExcludedPairs();
-    if (Objects.nonNull(excludedPairs)) {
-      for (int[] excludedPair : excludedPairs) {
-        if (result.getSetOf(excludedPair[0]).contains(excludedPair[1])) {
-          solution.setObjective(0, Double.MAX_VALUE);
-          return;
-        }
-      }
-    }
+    solution.setAttribute(StableMatchingConst.MATCHES_KEY, result);
+    solution.setObjective(0, this.scoreOf(result));
+  }
+
+  /**
+   * objective of matches: the negated fitness.
+   *
+   * @param result Matches
+   * @return objective
+   */
+  @Override
+  public double scoreOf(Matches result) {
     double[] satisfactions = this.preferenceLists.getMatchesSatisfactions(result, matchingData);
     double fitnessScore;
     if (this.hasFitnessFunc()) {
@@ -123,8 +130,7 @@ public class OTMProblem implements MatchingProblem {
     } else {
       fitnessScore = fitnessEvaluator.defaultFitnessEvaluation(satisfactions);
     }
-    solution.setAttribute(StableMatchingConst.MATCHES_KEY, result);
-    solution.setObjective(0, -fitnessScore);
+    return -fitnessScore;
   }
 
   /**
@@ -162,46 +168,12 @@ public class OTMProblem implements MatchingProblem {
 
   @Override
   public Matches stableMatching(Variable var) {
-    Matches matches = new Matches(matchingData.getSize());
-    int[] decodeVar = EncodingUtils.getPermutation(var);
-    Queue<Integer> queue = new LinkedList<>();
-    for (int val : decodeVar) {
-      queue.add(val);
-    }
-    while (!queue.isEmpty()) {
-      int leftNode = queue.poll();
-      if (matches.isMatched(leftNode)) {
-        continue;
-      }
-      PreferenceList nodePreference = preferenceLists.get(leftNode);
-      for (int i = 0; i < nodePreference.size(UNUSED_VAL); i++) {
-        int rightNode = nodePreference.getPositionByRank(UNUSED_VAL, i);
-        if (matches.isMatched(rightNode, leftNode)) {
-          continue;
-        }
-        boolean rightIsFull = matches.isFull(rightNode, matchingData.getCapacityOf(rightNode));
-        if (!rightIsFull) {
-          matches.addMatchBi(leftNode, rightNode);
-          break;
-        } else {
-          Set<Integer> currentMatches = matches.getSetOf(rightNode);
-          int leastPreferredNode = preferenceLists.getLeastScoreNode(
-                  UNUSED_VAL, rightNode, leftNode, currentMatches,
-                  matchingData.getCapacityOf(rightNode)
-          );
-          if (leastPreferredNode != -1 && preferenceLists.isPreferredOver(leftNode,
-                  leastPreferredNode, rightNode)) {
-            matches.removeMatchBi(rightNode, leastPreferredNode);
-            matches.addMatchBi(leftNode, rightNode);
-            queue.add(leastPreferredNode);
-            break;
-          }
-        }
-      }
-    }
-    return matches;
+    DeferredAcceptanceWorkspace ws = workspace.get();
+    ws.reset((Permutation) var);
+    return ws.stableMatching(preferenceLists, matchingData);
   }
 
+
   @Override
   public double[] getMatchesSatisfactions(Matches matches) {
     return this.preferenceLists.getMatchesSatisfactions(matches, matchingData);
@@ -2,7 +2,6 @@ package org.fit.ssapp.ss.smt.implement;
 
 import java.util.Arrays;
 import java.util.LinkedList;
-import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -12,11 +11,11 @@ import lombok.Getter;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.fit.ssapp.constants.StableMatchingConst;
+import org.fit.ssapp.ss.smt.ExclusionIndex;
 import org.fit.ssapp.ss.smt.Matches;
 import org.fit.ssapp.ss.smt.MatchingData;
 import org.fit.ssapp.ss.smt.MatchingProblem;
 import org.fit.ssapp.ss.smt.evaluator.FitnessEvaluator;
-import org.fit.ssapp.ss.smt.preference.PreferenceList;
 import org.fit.ssapp.ss.smt.preference.PreferenceListWrapper;
 import org.fit.ssapp.util.StringUtils;
 import org.moeaframework.core.Solution;
@@ -108,16 +107,18 @@ public class OTOProblem implements MatchingProblem {
   @Override
   public void evaluate(Solution solution) {
     Matches result = this.stableMatching(solution.getVariable(0));
-    // Check Exclude Pairs
-    int[][] excludedPairs = this.matchingData.getExcludedPairs();
-    if (Objects.nonNull(excludedPairs)) {
-      for (int[] excludedPair : excludedPairs) {
-        if (result.getSetOf(excludedPair[0]).contains(excludedPair[1])) {
-          solution.setObjective(0, Double.MAX_VALUE);
-          return;
-        }
-      }
-    }
+    solution.setAttribute(StableMatchingConst.MATCHES_KEY, result);
+    solution.setObjective(0, this.scoreOf(result));
+  }
+
+  /**
+   * objective of matches: the negated fitness.
+   *
+   * @param result Matches
+   * @return objective
+   */
+  @Override
+  public double scoreOf(Matches result) {
     double[] satisfactions = this.preferenceLists.getMatchesSatisfactions(result, matchingData);
     double fitnessScore;
     if (this.hasFitnessFunc()) {
@@ -126,8 +127,7 @@ public class OTOProblem implements MatchingProblem {
     } else {
       fitnessScore = fitnessEvaluator.defaultFitnessEvaluation(satisfactions);
     }
-    solution.setAttribute(StableMatchingConst.MATCHES_KEY, result);
-    solution.setObjective(0, -fitnessScore);
+    return -fitnessScore;
   }
 
   /**
@@ -173,16 +173,22 @@ public class OTOProblem implements MatchingProblem {
     Queue<Integer> singleQueue = Arrays.stream(order).boxed()
             .collect(Collectors.toCollection(LinkedList::new));
     Matches matches = new Matches(getProblemSize());
+    ExclusionIndex exclusions = matchingData.getExclusions();
+    double[] satisfactions = new double[getProblemSize()];
 
     while (!singleQueue.isEmpty()) {
       int a = singleQueue.poll();
 
-      PreferenceList aPreference = getPreferenceLists().get(a);
-      int prefLen = aPreference.size(0);
+      int prefLen = preferenceLists.sizeOf(a);
       boolean foundMatch = false;
 
       for (int i = 0; i < prefLen; i++) {
-        int b = aPreference.getPositionByRank(UNUSED_VAL, i);
+        int b = preferenceLists.getPositionByRank(a, i);
+
+        // never propose to an excluded partner
+        if (exclusions.isExcluded(a, b)) {
+          continue;
+        }
 
         // If already matched to each other, skip
         if (matches.isMatched(a, b)) {
@@ -192,6 +198,7 @@ public class OTOProblem implements MatchingProblem {
         if (!matches.isMatched(b)) {
           // Case 1: b is unmatched
           matches.addMatchBi(a, b);
+          DeferredAcceptanceWorkspace.credit(preferenceLists, satisfactions, a, b, 1);
           break;
         } else {
           // Case 2: b is already matched
@@ -204,6 +211,8 @@ public class OTOProblem implements MatchingProblem {
               singleQueue.add(bPartner);
               matches.removeMatchBi(b, bPartner);
               matches.addMatchBi(a, b);
+              DeferredAcceptanceWorkspace.credit(preferenceLists, satisfactions, b, bPartner, -1);
+              DeferredAcceptanceWorkspace.credit(preferenceLists, satisfactions, a, b, 1);
               foundMatch = true;
               break;
             }
@@ -216,6 +225,7 @@ public class OTOProblem implements MatchingProblem {
       }
     }
 
+    matches.setSatisfactions(satisfactions);
     return matches;
   }
 
@@ -225,7 +235,7 @@ public class OTOProblem implements MatchingProblem {
   }
 
   private boolean bLikeAMore(int a, int b, int c) {
-    return getPreferenceLists().get(b).isScoreGreater(0, a, c);
+    return preferenceLists.isPreferredOver(a, c, b);
   }
 
 }
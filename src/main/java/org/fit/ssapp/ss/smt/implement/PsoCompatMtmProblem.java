@@ -10,7 +10,6 @@ import org.fit.ssapp.ss.smt.Matches;
 import org.fit.ssapp.ss.smt.MatchingData;
 import org.fit.ssapp.ss.smt.MatchingProblem;
 import org.fit.ssapp.ss.smt.evaluator.FitnessEvaluator;
-import org.fit.ssapp.ss.smt.preference.PreferenceList;
 import org.fit.ssapp.ss.smt.preference.PreferenceListWrapper;
 import org.fit.ssapp.util.SolutionUtils;
 import org.fit.ssapp.util.StringUtils;
@@ -18,8 +17,6 @@ import org.moeaframework.core.Solution;
 import org.moeaframework.core.Variable;
 import org.moeaframework.core.variable.RealVariable;
 
-import java.util.Objects;
-import java.util.Queue;
 
 /**
  * The idea is N:problem size going to be the number of dimensions in PSO
@@ -70,6 +67,17 @@ public class PsoCompatMtmProblem implements MatchingProblem {
    */
   final int UNUSED_VAL = StableMatchingConst.UNUSED_VALUE;
 
+  /**
+   * per thread proposal queue, cursors and partner heaps, reused across evaluations.
+   */
+  @Getter(AccessLevel.NONE)
+  final ThreadLocal<DeferredAcceptanceWorkspace> workspace =
+      ThreadLocal.withInitial(this::newWorkspace);
+
+  private DeferredAcceptanceWorkspace newWorkspace() {
+    return new DeferredAcceptanceWorkspace(matchingData.getCapacities());
+  }
+
 
   /**
    * generate new solution.
@@ -94,16 +102,18 @@ public class PsoCompatMtmProblem implements MatchingProblem {
   @Override
   public void evaluate(Solution solution) {
     Matches result = this.stableMatching(solution);
-    // Check Exclude Pairs
-    int[][] excludedPairs = this.matchingData.getExcludedPairs();
-    if (Objects.nonNull(excludedPairs)) {
-      for (int[] excludedPair : excludedPairs) {
-        if (result.isMatched(excludedPair[0], excludedPair[1])) {
-          solution.setObjective(0, Double.MAX_VALUE);
-          return;
-        }
-      }
-    }
+    solution.setAttribute(StableMatchingConst.MATCHES_KEY, result);
+    solution.setObjective(0, this.scoreOf(result));
+  }
+
+  /**
+   * objective of matches: the negated fitness.
+   *
+   * @param result Matches
+   * @return objective
+   */
+  @Override
+  public double scoreOf(Matches result) {
     double[] satisfactions = this.preferenceLists.getMatchesSatisfactions(result, matchingData);
     double fitnessScore;
     if (this.hasFitnessFunc()) {
@@ -112,8 +122,7 @@ public class PsoCompatMtmProblem implements MatchingProblem {
     } else {
       fitnessScore = fitnessEvaluator.defaultFitnessEvaluation(satisfactions);
     }
-    solution.setAttribute(StableMatchingConst.MATCHES_KEY, result);
-    solution.setObjective(0, -fitnessScore);
+    return -fitnessScore;
   }
 
 
@@ -152,61 +161,12 @@ public class PsoCompatMtmProblem implements MatchingProblem {
    * @return Matches
    */
   public Matches stableMatching(Solution solution) {
-    Queue<Integer> queue = SolutionUtils.getSortedIds(solution, true);
-
-    Matches matches = new Matches(matchingData.getSize());
-
-    while (!queue.isEmpty()) {
-      int leftNode = queue.poll();
-      if (matches.isMatched(leftNode)) {
-        continue;
-      }
-
-      //Get preference list of proposing node
-      PreferenceList nodePreference = preferenceLists.get(leftNode);
-
-      //Loop through LeftNode's preference list to find a Match
-      for (int i = 0; i < nodePreference.size(UNUSED_VAL); i++) {
-        int rightNode = nodePreference.getPositionByRank(UNUSED_VAL, i);
-
-        if (matches.isMatched(rightNode, leftNode)) {
-          continue;
-        }
-
-        boolean rightIsFull = matches.isFull(rightNode,
-            this.matchingData.getCapacityOf(rightNode));
-
-        if (!rightIsFull) {
-          matches.addMatchBi(leftNode, rightNode);
-          break;
-        }
-
-        // The node that rightNode has the least preference considering
-        // its currents matches and leftNode
-        int rightLoser = preferenceLists.getLeastScoreNode(UNUSED_VAL,
-            rightNode,
-            leftNode,
-            matches.getSetOf(rightNode),
-            matchingData.getCapacityOf(rightNode));
-
-        // rightNode likes its current matches more than leftNode
-        if (rightLoser == leftNode) {
-          // if leftNode like rightNode the least
-          if (preferenceLists.getLastChoiceOf(UNUSED_VAL, leftNode) == rightNode) {
-            break;
-          }
-        } else {
-          matches.removeMatchBi(rightNode, rightLoser);
-          matches.addMatchBi(leftNode, rightNode);
-          queue.add(rightLoser);
-          break;
-        }
-      }
-    }
-
-    return matches;
+    DeferredAcceptanceWorkspace ws = workspace.get();
+    ws.reset(SolutionUtils.getSortedIds(solution, true));
+    return ws.stableMatching(preferenceLists, matchingData);
   }
 
+
   @Override
   public String getMatchingTypeName() {
     return "Many to Many";
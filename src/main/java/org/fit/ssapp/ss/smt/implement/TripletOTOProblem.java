@@ -5,8 +5,6 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
 import java.util.stream.IntStream;
@@ -114,16 +112,18 @@ public class TripletOTOProblem implements MatchingProblem {
   @Override
   public void evaluate(Solution solution) {
     Matches result = this.stableMatching(solution.getVariable(0));
-    // Check Exclude Pairs
-    int[][] excludedPairs = this.matchingData.getExcludedPairs();
-    if (Objects.nonNull(excludedPairs)) {
-      for (int[] excludedPair : excludedPairs) {
-        if (result.getSetOf(excludedPair[0]).contains(excludedPair[1])) {
-          solution.setObjective(0, Double.MAX_VALUE);
-          return;
-        }
-      }
-    }
+    solution.setAttribute(StableMatchingConst.MATCHES_KEY, result);
+    solution.setObjective(0, this.scoreOf(result));
+  }
+
+  /**
+   * objective of matches: the negated fitness.
+   *
+   * @param result Matches
+   * @return objective
+   */
+  @Override
+  public double scoreOf(Matches result) {
     double[] satisfactions = this.preferenceLists.getMatchesSatisfactions(result, matchingData);
     double fitnessScore;
     if (this.hasFitnessFunc()) {
@@ -132,8 +132,7 @@ public class TripletOTOProblem implements MatchingProblem {
     } else {
       fitnessScore = fitnessEvaluator.defaultFitnessEvaluation(satisfactions);
     }
-    solution.setAttribute(StableMatchingConst.MATCHES_KEY, result);
-    solution.setObjective(0, -fitnessScore);
+    return -fitnessScore;
   }
 
 
@@ -190,7 +189,7 @@ public class TripletOTOProblem implements MatchingProblem {
       // integrate through each of opposite sets
       for (int targetSet : otherSets) {
         int preferNodeOfTargetSet = matchWithTargetSet(newNode, targetSet, nodePreference, matches,
-                unMatchedNode);
+                unMatchedNode, matchedGroup);
 
         // add to leftover if current individual unavailable to match with any preferNode
         if (preferNodeOfTargetSet == -1) {
@@ -226,22 +225,26 @@ public class TripletOTOProblem implements MatchingProblem {
   private int matchWithTargetSet(int newNode, int targetSet,
                                  TripletPreferenceList nodePreferences,
                                  Matches matches,
-                                 Queue<Integer> unmatchedNodes) {
+                                 Queue<Integer> unmatchedNodes,
+                                 List<Integer> matchedGroup) {
     // -1 is not find yet
     int result = -1;
 
-    int sizeOfTargetSet = matchingData.getSetNums().get(targetSet);
+    int sizeOfTargetSet = matchingData.getTotalIndividualOfSet(targetSet);
 
     int currentNewNodeSet = matchingData.getSetNoOf(newNode);
-    int padding = calculatePadding(targetSet, currentNewNodeSet);
     int calPosition = calculatePosition(targetSet, currentNewNodeSet);
-    nodePreferences.setPadding(padding);
 
     // integrate through preferList and find the preferNode
     for (int i = 0; i < sizeOfTargetSet; i++) {
 
       int preferNode = nodePreferences.getPositionByRank(UNUSED_VAL, calPosition + i);
 
+      // skip nodes excluded with any member of the group being formed
+      if (matchingData.getExclusions().isExcluded(matchedGroup, preferNode)) {
+        continue;
+      }
+
       if (!matches.isFull(preferNode, matchingData.getCapacityOf(preferNode))) {
         //stop if successfully matched with preferNode
         result = preferNode;
@@ -296,44 +299,16 @@ public class TripletOTOProblem implements MatchingProblem {
             .toArray();
   }
 
-  /**
-   * calculate the padding for a set that stored in preferList of a  newNode.
-
-   * @param targetSet         is the number of set that calculate padding to get
-   * @param currentNewNodeSet is the current set can get with the current padding
-   */
-  private int calculatePadding(int targetSet, int currentNewNodeSet) {
-    Map<Integer, Integer> setNums = matchingData.getSetNums();
-    if (currentNewNodeSet == setNum - 1) {
-      return 0;
-    }
-    if (currentNewNodeSet == 0) {
-      return setNums.get(currentNewNodeSet);
-    }
-
-    // if smaller than newNode set, return 0 to get all name of previous set before current's
-    if (targetSet < currentNewNodeSet) {
-      return 0;
-    }
-
-    int paddingSize = 0;
-    paddingSize += setNums.get(targetSet);
-    return paddingSize;
-  }
-
-
   /**
    * calculate the position of the preferNode in the preferList of a newNode.
    */
   private int calculatePosition(int targetSet, int currentNewNodeSet) {
-    Map<Integer, Integer> setNums = matchingData.getSetNums();
-
     // if smaller than newNode set, return 0 to get all name of previous set before current's
     int paddingSize = 0;
 
     for (int i = 0; i < targetSet; i++) {
       if (i != currentNewNodeSet) {
-        paddingSize += setNums.get(i);
+        paddingSize += matchingData.getTotalIndividualOfSet(i);
       }
     }
 
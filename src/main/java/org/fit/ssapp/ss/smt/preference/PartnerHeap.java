@@ -0,0 +1,194 @@
+package org.fit.ssapp.ss.smt.preference;
+
+import java.util.Arrays;
+
+/**
+ * Current partners of every node kept in one binary heap per node, ordered by the node's own
+ * preference so the least preferred partner sits on top. Heaps share one flat array with a
+ * region per node sized by its capacity, the partner's rank is stored next to it so
+ * comparisons do not go back to the preference list.
+ * Order: higher rank (less preferred) first, on equal rank the lower index first, which is the
+ * partner {@link PreferenceList#getLeastNode(int, int, java.util.Set)} would pick.
+ */
+public class PartnerHeap {
+
+  private final int[] offsets;
+  private final int[] slots;
+  private final int[] sizes;
+  private final int[] nodes;
+  private final int[] ranks;
+
+  /**
+   * PartnerHeap.
+   *
+   * @param capacities capacity of each node, at least one slot is reserved per node
+   */
+  public PartnerHeap(int[] capacities) {
+    int size = capacities.length;
+    this.offsets = new int[size];
+    this.slots = new int[size];
+    this.sizes = new int[size];
+    int total = 0;
+    for (int i = 0; i < size; i++) {
+      int capacity = Math.max(capacities[i], 1);
+      offsets[i] = total;
+      slots[i] = capacity;
+      total += capacity;
+    }
+    this.nodes = new int[total];
+    this.ranks = new int[total];
+  }
+
+  /**
+   * remove all partners of all nodes.
+   */
+  public void clear() {
+    Arrays.fill(sizes, 0);
+  }
+
+  /**
+   * number of partners of owner.
+   *
+   * @param owner node
+   * @return int
+   */
+  public int size(int owner) {
+    return sizes[owner];
+  }
+
+  public boolean isEmpty(int owner) {
+    return sizes[owner] == 0;
+  }
+
+  /**
+   * least preferred partner of owner, only valid when owner has partners.
+   *
+   * @param owner node
+   * @return partner
+   */
+  public int peek(int owner) {
+    return nodes[offsets[owner]];
+  }
+
+  /**
+   * rank (in owner's preference list) of the least preferred partner.
+   *
+   * @param owner node
+   * @return rank
+   */
+  public int peekRank(int owner) {
+    return ranks[offsets[owner]];
+  }
+
+  /**
+   * add a partner, O(log capacity).
+   *
+   * @param owner   node
+   * @param partner new partner
+   * @param rank    rank of partner in owner's preference list
+   */
+  public void add(int owner, int partner, int rank) {
+    if (sizes[owner] == slots[owner]) {
+      throw new IllegalStateException("Node " + owner + " has no free partner slot");
+    }
+    int base = offsets[owner];
+    int i = sizes[owner]++;
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (!isWorse(partner, rank, nodes[base + parent], ranks[base + parent])) {
+        break;
+      }
+      nodes[base + i] = nodes[base + parent];
+      ranks[base + i] = ranks[base + parent];
+      i = parent;
+    }
+    nodes[base + i] = partner;
+    ranks[base + i] = rank;
+  }
+
+  /**
+   * replace the least preferred partner by another one, O(log capacity).
+   *
+   * @param owner   node
+   * @param partner new partner
+   * @param rank    rank of partner in owner's preference list
+   * @return the partner that was replaced
+   */
+  public int replaceTop(int owner, int partner, int rank) {
+    int top = peek(owner);
+    siftDown(owner, 0, partner, rank);
+    return top;
+  }
+
+  /**
+   * remove a given partner, O(capacity) to locate it then O(log capacity).
+   *
+   * @param owner   node
+   * @param partner partner to remove
+   */
+  public void remove(int owner, int partner) {
+    int base = offsets[owner];
+    int size = sizes[owner];
+    int i = 0;
+    while (i < size && nodes[base + i] != partner) {
+      i++;
+    }
+    if (i == size) {
+      return;
+    }
+    int last = base + size - 1;
+    sizes[owner] = size - 1;
+    if (base + i == last) {
+      return;
+    }
+    int movedNode = nodes[last];
+    int movedRank = ranks[last];
+    int parent = (i - 1) >>> 1;
+    if (i > 0 && isWorse(movedNode, movedRank, nodes[base + parent], ranks[base + parent])) {
+      // moved entry goes up, the slot of the removed one is free
+      while (i > 0) {
+        parent = (i - 1) >>> 1;
+        if (!isWorse(movedNode, movedRank, nodes[base + parent], ranks[base + parent])) {
+          break;
+        }
+        nodes[base + i] = nodes[base + parent];
+        ranks[base + i] = ranks[base + parent];
+        i = parent;
+      }
+      nodes[base + i] = movedNode;
+      ranks[base + i] = movedRank;
+    } else {
+      siftDown(owner, i, movedNode, movedRank);
+    }
+  }
+
+  private void siftDown(int owner, int from, int node, int rank) {
+    int base = offsets[owner];
+    int size = sizes[owner];
+    int i = from;
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= size) {
+        break;
+      }
+      int right = child + 1;
+      if (right < size
+          && isWorse(nodes[base + right], ranks[base + right], nodes[base + child],
+          ranks[base + child])) {
+        child = right;
+      }
+      if (!isWorse(nodes[base + child], ranks[base + child], node, rank)) {
+        break;
+      }
+      nodes[base + i] = nodes[base + child];
+      ranks[base + i] = ranks[base + child];
+      i = child;
+    }
+    nodes[base + i] = node;
+    ranks[base + i] = rank;
+  }
+
+  private static boolean isWorse(int node, int rank, int other, int otherRank) {
+    return rank > otherRank || (rank == otherRank && node < other);
+  }
+}
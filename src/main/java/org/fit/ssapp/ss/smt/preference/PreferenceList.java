@@ -65,6 +65,16 @@ public interface PreferenceList {
    */
   int getPositionByRank(int set, int rank);
 
+  /**
+   * rank of given individual in this preference list, individuals with equal scores share the
+   * rank, so comparing ranks gives the same answer as comparing scores.
+   *
+   * @param set      set no
+   * @param position individual index
+   * @return number of individuals scored strictly higher
+   */
+  int getRankOf(int set, int position);
+
   /**
    * get position with the lowest rank in a specific set of this preference list.
    *
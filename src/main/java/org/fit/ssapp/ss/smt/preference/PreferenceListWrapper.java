@@ -9,14 +9,22 @@ import org.fit.ssapp.ss.smt.MatchingData;
 
 /**
  * Wrapper class provides methods to interact with big list of preference list.
+ * Backed either by one {@link PreferenceList} per individual or by a {@link PreferenceMatrix}; the
+ * per-owner lookups ({@link #sizeOf}, {@link #getPositionByRank(int, int)}, {@link #getRankOf},
+ * {@link #getScore}) read the matrix directly, without going through list objects.
  */
 public class PreferenceListWrapper {
 
   /**
-   * preference lists.
+   * preference lists, {@code null} if backed by a matrix.
    */
   private final List<PreferenceList> lists;
 
+  /**
+   * preference matrix, {@code null} if backed by lists.
+   */
+  private final PreferenceMatrix matrix;
+
 
   /**
    * PreferenceListWrapper.
@@ -26,6 +34,26 @@ public class PreferenceListWrapper {
    */
   public PreferenceListWrapper(List<PreferenceList> lists) {
     this.lists = lists;
+    this.matrix = null;
+  }
+
+  /**
+   * PreferenceListWrapper over a preference matrix.
+   *
+   * @param matrix PreferenceMatrix
+   */
+  public PreferenceListWrapper(PreferenceMatrix matrix) {
+    this.lists = null;
+    this.matrix = matrix;
+  }
+
+  /**
+   * preference matrix backing this wrapper.
+   *
+   * @return PreferenceMatrix, {@code null} if backed by lists
+   */
+  public PreferenceMatrix getMatrix() {
+    return matrix;
   }
 
   /**
@@ -48,7 +76,7 @@ public class PreferenceListWrapper {
       return -1;
     }
 
-    PreferenceList prefOfSelectorNode = this.lists.get(preferNode);
+    PreferenceList prefOfSelectorNode = get(preferNode);
     // Lớp có một thằng
     if (Objects.equals(preferNodeCapacity, 1)) {
       int currentNode = setOfPreferNode.iterator().next();
@@ -62,6 +90,24 @@ public class PreferenceListWrapper {
     }
   }
 
+  /**
+   * Get the node preferNode likes the least among its current matches and proposeNode, ties are
+   * resolved the same way as {@link PreferenceList#getLeastNode(int, int, Set)}. O(1), the
+   * current matches of preferNode are read from the top of its partner heap.
+   *
+   * @param preferNode  the evaluator (the one grading)
+   * @param proposeNode the new student
+   * @param partners    current members of every node, ordered by that node's preference
+   * @return the weakest student
+   */
+  public int getLeastScoreNode(int preferNode, int proposeNode, PartnerHeap partners) {
+    if (partners.isEmpty(preferNode)) {
+      return proposeNode;
+    }
+    int proposeRank = getRankOf(preferNode, proposeNode);
+    return proposeRank < partners.peekRank(preferNode) ? partners.peek(preferNode) : proposeNode;
+  }
+
   /**
    * get preference list.
    *
@@ -69,7 +115,56 @@ public class PreferenceListWrapper {
    * @return Preference list
    */
   public PreferenceList get(int idx) {
-    return lists.get(idx);
+    return matrix != null ? matrix.row(idx) : lists.get(idx);
+  }
+
+  /**
+   * number of individuals in the preference list of owner.
+   *
+   * @param owner position of individual
+   * @return size
+   */
+  public int sizeOf(int owner) {
+    return matrix != null
+        ? matrix.sizeOf(owner)
+        : lists.get(owner).size(StableMatchingConst.UNUSED_VALUE);
+  }
+
+  /**
+   * individual at a rank in the preference list of owner.
+   *
+   * @param owner position of individual
+   * @param rank  rank, best first
+   * @return individual
+   */
+  public int getPositionByRank(int owner, int rank) {
+    return matrix != null
+        ? matrix.getPositionByRank(owner, rank)
+        : lists.get(owner).getPositionByRank(StableMatchingConst.UNUSED_VALUE, rank);
+  }
+
+  /**
+   * rank of node in the preference list of owner.
+   *
+   * @param owner position of individual
+   * @param node  ranked individual
+   * @return rank
+   */
+  public int getRankOf(int owner, int node) {
+    return matrix != null
+        ? matrix.getRankOf(owner, node)
+        : lists.get(owner).getRankOf(StableMatchingConst.UNUSED_VALUE, node);
+  }
+
+  /**
+   * score given by owner to node.
+   *
+   * @param owner position of individual
+   * @param node  scored individual
+   * @return score
+   */
+  public double getScore(int owner, int node) {
+    return matrix != null ? matrix.getScore(owner, node) : lists.get(owner).getScore(node);
   }
 
   /**
@@ -81,6 +176,9 @@ public class PreferenceListWrapper {
    * @return boolean
    */
   public boolean isPreferredOver(int proposeNode, int preferNodeCurrentNode, int preferNode) {
+    if (matrix != null) {
+      return matrix.isScoreGreater(preferNode, proposeNode, preferNodeCurrentNode);
+    }
     PreferenceList preferenceOfSelectorNode = lists.get(preferNode);
     return preferenceOfSelectorNode.isScoreGreater(StableMatchingConst.UNUSED_VALUE,
             proposeNode,
@@ -88,22 +186,25 @@ public class PreferenceListWrapper {
   }
 
   /**
-   * Get the grade point of class, get all satisfaction based on matches.
+   * Get the grade point of class, get all satisfaction based on matches. Satisfactions already
+   * accumulated by the matching algorithm are returned as they are.
    *
    * @param matches      matching result
    * @param matchingData MatchingData
    * @return satisfactions
    */
   public double[] getMatchesSatisfactions(Matches matches, MatchingData matchingData) {
+    if (matches.getSatisfactions() != null) {
+      return matches.getSatisfactions();
+    }
     int problemSize = matchingData.getSize();
     double[] satisfactions = new double[problemSize];
 
     for (int i = 0; i < problemSize; i++) {
       double setScore = 0.0;
-      PreferenceList ofInd = lists.get(i);
-      Set<Integer> setMatches = matches.getSetOf(i);
-      for (int node : setMatches) {
-        setScore += ofInd.getScore(node);
+      for (int node = matches.nextPartner(i, 0); node >= 0;
+          node = matches.nextPartner(i, node + 1)) {
+        setScore += getScore(i, node);
       }
       satisfactions[i] = setScore;
     }
@@ -118,7 +219,7 @@ public class PreferenceListWrapper {
    * @return last option
    */
   public int getLastChoiceOf(int set, int target) {
-    PreferenceList pref = lists.get(target);
+    PreferenceList pref = get(target);
     return pref.getPositionByRank(set, pref.size(set) - 1);
   }
 
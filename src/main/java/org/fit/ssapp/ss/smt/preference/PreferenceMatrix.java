@@ -0,0 +1,270 @@
+package org.fit.ssapp.ss.smt.preference;
+
+import java.util.Set;
+
+/**
+ * Preference lists of every individual stored as contiguous primitive rows instead of one object
+ * per individual. Row {@code owner} spans {@code [rowOffsets[owner], rowOffsets[owner + 1])} of:
+ * <ul>
+ *   <li>scores - score given by owner to the individual in each slot</li>
+ *   <li>ranks - rank of the individual in each slot, equal scores share their best rank</li>
+ *   <li>positions - slot of the individual at each rank, best first</li>
+ * </ul>
+ * A row lists the individuals of every set but the owner's own, in ascending order, so slot and
+ * individual only differ by the size of the owner's set once past its first individual. Score,
+ * rank and position lookups are all O(1). Ranks and positions are kept as 16-bit {@code char}s
+ * when every row fits, scores as set by {@link ScorePrecision}.
+ * Rows are filled once, from several threads if needed (each row by one thread), then only read.
+ */
+public final class PreferenceMatrix {
+
+  private final int size;
+  private final int numberOfOtherSets;
+  private final int[] rowOffsets;
+  private final int[] gapStarts;
+  private final int[] gapSizes;
+  private final ScorePrecision precision;
+  private final double[] doubleScores;
+  private final float[] floatScores;
+  private final int[] ranks;
+  private final int[] positions;
+  private final char[] compactRanks;
+  private final char[] compactPositions;
+
+  /**
+   * PreferenceMatrix with empty rows.
+   *
+   * @param setOfIndividual   set no of each individual, individuals grouped by ascending set no
+   * @param setOffsets        first individual of each set
+   * @param setSizes          number of individuals of each set
+   * @param precision         score storage
+   * @throws IllegalArgumentException if {@link ScorePrecision#RANK16} is asked for rows longer
+   *                                  than 16-bit ranks allow
+   */
+  public PreferenceMatrix(int[] setOfIndividual,
+                          int[] setOffsets,
+                          int[] setSizes,
+                          ScorePrecision precision) {
+    this.size = setOfIndividual.length;
+    int nonEmptySets = 0;
+    for (int setSize : setSizes) {
+      if (setSize > 0) {
+        nonEmptySets++;
+      }
+    }
+    this.numberOfOtherSets = Math.max(nonEmptySets - 1, 0);
+    this.rowOffsets = new int[size + 1];
+    this.gapStarts = new int[size];
+    this.gapSizes = new int[size];
+    int longestRow = 0;
+    for (int i = 0; i < size; i++) {
+      int set = setOfIndividual[i];
+      gapStarts[i] = setOffsets[set];
+      gapSizes[i] = setSizes[set];
+      rowOffsets[i + 1] = rowOffsets[i] + size - setSizes[set];
+      longestRow = Math.max(longestRow, size - setSizes[set]);
+    }
+    boolean compact = longestRow <= Character.MAX_VALUE + 1;
+    if (precision == ScorePrecision.RANK16 && !compact) {
+      throw new IllegalArgumentException(
+          "RANK16 preferences hold at most 65536 individuals per list, found " + longestRow);
+    }
+    int cells = rowOffsets[size];
+    this.precision = precision;
+    this.doubleScores = precision == ScorePrecision.DOUBLE ? new double[cells] : null;
+    this.floatScores = precision == ScorePrecision.FLOAT ? new float[cells] : null;
+    this.ranks = compact ? null : new int[cells];
+    this.positions = compact ? null : new int[cells];
+    this.compactRanks = compact ? new char[cells] : null;
+    this.compactPositions = compact ? new char[cells] : null;
+  }
+
+  /**
+   * Fill the row of an individual from its sorted preference list.
+   *
+   * @param owner     individual
+   * @param scores    score of each slot
+   * @param positions slot of each rank, best first
+   * @param ranks     rank of each slot
+   * @throws IllegalArgumentException if the list does not have one entry per slot of the row
+   */
+  public void setRow(int owner, double[] scores, int[] positions, int[] ranks) {
+    int offset = rowOffsets[owner];
+    int length = rowOffsets[owner + 1] - offset;
+    if (scores.length != length || positions.length != length || ranks.length != length) {
+      throw new IllegalArgumentException("Row " + owner + " holds " + length + " individuals");
+    }
+    for (int slot = 0; slot < length; slot++) {
+      if (doubleScores != null) {
+        doubleScores[offset + slot] = scores[slot];
+      } else if (floatScores != null) {
+        floatScores[offset + slot] = (float) scores[slot];
+      }
+      if (compactRanks != null) {
+        compactRanks[offset + slot] = (char) ranks[slot];
+        compactPositions[offset + slot] = (char) positions[slot];
+      }
+    }
+    if (compactRanks == null) {
+      System.arraycopy(positions, 0, this.positions, offset, length);
+      System.arraycopy(ranks, 0, this.ranks, offset, length);
+    }
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public ScorePrecision getPrecision() {
+    return precision;
+  }
+
+  /**
+   * number of individuals in the preference list of owner.
+   *
+   * @param owner individual
+   * @return list size
+   */
+  public int sizeOf(int owner) {
+    return rowOffsets[owner + 1] - rowOffsets[owner];
+  }
+
+  /**
+   * individual at a rank in the preference list of owner.
+   *
+   * @param owner individual
+   * @param rank  rank, best first
+   * @return individual
+   */
+  public int getPositionByRank(int owner, int rank) {
+    int cell = rowOffsets[owner] + rank;
+    return nodeOf(owner, compactPositions != null ? compactPositions[cell] : positions[cell]);
+  }
+
+  /**
+   * rank of an individual in the preference list of owner.
+   *
+   * @param owner individual
+   * @param node  individual of another set
+   * @return number of individuals scored strictly higher
+   */
+  public int getRankOf(int owner, int node) {
+    return rankAt(rowOffsets[owner] + slotOf(owner, node));
+  }
+
+  /**
+   * score given by owner to an individual.
+   *
+   * @param owner individual
+   * @param node  individual of another set
+   * @return score, list size minus rank for {@link ScorePrecision#RANK16}
+   */
+  public double getScore(int owner, int node) {
+    int cell = rowOffsets[owner] + slotOf(owner, node);
+    if (doubleScores != null) {
+      return doubleScores[cell];
+    }
+    if (floatScores != null) {
+      return floatScores[cell];
+    }
+    return sizeOf(owner) - rankAt(cell);
+  }
+
+  /**
+   * whether owner scores node higher than nodeToCompare.
+   *
+   * @param owner         individual
+   * @param node          individual of another set
+   * @param nodeToCompare individual of another set
+   * @return true if strictly higher
+   */
+  public boolean isScoreGreater(int owner, int node, int nodeToCompare) {
+    return getScore(owner, node) > getScore(owner, nodeToCompare);
+  }
+
+  /**
+   * {@link PreferenceList} view over the row of an individual.
+   *
+   * @param owner individual
+   * @return PreferenceList
+   */
+  public PreferenceList row(int owner) {
+    return new Row(owner);
+  }
+
+  private int rankAt(int cell) {
+    return compactRanks != null ? compactRanks[cell] : ranks[cell];
+  }
+
+  private int slotOf(int owner, int node) {
+    return node >= gapStarts[owner] ? node - gapSizes[owner] : node;
+  }
+
+  private int nodeOf(int owner, int slot) {
+    return slot >= gapStarts[owner] ? slot + gapSizes[owner] : slot;
+  }
+
+  /**
+   * Row view, set parameters are ignored as in the two set preference lists.
+   */
+  private final class Row implements PreferenceList {
+
+    private final int owner;
+
+    private Row(int owner) {
+      this.owner = owner;
+    }
+
+    @Override
+    public int size(int set) {
+      return sizeOf(owner);
+    }
+
+    @Override
+    public int getNumberOfOtherSets() {
+      return numberOfOtherSets;
+    }
+
+    @Override
+    public int getLeastNode(int set, int newNode, Set<Integer> currentNodes) {
+      int leastNode = newNode;
+      for (int currentNode : currentNodes) {
+        if (PreferenceMatrix.this.getScore(owner, leastNode)
+            > PreferenceMatrix.this.getScore(owner, currentNode)) {
+          leastNode = currentNode;
+        }
+      }
+      return leastNode;
+    }
+
+    @Override
+    public int getLeastNode(int set, int newNode, int oldNode) {
+      return isScoreGreater(set, newNode, oldNode) ? oldNode : newNode;
+    }
+
+    @Override
+    public int getPositionByRank(int set, int rank) {
+      return PreferenceMatrix.this.getPositionByRank(owner, rank);
+    }
+
+    @Override
+    public int getRankOf(int set, int position) {
+      return PreferenceMatrix.this.getRankOf(owner, position);
+    }
+
+    @Override
+    public int getLastOption(int set) {
+      return getPositionByRank(set, sizeOf(owner) - 1);
+    }
+
+    @Override
+    public boolean isScoreGreater(int set, int proposeNode, int preferNodeCurrentNode) {
+      return PreferenceMatrix.this.isScoreGreater(owner, proposeNode, preferNodeCurrentNode);
+    }
+
+    @Override
+    public double getScore(int position) {
+      return PreferenceMatrix.this.getScore(owner, position);
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package org.fit.ssapp.ss.smt.preference;
+
+/**
+ * Storage of preference scores in a {@link PreferenceMatrix}, from exact to compact. Ranks and
+ * positions take 2 bytes each per preference when no list is longer than 65,536 individuals,
+ * 4 bytes each otherwise.
+ *
+ * <ul>
+ *   <li>{@link #DOUBLE} - scores kept as computed, 8 bytes each</li>
+ *   <li>{@link #FLOAT} - scores rounded to float, 4 bytes each, about 7 significant digits.
+ *   Ranks still follow the exact scores, satisfactions and fitness use the rounded ones</li>
+ *   <li>{@link #RANK16} - no scores, only 16-bit ranks: the score of an individual becomes the
+ *   number of individuals it ranks at or above (list size minus rank). Matching is unchanged,
+ *   satisfactions and fitness measure ordering only, so this is meant for the default fitness
+ *   function. Lists are limited to 65,536 individuals</li>
+ * </ul>
+ * A 20,000 x 20,000 two-set problem holds 400M preferences: about 4.8 GB as {@link #DOUBLE},
+ * 3.2 GB as {@link #FLOAT} and 1.6 GB as {@link #RANK16}.
+ */
+public enum ScorePrecision {
+  DOUBLE, FLOAT, RANK16
+}
@@ -8,6 +8,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.fit.ssapp.ss.smt.preference.PreferenceList;
 /**
  * TripletPreferenceList - Manages preference rankings for triplet-based stable matching.
+ * The list holds the individuals of the two other sets in ascending order, so a slot and an
+ * individual only differ by the size of the owner's own set once past its first individual. The
+ * mapping is fixed at construction, lists are shared by evaluations running in parallel.
  */
 @Slf4j
 @Data
@@ -20,19 +23,22 @@ public class TripletPreferenceList implements PreferenceList {
   // The positions correspond to the IDs of the individuals (either providers or consumers).
   final int[] positions;
   int current; // Tracks the current index in the list.
-  int padding; // Used for index adjustments.
+  final int gapStart; // First individual of the owner's set.
+  final int gapSize; // Number of individuals of the owner's set.
 
   /**
-   * Constructs a **TripletPreferenceList** with a given size and padding.
+   * Constructs a **TripletPreferenceList** with a given size, skipping the owner's set.
    *
-   * @param size    The total number of elements in the preference list.
-   * @param padding The index offset applied for position adjustments.
+   * @param size     The total number of elements in the preference list.
+   * @param gapStart The first individual of the owner's set.
+   * @param gapSize  The number of individuals of the owner's set.
    */
-  public TripletPreferenceList(int size, int padding) {
+  public TripletPreferenceList(int size, int gapStart, int gapSize) {
     scores = new double[size];
     positions = new int[size];
     current = 0;
-    this.padding = padding;
+    this.gapStart = gapStart;
+    this.gapSize = gapSize;
   }
 
   @Override
@@ -47,13 +53,13 @@ public class TripletPreferenceList implements PreferenceList {
 
   @Override
   public int getLeastNode(int set, int newNode, Set<Integer> currentNodes) {
-    int leastNode = newNode - this.padding;
+    int leastNode = newNode;
     for (int currentNode : currentNodes) {
-      if (this.scores[leastNode] > this.scores[currentNode - this.padding]) {
-        leastNode = currentNode - this.padding;
+      if (this.scores[slotOf(leastNode)] > this.scores[slotOf(currentNode)]) {
+        leastNode = currentNode;
       }
     }
-    return leastNode + this.padding;
+    return leastNode;
   }
 
   @Override
@@ -68,13 +74,25 @@ public class TripletPreferenceList implements PreferenceList {
   @Override
   public int getPositionByRank(int set, int rank) throws ArrayIndexOutOfBoundsException {
     try {
-      return positions[rank] + this.padding;
+      return nodeOf(positions[rank]);
     } catch (ArrayIndexOutOfBoundsException e) {
       log.error("Position {} not found:", rank, e);
       return -1;
     }
   }
 
+  @Override
+  public int getRankOf(int set, int position) {
+    double score = getScore(position);
+    int rank = 0;
+    for (double other : scores) {
+      if (other > score) {
+        rank++;
+      }
+    }
+    return rank;
+  }
+
   @Override
   public int getLastOption(int set) {
     return 0;
@@ -96,13 +114,21 @@ public class TripletPreferenceList implements PreferenceList {
 
   @Override
   public boolean isScoreGreater(int set, int node, int nodeToCompare) {
-    return this.scores[node - this.padding] > this.scores[nodeToCompare - this.padding];
+    return this.scores[slotOf(node)] > this.scores[slotOf(nodeToCompare)];
+  }
+
+  private int slotOf(int node) {
+    return node >= gapStart ? node - gapSize : node;
+  }
+
+  private int nodeOf(int slot) {
+    return slot >= gapStart ? slot + gapSize : slot;
   }
 
   @Override
   public double getScore(int position) {  // preferNode :
     try {
-      return scores[position - this.padding];
+      return scores[slotOf(position)];
     } catch (ArrayIndexOutOfBoundsException e) {
       log.error("Position {} not found:", position, e);
       return 0;
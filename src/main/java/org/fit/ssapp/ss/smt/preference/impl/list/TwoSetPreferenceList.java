@@ -17,6 +17,7 @@ public class TwoSetPreferenceList implements PreferenceList {
 
   private final double[] scores;
   private final int[] positions;
+  private final int[] ranks;
   private int current;
   private final int padding;
 
@@ -29,6 +30,7 @@ public class TwoSetPreferenceList implements PreferenceList {
   public TwoSetPreferenceList(int size, int padding) {
     scores = new double[size];
     positions = new int[size];
+    ranks = new int[size];
     current = 0;
     this.padding = padding;
   }
@@ -113,6 +115,17 @@ public class TwoSetPreferenceList implements PreferenceList {
     }
   }
 
+  /**
+   * Rank of a competitor, valid only after sortByValueDescending is invoked.
+   *
+   * @param position unique identifier of the competitor instance
+   * @return rank of the competitor, competitors with equal scores share the best of their ranks
+   */
+  @Override
+  public int getRankOf(int set, int position) {
+    return ranks[position - this.padding];
+  }
+
   /**
    * getLastOption.
    *
@@ -157,6 +170,12 @@ public class TwoSetPreferenceList implements PreferenceList {
       // Call min heapify on the reduced heap
       heapify(cloneScores, i, 0);
     }
+
+    // cloneScores is now descending, equal scores are adjacent
+    for (int i = 0; i < size; i++) {
+      boolean tie = i > 0 && cloneScores[i] == cloneScores[i - 1];
+      ranks[positions[i]] = tie ? ranks[positions[i - 1]] : i;
+    }
   }
 
   void heapify(double[] array, int heapSize, int rootIndex) {
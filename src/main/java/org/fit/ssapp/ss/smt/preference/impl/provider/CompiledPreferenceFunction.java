@@ -0,0 +1,107 @@
+package org.fit.ssapp.ss.smt.preference.impl.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.fit.ssapp.ss.smt.MatchingData;
+import org.fit.ssapp.util.CompiledExpression;
+import org.fit.ssapp.util.PreferenceProviderUtils;
+
+/**
+ * An evaluation function of a set parsed once. Its variables are resolved to slot descriptors:
+ * <ul>
+ *   <li>{@code P<i>}: property i (1-based) of the evaluated individual</li>
+ *   <li>{@code W<i>}: weight of property i of the evaluator</li>
+ *   <li>{@code R<i>}: requirement value of property i of the evaluator</li>
+ * </ul>
+ * Evaluating reads straight from {@link MatchingData} into a {@code double[]} of slots, evaluator
+ * slots are bound once per evaluator and only the property slots change per candidate.
+ * Instances are stateless and can be shared by every thread building preference lists.
+ */
+public final class CompiledPreferenceFunction {
+
+  private static final int KIND_PROPERTY = 0;
+  private static final int KIND_WEIGHT = 1;
+  private static final int KIND_REQUIREMENT = 2;
+
+  private final MatchingData matchingData;
+  private final CompiledExpression expression;
+  private final int[] slotKinds;
+  private final int[] slotProperties;
+
+  private CompiledPreferenceFunction(String function, MatchingData matchingData) {
+    this.matchingData = matchingData;
+    Map<String, Set<Integer>> variables = PreferenceProviderUtils.filterVariable(function);
+    List<String> slotNames = new ArrayList<>();
+    List<Integer> kinds = new ArrayList<>();
+    List<Integer> properties = new ArrayList<>();
+    for (Map.Entry<String, Set<Integer>> entry : variables.entrySet()) {
+      int kind = switch (entry.getKey()) {
+        case "P" -> KIND_PROPERTY;
+        case "W" -> KIND_WEIGHT;
+        default -> KIND_REQUIREMENT;
+      };
+      for (int property : entry.getValue()) {
+        slotNames.add(entry.getKey() + property);
+        kinds.add(kind);
+        properties.add(property - 1);
+      }
+    }
+    this.slotKinds = kinds.stream().mapToInt(Integer::intValue).toArray();
+    this.slotProperties = properties.stream().mapToInt(Integer::intValue).toArray();
+    this.expression = CompiledExpression.compile(function, slotNames);
+  }
+
+  /**
+   * parse an evaluation function.
+   *
+   * @param function     evaluation function
+   * @param matchingData matching data the variables read from
+   * @return compiled function
+   * @throws IllegalArgumentException if the function is malformed
+   */
+  public static CompiledPreferenceFunction compile(String function, MatchingData matchingData) {
+    return new CompiledPreferenceFunction(function, matchingData);
+  }
+
+  /**
+   * new slot array with the variables of an evaluator bound.
+   *
+   * @param evaluator evaluating individual
+   * @return slots, to be passed to {@link #evaluate(double[], int)}
+   */
+  public double[] bindEvaluator(int evaluator) {
+    double[] slots = new double[slotKinds.length];
+    for (int slot = 0; slot < slots.length; slot++) {
+      int property = slotProperties[slot];
+      if (slotKinds[slot] == KIND_WEIGHT) {
+        slots[slot] = matchingData.getPropertyWeightOf(evaluator, property);
+      } else if (slotKinds[slot] == KIND_REQUIREMENT) {
+        slots[slot] = matchingData.getRequirementValueOf(evaluator, property);
+      }
+    }
+    return slots;
+  }
+
+  /**
+   * score given to a candidate.
+   *
+   * @param slots     slots of the evaluator, see {@link #bindEvaluator(int)}
+   * @param candidate evaluated individual
+   * @return score
+   */
+  public double evaluate(double[] slots, int candidate) {
+    for (int slot = 0; slot < slots.length; slot++) {
+      if (slotKinds[slot] == KIND_PROPERTY) {
+        slots[slot] = matchingData.getPropertyValueOf(candidate, slotProperties[slot]);
+      }
+    }
+    return expression.evaluate(slots);
+  }
+
+  @Override
+  public String toString() {
+    return expression.toString();
+  }
+}
@@ -0,0 +1,122 @@
+package org.fit.ssapp.ss.smt.preference.impl.provider;
+
+import org.fit.ssapp.constants.StableMatchingConst.ReqTypes;
+import org.fit.ssapp.ss.smt.MatchingData;
+import org.fit.ssapp.ss.smt.requirement.Requirement;
+import org.fit.ssapp.ss.smt.requirement.impl.OneBound;
+import org.fit.ssapp.ss.smt.requirement.impl.ScaleTarget;
+import org.fit.ssapp.ss.smt.requirement.impl.TwoBound;
+
+/**
+ * Default preference scores ({@code sum of weight * requirement scaling of property}) computed one
+ * property at a time over a contiguous range of candidates. Property values are copied once into
+ * one column per property, and the decoded requirement of the evaluator is read once per property,
+ * so each column is scored by a tight primitive loop specialised for the requirement type instead
+ * of a virtual {@link Requirement#getDefaultScaling(double)} call per cell.
+ * Scores are accumulated in property order, the results are identical to the per cell loop.
+ * Instances are immutable and can be shared by threads scoring different evaluators.
+ */
+final class DefaultScoreKernel {
+
+  private final MatchingData matchingData;
+
+  /**
+   * columns[property][individual] = property value.
+   */
+  private final double[][] columns;
+
+  /**
+   * DefaultScoreKernel.
+   *
+   * @param matchingData matching data
+   */
+  DefaultScoreKernel(MatchingData matchingData) {
+    this.matchingData = matchingData;
+    int size = matchingData.getSize();
+    int propertyNum = matchingData.getPropertyNum();
+    this.columns = new double[propertyNum][size];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < propertyNum; j++) {
+        columns[j][i] = matchingData.getPropertyValueOf(i, j);
+      }
+    }
+  }
+
+  /**
+   * default scores given by evaluator to the candidates {@code from} (inclusive) to {@code to}
+   * (exclusive).
+   *
+   * @param evaluator evaluating individual
+   * @param from      first candidate
+   * @param to        end of the candidate range
+   * @return scores, indexed from 0 for candidate {@code from}
+   */
+  double[] score(int evaluator, int from, int to) {
+    double[] scores = new double[to - from];
+    for (int j = 0; j < columns.length; j++) {
+      double weight = matchingData.getPropertyWeightOf(evaluator, j);
+      double bound1 = matchingData.getRequirementBound1Of(evaluator, j);
+      double bound2 = matchingData.getRequirementBound2Of(evaluator, j);
+      double[] column = columns[j];
+      switch (matchingData.getRequirementTypeOf(evaluator, j)) {
+        case ReqTypes.ONE_BOUND -> addOneBound(scores, column, from, bound1, bound2 != 0, weight);
+        case ReqTypes.TWO_BOUND -> addTwoBound(scores, column, from, bound1, bound2, weight);
+        default -> addScaleTarget(scores, column, from, (int) bound1, weight);
+      }
+    }
+    return scores;
+  }
+
+  /**
+   * same scaling as {@link OneBound#getDefaultScaling(double)}.
+   */
+  private static void addOneBound(double[] scores, double[] column, int from,
+                                  double bound, boolean increasing, double weight) {
+    for (int c = 0; c < scores.length; c++) {
+      double value = column[from + c];
+      double scaling;
+      if (increasing ? value < bound : value > bound) {
+        scaling = 0.0;
+      } else if (bound == 0) {
+        scaling = 2.0;
+      } else {
+        scaling = (bound + Math.abs(value - bound)) / bound;
+      }
+      scores[c] += scaling * weight;
+    }
+  }
+
+  /**
+   * same scaling as {@link TwoBound#getDefaultScaling(double)}.
+   */
+  private static void addTwoBound(double[] scores, double[] column, int from,
+                                  double lowerBound, double upperBound, double weight) {
+    double diff = Math.abs(upperBound - lowerBound) / 2;
+    double middle = (lowerBound + upperBound) / 2;
+    for (int c = 0; c < scores.length; c++) {
+      double value = column[from + c];
+      double scaling = value < lowerBound || value > upperBound || lowerBound == upperBound
+          ? 0.0
+          : (diff - Math.abs(middle - value)) / diff + 1;
+      scores[c] += scaling * weight;
+    }
+  }
+
+  /**
+   * same scaling as {@link ScaleTarget#getDefaultScaling(double)}.
+   */
+  private static void addScaleTarget(double[] scores, double[] column, int from,
+                                     int targetValue, double weight) {
+    for (int c = 0; c < scores.length; c++) {
+      double value = column[from + c];
+      double scaling;
+      if (value < 0 || value > 10) {
+        scaling = 0.0;
+      } else {
+        double distance = Math.abs(value - targetValue);
+        scaling = distance > 7 ? 0 : distance > 5 ? 1 : (10 - distance) / 10 + 1;
+      }
+      scores[c] += scaling * weight;
+    }
+  }
+}
@@ -1,19 +1,17 @@
 package org.fit.ssapp.ss.smt.preference.impl.provider;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 import lombok.Getter;
-import net.objecthunter.exp4j.Expression;
-import net.objecthunter.exp4j.ExpressionBuilder;
 import org.fit.ssapp.ss.smt.MatchingData;
 import org.fit.ssapp.ss.smt.preference.PreferenceBuilder;
 import org.fit.ssapp.ss.smt.preference.PreferenceList;
 import org.fit.ssapp.ss.smt.preference.PreferenceListWrapper;
 import org.fit.ssapp.ss.smt.preference.impl.list.TripletPreferenceList;
-import org.fit.ssapp.ss.smt.requirement.Requirement;
 import org.fit.ssapp.util.PreferenceProviderUtils;
 
 /**
@@ -27,8 +25,9 @@ public class TripletPreferenceProvider implements PreferenceBuilder {
   private final Map<Integer, Integer> setSizes;
 
   @Getter
-  private final Map<Integer, Expression> expressions;
+  private final Map<Integer, CompiledPreferenceFunction> expressions;
   private final Map<Integer, Map<String, Set<Integer>>> variables;
+  private final DefaultScoreKernel defaultScoreKernel;
 
   /**
    Constructs a **TripletPreferenceProvider** and initializes evaluation functions.
@@ -42,6 +41,7 @@ public class TripletPreferenceProvider implements PreferenceBuilder {
     this.expressions = new HashMap<>();
     this.variables = new HashMap<>();
     this.numberOfIndividuals = individuals.getSize();
+    this.defaultScoreKernel = new DefaultScoreKernel(individuals);
 
     // Xác định kích thước từng tập hợp từ dữ liệu
     for (int i = 0; i < numberOfIndividuals; i++) {
@@ -53,9 +53,8 @@ public class TripletPreferenceProvider implements PreferenceBuilder {
     for (int set = 0; set < evaluationFunctions.length; set++) {
       String evalFunction = evaluationFunctions[set];
       Map<String, Set<Integer>> vars = PreferenceProviderUtils.filterVariable(evalFunction);
-      Expression expr = new ExpressionBuilder(evalFunction)
-              .variables(PreferenceProviderUtils.convertMapToSet(vars))
-              .build();
+      CompiledPreferenceFunction expr = CompiledPreferenceFunction.compile(evalFunction,
+              individuals);
       variables.put(set, vars);
       expressions.put(set, expr);
     }
@@ -64,8 +63,8 @@ public class TripletPreferenceProvider implements PreferenceBuilder {
   @Override
   public PreferenceList getPreferenceListByFunction(int index) {
     int set = individuals.getSetNoOf(index);
-    TripletPreferenceList a = new TripletPreferenceList(0, 0);
-    Expression e;
+    TripletPreferenceList a = new TripletPreferenceList(0, 0, 0);
+    CompiledPreferenceFunction e;
     int size = 0;
     if (setSizes.containsKey(set)) {          // 1 2 3 4 5   6 7 8 9 10
       for (int setNumber : setSizes.keySet()) {
@@ -73,16 +72,12 @@ public class TripletPreferenceProvider implements PreferenceBuilder {
           size += setSizes.get(setNumber);
         }
       }
-      if (set == 0) {
-        a = new TripletPreferenceList(size,
-                setSizes.get(0));    // khởi tạo preferlist với size = 2 set còn lại + vào
-      } else {
-        a = new TripletPreferenceList(size, 0);
-      }
+      a = new TripletPreferenceList(size, individuals.getSetOffsetOf(set), setSizes.get(set));
       if (this.expressions.get(set) == null) {
         return this.getPreferenceListByDefault(index);
       }
       e = this.expressions.get(set);
+      double[] slots = e.bindEvaluator(index);
 
       // Xử lý từng set riêng biệt
       int tempIndex = 0;
@@ -100,8 +95,7 @@ public class TripletPreferenceProvider implements PreferenceBuilder {
           int currentIndex = 0;
           for (int i = 0; i < numberOfIndividuals; i++) {
             if (individuals.getSetNoOf(i) == otherSet) {
-              e.setVariables(this.getVariableValuesForSet(set, index, i));
-              tempScores[currentIndex] = e.evaluate();
+              tempScores[currentIndex] = e.evaluate(slots, i);
               tempPositions[currentIndex] = tempIndex;
               currentIndex++;
               tempIndex++;
@@ -175,75 +169,22 @@ public class TripletPreferenceProvider implements PreferenceBuilder {
     }
   }
 
-  /**
-   * Retrieves variable values for preference evaluation.
-   *
-   * @param set                The set index for the evaluator.
-   * @param indexOfEvaluator   The index of the evaluating individual.
-   * @param indexOfBeEvaluated The index of the individual being evaluated.
-   * @return A map containing the extracted variable values.
-   */
-  public Map<String, Double> getVariableValuesForSet(int set, int indexOfEvaluator,
-                                                     int indexOfBeEvaluated) {
-    return getVariableValues(this.variables.get(set), indexOfEvaluator, indexOfBeEvaluated);
-  }
-
-  private Map<String, Double> getVariableValues(Map<String, Set<Integer>> variables,
-                                                int idx1,
-                                                int idx2) {
-    Map<String, Double> variablesValues = new HashMap<>();
-    for (Map.Entry<String, Set<Integer>> entry : variables.entrySet()) {
-      String key = entry.getKey();
-      Set<Integer> values = entry.getValue();
-      switch (key) {
-        case "P":
-          for (Integer value : values) {
-            double val = individuals.getPropertyValueOf(idx2, value - 1);
-            variablesValues.put(key + value, val);
-          }
-          break;
-        case "W":
-          for (Integer value : values) {
-            double val = individuals.getPropertyWeightOf(idx1, value - 1);
-            variablesValues.put(key + value, val);
-          }
-          break;
-        case "R":
-          for (Integer value : values) {
-            double val = individuals
-                    .getRequirementOf(idx1, value - 1)
-                    .getValueForFunction();
-            variablesValues.put(key + value, val);
-          }
-          break;
-        default:
-          double val = 0d;
-          variablesValues.put(key, val);
-      }
-    }
-    return variablesValues;
-  }
-
   @Override
   public PreferenceList getPreferenceListByDefault(int index) {
     int set = individuals.getSetNoOf(index);
-    int numberOfProperties = individuals.getPropertyNum();
-    TripletPreferenceList a = new TripletPreferenceList(0, 0);
+    TripletPreferenceList a = new TripletPreferenceList(0, 0, 0);
     int size = 0;
 
     if (setSizes.containsKey(set)) {
       for (int setNumber : setSizes.keySet()) {
         if (setNumber != set) {
-          size += setSizes.get(set);
+          size += setSizes.get(setNumber);
         }
       }
-      if (set == 0) {
-        a = new TripletPreferenceList(size,
-                setSizes.get(0));    // khởi tạo preferlist với size = 2 set còn lại + vào
-      } else {
-        a = new TripletPreferenceList(size, 0);
-      }
+      a = new TripletPreferenceList(size, individuals.getSetOffsetOf(set), setSizes.get(set));
 
+      // one pass over the decoded requirements of the evaluator, own set included
+      double[] defaultScores = defaultScoreKernel.score(index, 0, numberOfIndividuals);
       int tempIndex = 0;
       for (int otherSet : setSizes.keySet()) {
         if (otherSet != set) {
@@ -254,14 +195,7 @@ public class TripletPreferenceProvider implements PreferenceBuilder {
           int currentIndex = 0;
           for (int i = 0; i < numberOfIndividuals; i++) {
             if (individuals.getSetNoOf(i) == otherSet) {
-              double totalScore = 0;
-              for (int j = 0; j < numberOfProperties; j++) {
-                double PropertyValue = individuals.getPropertyValueOf(i, j);
-                Requirement requirement = individuals.getRequirementOf(index, j);
-                double PropertyWeight = individuals.getPropertyWeightOf(index, j);
-                totalScore += requirement.getDefaultScaling(PropertyValue) * PropertyWeight;
-              }
-              tempScores[currentIndex] = totalScore;
+              tempScores[currentIndex] = defaultScores[i];
               tempPositions[currentIndex] = tempIndex;
               tempIndex++;
               currentIndex++;
@@ -279,12 +213,18 @@ public class TripletPreferenceProvider implements PreferenceBuilder {
   }
 
 
+  /**
+   * Preference lists of every individual, built in parallel on the common fork-join pool. The
+   * compiled functions are stateless, the lists keep individual order.
+   *
+   * @return PreferenceListWrapper
+   */
   @Override
   public PreferenceListWrapper toListWrapper() {
-    List<PreferenceList> lists = new ArrayList<>();
-    for (int i = 0; i < individuals.getSize(); i++) {
-      lists.add(this.getPreferenceListByFunction(i));
-    }
-    return new PreferenceListWrapper(lists);
+    PreferenceList[] lists = new PreferenceList[individuals.getSize()];
+    IntStream.range(0, lists.length)
+        .parallel()
+        .forEach(i -> lists[i] = this.getPreferenceListByFunction(i));
+    return new PreferenceListWrapper(new ArrayList<>(Arrays.asList(lists)));
   }
 }
@@ -35,6 +35,16 @@ public class RequirementDecoder {
             .toArray(Requirement[][]::new);
   }
 
+  /**
+   * Decode the string representation of one requirement.
+   *
+   * @param requirement string representation of a requirement
+   * @return Requirement
+   */
+  public static Requirement decode(String requirement) {
+    return toRequirement(decodeInputRequirement(requirement));
+  }
+
   private static Requirement toRequirement(String[] array) {
     try {
       if (Objects.equals(array[1], "++")) {
@@ -0,0 +1,26 @@
+package org.fit.ssapp.ss.smt.result;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Statistics of the evaluation cache of a solve.
+ * Hits (hits): Evaluations answered from the cache.
+ * Misses (misses): Evaluations computed, including hash collisions.
+ * Evictions (evictions): Entries dropped to keep the cache within its size.
+ * Hit rate (hitRate): Hits over all lookups.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EvaluationCacheStats {
+
+  private long hits;
+  private long misses;
+  private long evictions;
+  private double hitRate;
+
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.fit.ssapp.dto.response.ComputerSpecs;
 import org.fit.ssapp.ss.smt.Matches;
+import org.fit.ssapp.ss.smt.termination.TerminationReason;
 
 /**
  * Represents a solution to the Stable Matching Problem.
@@ -17,6 +18,9 @@ import org.fit.ssapp.ss.smt.Matches;
  * Computer specifications (`computerSpecs`): Hardware details of the machine running the algorithm.
  * Algorithm name (`algorithm`): The name of the algorithm used to generate the solution.
  * Set satisfactions (setSatisfactions): An array containing satisfaction values for different sets.
+ * Termination reason (terminationReason): Why the run stopped.
+ * Evaluation cache (evaluationCache): Hit-rate statistics, if the run used an evaluation cache.
+ * Matching cache (matchingCache): Hit-rate statistics of the scored matchings, likewise.
  */
 @Data
 @NoArgsConstructor
@@ -30,5 +34,8 @@ public class MatchingSolution {
   private ComputerSpecs computerSpecs;
   private String algorithm;
   private double[] setSatisfactions;
+  private TerminationReason terminationReason;
+  private EvaluationCacheStats evaluationCache;
+  private EvaluationCacheStats matchingCache;
 
 }
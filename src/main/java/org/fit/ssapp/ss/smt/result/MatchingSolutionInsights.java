@@ -14,6 +14,7 @@ import org.fit.ssapp.dto.response.ComputerSpecs;
  * Fitness values (fitnessValues): A mapping of algorithm names to lists of computed fitness values.
  * Runtimes (runtimes): A mapping of algorithm names to lists of execution times (in seconds).
  * Computer specifications (computerSpecs)**: Hardware details of the system running the algorithms.
+ * Seed (seed): Base seed of the runs, sending it back in a request reproduces the benchmark.
  */
 @Data
 @NoArgsConstructor
@@ -24,5 +25,6 @@ public class MatchingSolutionInsights {
   Map<String, List<Double>> fitnessValues;
   Map<String, List<Double>> runtimes;
   private ComputerSpecs computerSpecs;
+  private Long seed;
 
 }
@@ -0,0 +1,144 @@
+package org.fit.ssapp.ss.smt.termination;
+
+import java.util.function.BooleanSupplier;
+import org.moeaframework.core.Algorithm;
+import org.moeaframework.core.Population;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.TerminationCondition;
+
+/**
+ * Termination of a matching solve: cancellation, evaluation budget, wall-clock deadline, fitness
+ * stagnation and target fitness, whichever comes first. The condition that stopped the run is
+ * kept as its {@link TerminationReason}. Matching problems minimise the negated fitness, so the
+ * best fitness is the opposite of the lowest first objective.
+ * A condition holds the state of one run, a new one is needed for every run.
+ */
+public class MatchingTermination implements TerminationCondition {
+
+  private final int maxEvaluations;
+  private final int populationSize;
+  private final long maxTimeMillis;
+  private final int stagnationGenerations;
+  private final Double targetFitness;
+  private final BooleanSupplier cancelled;
+
+  private long startTime;
+  private int generation;
+  private double bestObjective;
+  private int stagnantGenerations;
+  private TerminationReason reason;
+
+  /**
+   * MatchingTermination.
+   *
+   * @param maxEvaluations        evaluation budget
+   * @param populationSize        evaluations per generation
+   * @param maxTimeMillis         wall-clock limit in milliseconds, none if not positive
+   * @param stagnationGenerations generations without improvement before stopping, none if not
+   *                              positive
+   * @param targetFitness         fitness to reach, none if {@code null}
+   */
+  public MatchingTermination(int maxEvaluations,
+                             int populationSize,
+                             long maxTimeMillis,
+                             int stagnationGenerations,
+                             Double targetFitness) {
+    this(maxEvaluations, populationSize, maxTimeMillis, stagnationGenerations, targetFitness,
+        () -> false);
+  }
+
+  /**
+   * MatchingTermination of a solve that can be cancelled.
+   *
+   * @param maxEvaluations        evaluation budget
+   * @param populationSize        evaluations per generation
+   * @param maxTimeMillis         wall-clock limit in milliseconds, none if not positive
+   * @param stagnationGenerations generations without improvement before stopping, none if not
+   *                              positive
+   * @param targetFitness         fitness to reach, none if {@code null}
+   * @param cancelled             whether the solve was cancelled, checked every step
+   */
+  public MatchingTermination(int maxEvaluations,
+                             int populationSize,
+                             long maxTimeMillis,
+                             int stagnationGenerations,
+                             Double targetFitness,
+                             BooleanSupplier cancelled) {
+    this.maxEvaluations = maxEvaluations;
+    this.populationSize = Math.max(1, populationSize);
+    this.maxTimeMillis = maxTimeMillis;
+    this.stagnationGenerations = stagnationGenerations;
+    this.targetFitness = targetFitness;
+    this.cancelled = cancelled;
+  }
+
+  @Override
+  public void initialize(Algorithm algorithm) {
+    startTime = System.currentTimeMillis();
+    generation = 0;
+    bestObjective = Double.POSITIVE_INFINITY;
+    stagnantGenerations = 0;
+    reason = null;
+  }
+
+  @Override
+  public boolean shouldTerminate(Algorithm algorithm) {
+    if (cancelled.getAsBoolean()) {
+      return stop(TerminationReason.CANCELLED);
+    }
+    if (algorithm.getNumberOfEvaluations() >= maxEvaluations) {
+      return stop(TerminationReason.MAX_EVALUATIONS);
+    }
+    if (maxTimeMillis > 0 && System.currentTimeMillis() - startTime >= maxTimeMillis) {
+      return stop(TerminationReason.MAX_TIME);
+    }
+    if (stagnationGenerations <= 0 && targetFitness == null) {
+      return false;
+    }
+    // steady-state algorithms step once per offspring, generations are counted in evaluations
+    int current = algorithm.getNumberOfEvaluations() / populationSize;
+    if (current == generation) {
+      return false;
+    }
+    int elapsed = current - generation;
+    generation = current;
+    double best = bestObjectiveOf(algorithm.getResult());
+    if (targetFitness != null && -best >= targetFitness) {
+      return stop(TerminationReason.TARGET_FITNESS);
+    }
+    if (stagnationGenerations > 0) {
+      if (best < bestObjective) {
+        bestObjective = best;
+        stagnantGenerations = 0;
+      } else {
+        stagnantGenerations += elapsed;
+        if (stagnantGenerations >= stagnationGenerations) {
+          return stop(TerminationReason.STAGNATION);
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Why the run stopped.
+   *
+   * @return the condition met, {@link TerminationReason#ALGORITHM} if none was
+   */
+  public TerminationReason getReason() {
+    return reason == null ? TerminationReason.ALGORITHM : reason;
+  }
+
+  private boolean stop(TerminationReason reason) {
+    this.reason = reason;
+    return true;
+  }
+
+  private static double bestObjectiveOf(Population result) {
+    double best = Double.POSITIVE_INFINITY;
+    for (Solution solution : result) {
+      best = Math.min(best, solution.getObjective(0));
+    }
+    return best;
+  }
+}
@@ -0,0 +1,17 @@
+package org.fit.ssapp.ss.smt.termination;
+
+/**
+ * Why a matching solve stopped.
+ *
+ * <ul>
+ *   <li>{@link #MAX_EVALUATIONS} - the evaluation budget (generation x population) is spent</li>
+ *   <li>{@link #MAX_TIME} - the wall-clock deadline is reached</li>
+ *   <li>{@link #STAGNATION} - the best fitness did not improve for the configured generations</li>
+ *   <li>{@link #TARGET_FITNESS} - the target fitness is reached</li>
+ *   <li>{@link #CANCELLED} - the job running the solve was cancelled</li>
+ *   <li>{@link #ALGORITHM} - the algorithm stopped by itself</li>
+ * </ul>
+ */
+public enum TerminationReason {
+  MAX_EVALUATIONS, MAX_TIME, STAGNATION, TARGET_FITNESS, CANCELLED, ALGORITHM
+}
@@ -0,0 +1,275 @@
+package org.fit.ssapp.util;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.objecthunter.exp4j.function.Function;
+import net.objecthunter.exp4j.function.Functions;
+import net.objecthunter.exp4j.operator.Operator;
+import net.objecthunter.exp4j.operator.Operators;
+import net.objecthunter.exp4j.shuntingyard.ShuntingYard;
+import net.objecthunter.exp4j.tokenizer.FunctionToken;
+import net.objecthunter.exp4j.tokenizer.NumberToken;
+import net.objecthunter.exp4j.tokenizer.OperatorToken;
+import net.objecthunter.exp4j.tokenizer.Token;
+import net.objecthunter.exp4j.tokenizer.VariableToken;
+
+/**
+ * A math expression parsed once by exp4j and kept as a flat postfix program whose variables are
+ * slots of a {@code double[]}. Evaluating only walks the program over a per-thread stack, so one
+ * instance can be shared by every thread evaluating the same function.
+ * Operators and functions keep exp4j semantics (including "Division by zero!" errors), the
+ * exp4j constants pi, π, e and φ are available unless a variable of the same name is declared.
+ */
+public final class CompiledExpression {
+
+  private static final int PUSH_CONSTANT = 0;
+  private static final int PUSH_VARIABLE = 1;
+  private static final int ADD = 2;
+  private static final int SUBTRACT = 3;
+  private static final int MULTIPLY = 4;
+  private static final int DIVIDE = 5;
+  private static final int NEGATE = 6;
+  private static final int UNARY_PLUS = 7;
+  private static final int APPLY_OPERATOR = 8;
+  private static final int APPLY_FUNCTION = 9;
+
+  private static final Map<String, Double> CONSTANTS = Map.of(
+      "pi", Math.PI,
+      "π", Math.PI,
+      "e", Math.E,
+      "φ", 1.61803398874d);
+
+  private final String expression;
+  private final int[] codes;
+  private final int[] operands;
+  private final double[] constants;
+  private final Operator[] operators;
+  private final Function[] functions;
+  private final int variableCount;
+  private final int maxDepth;
+  private final int maxArity;
+  private final ThreadLocal<Frame> frames = ThreadLocal.withInitial(this::newFrame);
+
+  private CompiledExpression(String expression, Token[] tokens, Map<String, Integer> slots) {
+    int length = tokens.length;
+    this.expression = expression;
+    this.codes = new int[length];
+    this.operands = new int[length];
+    this.constants = new double[length];
+    this.operators = new Operator[length];
+    this.functions = new Function[length];
+    this.variableCount = slots.size();
+
+    int depth = 0;
+    int deepest = 0;
+    int widest = 0;
+    for (int i = 0; i < length; i++) {
+      Token token = tokens[i];
+      int arity;
+      switch (token.getType()) {
+        case Token.TOKEN_NUMBER -> {
+          codes[i] = PUSH_CONSTANT;
+          constants[i] = ((NumberToken) token).getValue();
+          arity = 0;
+        }
+        case Token.TOKEN_VARIABLE -> {
+          String name = ((VariableToken) token).getName();
+          Integer slot = slots.get(name);
+          if (slot != null) {
+            codes[i] = PUSH_VARIABLE;
+            operands[i] = slot;
+          } else {
+            codes[i] = PUSH_CONSTANT;
+            constants[i] = CONSTANTS.get(name);
+          }
+          arity = 0;
+        }
+        case Token.TOKEN_OPERATOR -> {
+          Operator operator = ((OperatorToken) token).getOperator();
+          arity = operator.getNumOperands();
+          codes[i] = operatorCode(operator);
+          operators[i] = operator;
+        }
+        case Token.TOKEN_FUNCTION -> {
+          Function function = ((FunctionToken) token).getFunction();
+          arity = function.getNumArguments();
+          codes[i] = APPLY_FUNCTION;
+          functions[i] = function;
+        }
+        default -> throw new IllegalArgumentException(
+            "Invalid expression: unexpected token in " + expression);
+      }
+      if (depth < arity) {
+        throw new IllegalArgumentException(
+            "Invalid expression: not enough operands in " + expression);
+      }
+      depth += 1 - arity;
+      deepest = Math.max(deepest, depth);
+      widest = Math.max(widest, arity);
+    }
+    if (depth != 1) {
+      throw new IllegalArgumentException(
+          "Invalid expression: " + depth + " values left on the stack in " + expression);
+    }
+    this.maxDepth = deepest;
+    this.maxArity = widest;
+  }
+
+  /**
+   * parse an expression once.
+   *
+   * @param expression    expression in exp4j syntax
+   * @param variableNames variable names, the position in the list is the slot of the variable
+   * @param userFunctions additional functions usable in the expression
+   * @return compiled expression
+   * @throws IllegalArgumentException if the expression is empty, uses unknown names or is invalid
+   */
+  public static CompiledExpression compile(String expression,
+                                           List<String> variableNames,
+                                           Function... userFunctions) {
+    if (expression == null || expression.isBlank()) {
+      throw new IllegalArgumentException("The expression can not be empty");
+    }
+    Map<String, Function> functionMap = new HashMap<>();
+    for (Function function : userFunctions) {
+      functionMap.put(function.getName(), function);
+    }
+    Map<String, Integer> slots = new HashMap<>();
+    for (String name : variableNames) {
+      if (Functions.getBuiltinFunction(name) != null || functionMap.containsKey(name)) {
+        throw new IllegalArgumentException(
+            "A variable can not have the same name as a function [" + name + "]");
+      }
+      slots.putIfAbsent(name, slots.size());
+    }
+    Set<String> names = new HashSet<>(CONSTANTS.keySet());
+    names.addAll(slots.keySet());
+    Token[] tokens = ShuntingYard.convertToRPN(expression, functionMap, new HashMap<>(), names,
+        true);
+    return new CompiledExpression(expression, tokens, slots);
+  }
+
+  /**
+   * number of slots evaluate expects.
+   *
+   * @return int
+   */
+  public int getVariableCount() {
+    return variableCount;
+  }
+
+  /**
+   * evaluate against slot values.
+   *
+   * @param variables value of each declared variable, by slot
+   * @return result
+   */
+  public double evaluate(double[] variables) {
+    Frame frame = frames.get();
+    double[] stack = frame.stack;
+    int top = -1;
+    for (int i = 0; i < codes.length; i++) {
+      switch (codes[i]) {
+        case PUSH_CONSTANT -> stack[++top] = constants[i];
+        case PUSH_VARIABLE -> stack[++top] = variables[operands[i]];
+        case ADD -> {
+          top--;
+          stack[top] = stack[top] + stack[top + 1];
+        }
+        case SUBTRACT -> {
+          top--;
+          stack[top] = stack[top] - stack[top + 1];
+        }
+        case MULTIPLY -> {
+          top--;
+          stack[top] = stack[top] * stack[top + 1];
+        }
+        case DIVIDE -> {
+          top--;
+          if (stack[top + 1] == 0d) {
+            throw new ArithmeticException("Division by zero!");
+          }
+          stack[top] = stack[top] / stack[top + 1];
+        }
+        case NEGATE -> stack[top] = -stack[top];
+        case UNARY_PLUS -> {
+          // value unchanged
+        }
+        case APPLY_OPERATOR -> {
+          double[] args = frame.args[operators[i].getNumOperands()];
+          top = pop(stack, top, args);
+          stack[++top] = operators[i].apply(args);
+        }
+        default -> {
+          double[] args = frame.args[functions[i].getNumArguments()];
+          top = pop(stack, top, args);
+          stack[++top] = functions[i].apply(args);
+        }
+      }
+    }
+    return stack[0];
+  }
+
+  @Override
+  public String toString() {
+    return expression;
+  }
+
+  private static int pop(double[] stack, int top, double[] args) {
+    for (int k = args.length - 1; k >= 0; k--) {
+      args[k] = stack[top--];
+    }
+    return top;
+  }
+
+  private static int operatorCode(Operator operator) {
+    if (operator.getNumOperands() == 2 && operator.getSymbol().length() == 1) {
+      char symbol = operator.getSymbol().charAt(0);
+      if (operator == Operators.getBuiltinOperator(symbol, 2)) {
+        switch (symbol) {
+          case '+':
+            return ADD;
+          case '-':
+            return SUBTRACT;
+          case '*':
+            return MULTIPLY;
+          case '/':
+            return DIVIDE;
+          default:
+            return APPLY_OPERATOR;
+        }
+      }
+    }
+    if (operator.getNumOperands() == 1 && operator.getSymbol().length() == 1) {
+      char symbol = operator.getSymbol().charAt(0);
+      if (operator == Operators.getBuiltinOperator(symbol, 1)) {
+        return symbol == '-' ? NEGATE : UNARY_PLUS;
+      }
+    }
+    return APPLY_OPERATOR;
+  }
+
+  private Frame newFrame() {
+    return new Frame(maxDepth, maxArity);
+  }
+
+  /**
+   * per thread evaluation stack and argument buffers (one per arity).
+   */
+  private static final class Frame {
+
+    private final double[] stack;
+    private final double[][] args;
+
+    private Frame(int depth, int arity) {
+      this.stack = new double[Math.max(depth, 1)];
+      this.args = new double[arity + 1][];
+      for (int i = 0; i <= arity; i++) {
+        this.args[i] = new double[i];
+      }
+    }
+  }
+}
@@ -0,0 +1,268 @@
+package org.fit.ssapp.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import net.objecthunter.exp4j.function.Function;
+import org.fit.ssapp.ss.gt.NormalPlayer;
+import org.fit.ssapp.ss.gt.Strategy;
+import org.fit.ssapp.util.StringExpressionEvaluator.DefaultFunction;
+
+/**
+ * A game theory payoff or fitness function parsed once. Its variables are resolved to indices up
+ * front:
+ * <ul>
+ *   <li>{@code p<i>}: property i (1-based) of the evaluated strategy</li>
+ *   <li>{@code P<j>p<i>}: property i of the strategy player j has chosen</li>
+ *   <li>{@code u<i>}: payoff of player i (fitness functions only)</li>
+ * </ul>
+ * A blank function or the name of a {@link DefaultFunction} aggregates the strategy properties
+ * (payoff) or the payoffs (fitness). Instances are immutable apart from per-thread scratch space
+ * and can be shared by every thread evaluating the problem.
+ */
+public final class CompiledPayoffFunction {
+
+  private static final Pattern PAYOFF_VARIABLE = Pattern.compile("P\\d+p\\d+|p\\d+");
+  private static final Pattern FITNESS_VARIABLE = Pattern.compile("u\\d+");
+
+  private static final Function LOGB = new Function("logb", 2) {
+    @Override
+    public double apply(double... args) {
+      if (args[0] <= 0 || args[1] <= 0) {
+        throw new IllegalArgumentException("Logarithm base and argument must be positive");
+      }
+      return Math.log(args[1]) / Math.log(args[0]);
+    }
+  };
+
+  private final String function;
+  private final DefaultFunction defaultFunction;
+  private final CompiledExpression expression;
+
+  /**
+   * player each slot reads from, -1 for the evaluated strategy or the payoffs.
+   */
+  private final int[] slotPlayers;
+  private final int[] slotIndices;
+  private final boolean relative;
+  private final ThreadLocal<double[]> values;
+
+  private CompiledPayoffFunction(String function, Pattern variablePattern) {
+    this.function = function;
+    if (function == null || function.isBlank()) {
+      this.defaultFunction = DefaultFunction.SUM;
+    } else {
+      this.defaultFunction = Arrays.stream(DefaultFunction.values())
+          .filter(f -> f.name().equalsIgnoreCase(function.trim()))
+          .findFirst()
+          .orElse(null);
+    }
+    if (defaultFunction != null) {
+      this.expression = null;
+      this.slotPlayers = new int[0];
+      this.slotIndices = new int[0];
+      this.relative = false;
+      this.values = null;
+      return;
+    }
+
+    List<String> slotNames = new ArrayList<>();
+    Matcher matcher = variablePattern.matcher(function);
+    while (matcher.find()) {
+      if (!slotNames.contains(matcher.group())) {
+        slotNames.add(matcher.group());
+      }
+    }
+    this.slotPlayers = new int[slotNames.size()];
+    this.slotIndices = new int[slotNames.size()];
+    boolean isRelative = false;
+    for (int slot = 0; slot < slotNames.size(); slot++) {
+      String name = slotNames.get(slot);
+      // indices should account for offset from base 1 index of variables
+      if (name.startsWith("P")) {
+        int split = name.indexOf('p');
+        slotPlayers[slot] = Integer.parseInt(name.substring(1, split)) - 1;
+        slotIndices[slot] = Integer.parseInt(name.substring(split + 1)) - 1;
+        isRelative = true;
+      } else {
+        slotPlayers[slot] = -1;
+        slotIndices[slot] = Integer.parseInt(name.substring(1)) - 1;
+      }
+    }
+    this.relative = isRelative;
+    this.expression = CompiledExpression.compile(function, slotNames, LOGB);
+    this.values = ThreadLocal.withInitial(() -> new double[slotIndices.length]);
+  }
+
+  /**
+   * parse a payoff function over strategy properties.
+   *
+   * @param payoffFunction payoff function, blank or a default function name for an aggregate
+   * @return compiled function
+   * @throws IllegalArgumentException if the function is malformed
+   */
+  public static CompiledPayoffFunction compilePayoff(String payoffFunction) {
+    return new CompiledPayoffFunction(payoffFunction, PAYOFF_VARIABLE);
+  }
+
+  /**
+   * parse a fitness function over the payoffs of the players.
+   *
+   * @param fitnessFunction fitness function, blank or a default function name for an aggregate
+   * @return compiled function
+   * @throws IllegalArgumentException if the function is malformed
+   */
+  public static CompiledPayoffFunction compileFitness(String fitnessFunction) {
+    return new CompiledPayoffFunction(fitnessFunction, FITNESS_VARIABLE);
+  }
+
+  /**
+   * whether the function refers to the strategies chosen by other players ({@code P<j>p<i>}).
+   *
+   * @return boolean
+   */
+  public boolean isRelative() {
+    return relative;
+  }
+
+  /**
+   * payoff of a strategy given the strategies chosen by every player.
+   *
+   * @param strategy              evaluated strategy
+   * @param normalPlayers         all normal players
+   * @param chosenStrategyIndices strategy index chosen by each player, only read for relative
+   *                              functions
+   * @return payoff
+   */
+  public double evaluate(Strategy strategy,
+                         List<NormalPlayer> normalPlayers,
+                         int[] chosenStrategyIndices) {
+    List<Double> properties = strategy.getProperties();
+    if (defaultFunction != null) {
+      double[] arguments = new double[properties.size()];
+      for (int i = 0; i < arguments.length; i++) {
+        arguments[i] = properties.get(i);
+      }
+      return aggregate(defaultFunction, arguments);
+    }
+    double[] slots = values.get();
+    for (int slot = 0; slot < slots.length; slot++) {
+      int player = slotPlayers[slot];
+      double value;
+      if (player < 0) {
+        value = properties.get(slotIndices[slot]);
+      } else {
+        value = normalPlayers.get(player)
+            .getStrategyAt(chosenStrategyIndices[player])
+            .getProperties()
+            .get(slotIndices[slot]);
+      }
+      slots[slot] = zeroIfNaN(value);
+    }
+    return expression.evaluate(slots);
+  }
+
+  /**
+   * fitness of the given payoffs.
+   *
+   * @param payoffs payoff of each player
+   * @return fitness value
+   */
+  public double evaluate(double[] payoffs) {
+    if (defaultFunction != null) {
+      return aggregate(defaultFunction, payoffs.clone());
+    }
+    double[] slots = values.get();
+    for (int slot = 0; slot < slots.length; slot++) {
+      slots[slot] = zeroIfNaN(payoffs[slotIndices[slot]]);
+    }
+    return expression.evaluate(slots);
+  }
+
+  /**
+   * a value of this function as reported by {@link StringExpressionEvaluator}: expressions are
+   * rounded to 10 decimals, default functions are kept as is.
+   *
+   * @param value value returned by evaluate
+   * @return BigDecimal
+   */
+  public BigDecimal toDecimal(double value) {
+    BigDecimal decimal = new BigDecimal(value);
+    return defaultFunction != null ? decimal : decimal.setScale(10, RoundingMode.HALF_UP);
+  }
+
+  @Override
+  public String toString() {
+    return function;
+  }
+
+  /**
+   * apply a default function, values may be reordered.
+   *
+   * @param function default function
+   * @param values   values to aggregate
+   * @return result
+   */
+  static double aggregate(DefaultFunction function, double[] values) {
+    int n = values.length;
+    switch (function) {
+      case PRODUCT -> {
+        double product = 1.0;
+        for (double value : values) {
+          product *= value;
+        }
+        return product;
+      }
+      case MAX -> {
+        if (n == 0) {
+          throw new IllegalArgumentException("Cannot calculate maximum of empty list");
+        }
+        double max = values[0];
+        for (double value : values) {
+          max = Math.max(max, value);
+        }
+        return max;
+      }
+      case MIN -> {
+        if (n == 0) {
+          throw new IllegalArgumentException("Cannot calculate minimum of empty list");
+        }
+        double min = values[0];
+        for (double value : values) {
+          min = Math.min(min, value);
+        }
+        return min;
+      }
+      case AVERAGE -> {
+        return n == 0 ? 0.0 : sum(values) / n;
+      }
+      case MEDIAN -> {
+        Arrays.sort(values);
+        return n % 2 == 0 ? (values[n / 2] + values[n / 2 - 1]) / 2 : values[n / 2];
+      }
+      case RANGE -> {
+        Arrays.sort(values);
+        return values[n - 1] - values[0];
+      }
+      default -> {
+        return sum(values);
+      }
+    }
+  }
+
+  private static double sum(double[] values) {
+    double sum = 0;
+    for (double value : values) {
+      sum += value;
+    }
+    return sum;
+  }
+
+  private static double zeroIfNaN(double value) {
+    return Double.isNaN(value) ? 0 : value;
+  }
+}
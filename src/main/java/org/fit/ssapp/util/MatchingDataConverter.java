@@ -0,0 +1,56 @@
+package org.fit.ssapp.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.extern.slf4j.Slf4j;
+import org.fit.ssapp.dto.mapper.StableMatchingRequestReader;
+import org.fit.ssapp.ss.smt.MatchingData;
+import org.fit.ssapp.ss.smt.MatchingDataFile;
+
+/**
+ * Converts a stable matching request (JSON) to a {@link MatchingDataFile}. The request is streamed,
+ * so its individual arrays are never held twice in memory. A file named {@code <id>.smtd} in the
+ * configured data directory ({@code solver.data.directory}) is then solved by
+ * {@code POST /api/stable-matching-solver/files/<id>}.
+ * Usage: {@code MatchingDataConverter <request.json> <output file>}
+ */
+@Slf4j
+public class MatchingDataConverter {
+
+  private MatchingDataConverter() {
+  }
+
+  /**
+   * Converts the individual arrays of a stable matching request to a matching data file.
+   *
+   * @param request JSON stable matching request
+   * @param output  matching data file
+   * @throws IOException if the request cannot be read or the file cannot be written
+   */
+  public static void convert(Path request, Path output) throws IOException {
+    MatchingData data;
+    try (InputStream input = new BufferedInputStream(Files.newInputStream(request))) {
+      data = new StableMatchingRequestReader(new ObjectMapper()).read(input).data();
+    }
+    MatchingDataFile.write(data, output);
+  }
+
+  /**
+   * Command line entry point.
+   *
+   * @param args request file, output file
+   * @throws IOException if the conversion fails
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      log.error("Usage: MatchingDataConverter <request.json> <output file>");
+      return;
+    }
+    convert(Path.of(args[0]), Path.of(args[1]));
+    log.info("Wrote matching data of {} to {}", args[0], args[1]);
+  }
+}
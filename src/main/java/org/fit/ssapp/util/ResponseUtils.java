@@ -39,4 +39,21 @@ public class ResponseUtils {
             .data(data)
             .build());
   }
+
+  /**
+   * return a code 400 response with message
+   *
+   * @param  message String
+   * @return ResponseEntity<Response>
+   */
+  public static ResponseEntity<Response> getBadRequestResponse(String message) {
+    return ResponseEntity
+        .status(HttpStatus.BAD_REQUEST)
+        .body(Response
+            .builder()
+            .status(HttpStatus.BAD_REQUEST.value())
+            .message(message)
+            .data(null)
+            .build());
+  }
 }
@@ -0,0 +1,113 @@
+package org.fit.ssapp.util;
+
+import java.util.Random;
+import org.moeaframework.core.PRNG;
+
+/**
+ * Random source of {@link PRNG} keeping one generator per thread. MOEA algorithms draw every
+ * random number from the static {@link PRNG}, so runs executed concurrently would interleave on a
+ * single generator and none of them could be reproduced. Once installed, seeding {@link PRNG}
+ * only seeds the generator of the calling thread, so each run seeded on its own thread draws the
+ * same sequence whatever else runs at the same time.
+ */
+public final class ThreadLocalPrng extends Random {
+
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  private final transient ThreadLocal<Random> random = ThreadLocal.withInitial(Random::new);
+
+  private ThreadLocalPrng() {
+  }
+
+  /**
+   * Installs the per-thread random source in {@link PRNG}, if not already done.
+   */
+  public static synchronized void install() {
+    if (!(PRNG.getRandom() instanceof ThreadLocalPrng)) {
+      PRNG.setRandom(new ThreadLocalPrng());
+    }
+  }
+
+  /**
+   * Seeds the {@link PRNG} generator of the calling thread.
+   *
+   * @param seed seed
+   */
+  public static void seed(long seed) {
+    install();
+    PRNG.getRandom().setSeed(seed);
+  }
+
+  /**
+   * Seed of one run of a benchmark, distinct for every (algorithm, run) and stable for a base
+   * seed.
+   *
+   * @param baseSeed  seed of the benchmark
+   * @param algorithm algorithm index
+   * @param run       run index
+   * @return seed of the run
+   */
+  public static long seedOf(long baseSeed, int algorithm, int run) {
+    long z = baseSeed + GOLDEN_GAMMA * ((((long) algorithm) << 32 | run) + 1);
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  private Random current() {
+    return random.get();
+  }
+
+  @Override
+  public void setSeed(long seed) {
+    // called by the Random constructor, before the per-thread generators exist
+    if (random != null) {
+      current().setSeed(seed);
+    }
+  }
+
+  @Override
+  protected int next(int bits) {
+    return current().nextInt() >>> (32 - bits);
+  }
+
+  @Override
+  public void nextBytes(byte[] bytes) {
+    current().nextBytes(bytes);
+  }
+
+  @Override
+  public int nextInt() {
+    return current().nextInt();
+  }
+
+  @Override
+  public int nextInt(int bound) {
+    return current().nextInt(bound);
+  }
+
+  @Override
+  public long nextLong() {
+    return current().nextLong();
+  }
+
+  @Override
+  public boolean nextBoolean() {
+    return current().nextBoolean();
+  }
+
+  @Override
+  public float nextFloat() {
+    return current().nextFloat();
+  }
+
+  @Override
+  public double nextDouble() {
+    return current().nextDouble();
+  }
+
+  @Override
+  public double nextGaussian() {
+    return current().nextGaussian();
+  }
+}
@@ -0,0 +1,157 @@
+package org.fit.ssapp.benchmark;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import org.fit.ssapp.ss.smt.Matches;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link Matches} with the former {@code TreeSet<Integer>[]} implementation on the
+ * access pattern of a many-to-many deferred acceptance run: a fresh instance per evaluation,
+ * proposals checked with isMatched / isFull, then added or swapped against a current partner.
+ * Run with {@code main} from the IDE, or through the JMH runner on the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchesBenchmark {
+
+  @Param({"200", "2000"})
+  int size;
+
+  @Param({"1", "20"})
+  int capacity;
+
+  int[] capacities;
+  int[] proposers;
+  int[] receivers;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    int half = size / 2;
+    capacities = new int[size];
+    for (int i = 0; i < size; i++) {
+      capacities[i] = i < half ? 1 : capacity;
+    }
+    int proposals = size * 4;
+    proposers = new int[proposals];
+    receivers = new int[proposals];
+    for (int i = 0; i < proposals; i++) {
+      proposers[i] = random.nextInt(half);
+      receivers[i] = half + random.nextInt(size - half);
+    }
+  }
+
+  @Benchmark
+  public Matches flatArray() {
+    Matches matches = new Matches(capacities);
+    for (int i = 0; i < proposers.length; i++) {
+      int left = proposers[i];
+      int right = receivers[i];
+      if (matches.isMatched(left) || matches.isMatched(right, left)) {
+        continue;
+      }
+      if (!matches.isFull(right, capacities[right])) {
+        matches.addMatchBi(left, right);
+      } else {
+        int worst = matches.getPartnerOf(right, matches.getCountOf(right) - 1);
+        if (worst > left) {
+          matches.removeMatchBi(right, worst);
+          matches.addMatchBi(left, right);
+        }
+      }
+    }
+    return matches;
+  }
+
+  @Benchmark
+  public TreeSetMatches treeSet() {
+    TreeSetMatches matches = new TreeSetMatches(size);
+    for (int i = 0; i < proposers.length; i++) {
+      int left = proposers[i];
+      int right = receivers[i];
+      if (matches.isMatched(left) || matches.isMatched(right, left)) {
+        continue;
+      }
+      if (!matches.isFull(right, capacities[right])) {
+        matches.addMatchBi(left, right);
+      } else {
+        int worst = matches.matches[right].last();
+        if (worst > left) {
+          matches.removeMatchBi(right, worst);
+          matches.addMatchBi(left, right);
+        }
+      }
+    }
+    return matches;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+        .include(MatchesBenchmark.class.getSimpleName())
+        .build();
+    new Runner(options).run();
+  }
+
+  /**
+   * The previous boxed implementation, kept here as the baseline.
+   */
+  static final class TreeSetMatches {
+
+    final TreeSet<Integer>[] matches;
+
+    @SuppressWarnings("unchecked")
+    TreeSetMatches(int size) {
+      matches = new TreeSet[size];
+      for (int i = 0; i < size; i++) {
+        matches[i] = new TreeSet<>();
+      }
+    }
+
+    Set<Integer> getSetOf(int node) {
+      return matches[node];
+    }
+
+    boolean isMatched(int node) {
+      return !matches[node].isEmpty();
+    }
+
+    boolean isMatched(int node1, int node2) {
+      return matches[node1].contains(node2) || matches[node2].contains(node1);
+    }
+
+    boolean isFull(int node, int capacity) {
+      return getSetOf(node).size() >= capacity;
+    }
+
+    void addMatchBi(int node1, int node2) {
+      matches[node1].add(node2);
+      matches[node2].add(node1);
+    }
+
+    void removeMatchBi(int node1, int node2) {
+      matches[node1].remove(node2);
+      matches[node2].remove(node1);
+    }
+  }
+}
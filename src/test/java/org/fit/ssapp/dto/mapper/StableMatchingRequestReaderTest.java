@@ -0,0 +1,100 @@
+package org.fit.ssapp.dto.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.fit.ssapp.dto.mapper.StableMatchingRequestReader.StableMatchingRequest;
+import org.fit.ssapp.dto.request.StableMatchingProblemDto;
+import org.fit.ssapp.ss.smt.MatchingData;
+import org.fit.ssapp.util.MatchingProblemType;
+import org.fit.ssapp.util.SampleDataGenerator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for StableMatchingRequestReader.
+ */
+public class StableMatchingRequestReaderTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void readsLikeMapper() throws IOException {
+    StableMatchingProblemDto dto = new SampleDataGenerator(MatchingProblemType.MTM, 15, 30, 4)
+        .generateDto();
+    dto.setExcludedPairs(new int[][]{{1, 20}});
+    MatchingData expected = StableMatchingProblemMapper.toMatchingData(dto);
+
+    StableMatchingRequest actual = read(objectMapper.writeValueAsString(dto));
+
+    MatchingData data = actual.data();
+    assertEquals(dto.getFitnessFunction(), actual.request().getFitnessFunction());
+    assertArrayEquals(dto.getEvaluateFunctions(), actual.request().getEvaluateFunctions());
+    assertArrayEquals(dto.getExcludedPairs(), actual.request().getExcludedPairs());
+    assertNull(actual.request().getIndividualProperties());
+    assertArrayEquals(dto.getExcludedPairs(), data.getExcludedPairs());
+    assertTrue(data.getExclusions().isExcluded(1, 20));
+    assertTrue(data.getExclusions().isExcluded(20, 1));
+    assertEquals(expected.getSize(), data.getSize());
+    assertArrayEquals(expected.getSets(), data.getSets());
+    assertArrayEquals(expected.getCapacities(), data.getCapacities());
+    for (int i = 0; i < expected.getSize(); i++) {
+      for (int j = 0; j < expected.getPropertyNum(); j++) {
+        assertEquals(expected.getPropertyValueOf(i, j), data.getPropertyValueOf(i, j));
+        assertEquals(expected.getPropertyWeightOf(i, j), data.getPropertyWeightOf(i, j));
+        assertEquals(expected.getRequirementTypeOf(i, j), data.getRequirementTypeOf(i, j));
+        assertEquals(expected.getRequirementBound1Of(i, j), data.getRequirementBound1Of(i, j));
+        assertEquals(expected.getRequirementBound2Of(i, j), data.getRequirementBound2Of(i, j));
+      }
+    }
+  }
+
+  @Test
+  void presizeIgnoresUnvalidatedCounts() {
+    ObjectNode fields = objectMapper.createObjectNode()
+        .put("numberOfIndividuals", 8192)
+        .put("numberOfProperty", 8192);
+    assertEquals(StableMatchingRequestReader.MAX_PRESIZED_CELLS,
+        StableMatchingRequestReader.expectedCells(fields));
+
+    String json = "{\"numberOfIndividuals\": 8192, \"numberOfProperty\": 8192,"
+        + " \"individualProperties\": [], \"individualWeights\": [],"
+        + " \"individualRequirements\": []}";
+    assertThrows(MismatchedInputException.class, () -> read(json));
+  }
+
+  @Test
+  void rejectsRaggedRows() {
+    String json = "{\"numberOfIndividuals\": 2, \"numberOfProperty\": 2,"
+        + " \"individualSetIndices\": [0, 1],"
+        + " \"individualProperties\": [[1, 2], [3]],"
+        + " \"individualWeights\": [[1, 2], [3, 4]],"
+        + " \"individualRequirements\": [[\"1\", \"2++\"], [\"1:2\", \"3--\"]]}";
+
+    assertThrows(MismatchedInputException.class, () -> read(json));
+  }
+
+  @Test
+  void rejectsWrongIndividualCount() {
+    String json = "{\"numberOfIndividuals\": 3, \"numberOfProperty\": 1,"
+        + " \"individualSetIndices\": [0, 1, 1],"
+        + " \"individualProperties\": [[1], [3]],"
+        + " \"individualWeights\": [[1], [3]],"
+        + " \"individualRequirements\": [[\"1\"], [\"3--\"]]}";
+
+    assertThrows(MismatchedInputException.class, () -> read(json));
+  }
+
+  private StableMatchingRequest read(String json) throws IOException {
+    return new StableMatchingRequestReader(objectMapper)
+        .read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+  }
+}
@@ -0,0 +1,103 @@
+package org.fit.ssapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.fit.ssapp.config.SolverPoolConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Sharing of the core budget between concurrent runs.
+ */
+public class CoreBudgetSchedulerTest {
+
+  private CoreBudgetScheduler scheduler;
+
+  @BeforeEach
+  void setUp() {
+    SolverPoolConfig config = new SolverPoolConfig();
+    config.setCoreBudget(8);
+    scheduler = new CoreBudgetScheduler(config);
+  }
+
+  @AfterEach
+  void tearDown() {
+    scheduler.shutdown();
+  }
+
+  @Test
+  void sharesBudgetAndRebalances() {
+    CoreBudgetScheduler.Lease first = scheduler.acquire("all", 1);
+    assertEquals(8, first.getLimit());
+
+    CoreBudgetScheduler.Lease second = scheduler.acquire(null, 1);
+    assertEquals(4, first.getLimit());
+    assertEquals(4, second.getLimit());
+
+    // a run asking for fewer cores leaves its part of the share to the others
+    CoreBudgetScheduler.Lease small = scheduler.acquire("2", 1);
+    assertEquals(2, small.getLimit());
+    assertEquals(3, first.getLimit());
+    assertEquals(3, second.getLimit());
+
+    small.close();
+    second.close();
+    assertEquals(8, first.getLimit());
+    assertEquals(1, scheduler.getActiveRuns());
+    first.close();
+    assertEquals(0, scheduler.getActiveRuns());
+  }
+
+  @Test
+  void weightsShareByProblemSize() {
+    CoreBudgetScheduler.Lease large = scheduler.acquire("all", 300);
+    CoreBudgetScheduler.Lease small = scheduler.acquire("all", 100);
+
+    assertEquals(6, large.getLimit());
+    assertEquals(2, small.getLimit());
+    large.close();
+    small.close();
+  }
+
+  @Test
+  void capsInFlightTasks() throws Exception {
+    CoreBudgetScheduler.Lease other = scheduler.acquire("all", 1);
+    CoreBudgetScheduler.Lease lease = scheduler.acquire("all", 1);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(40);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      futures.add(lease.submit(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(5);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+        done.countDown();
+      }));
+    }
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    assertTrue(maxRunning.get() <= 4, "in flight: " + maxRunning.get());
+
+    lease.close();
+    assertTrue(lease.awaitTermination(1, TimeUnit.SECONDS));
+    assertThrows(RejectedExecutionException.class, () -> lease.execute(() -> { }));
+    other.close();
+  }
+}
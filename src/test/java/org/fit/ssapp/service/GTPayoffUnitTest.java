@@ -9,6 +9,7 @@ import java.math.BigDecimal;
 
 import org.fit.ssapp.ss.gt.NormalPlayer;
 import org.fit.ssapp.ss.gt.Strategy;
+import org.fit.ssapp.util.CompiledPayoffFunction;
 import org.fit.ssapp.util.StringExpressionEvaluator;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -161,6 +162,45 @@ public class GTPayoffUnitTest {
         );
     }
 
+    /**
+     * Test a compiled payoff function evaluated for several strategy choices,
+     * p1 must not be substituted inside p10
+     */
+    @ParameterizedTest
+    @MethodSource("compiledPayoff")
+    void compiledRelativePayoff(String expression, int[] chosenStrategyIndices, double expected) {
+        List<Double> manyProperties = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            manyProperties.add((double) i);
+        }
+        NormalPlayer player1 = new NormalPlayer();
+        Strategy strategy1 = new Strategy();
+        strategy1.setProperties(manyProperties);
+        player1.setStrategies(List.of(strategy1));
+
+        NormalPlayer player2 = new NormalPlayer();
+        Strategy strategy2 = new Strategy();
+        strategy2.setProperties(List.of(100.0, 200.0));
+        Strategy strategy3 = new Strategy();
+        strategy3.setProperties(List.of(300.0, 400.0));
+        player2.setStrategies(List.of(strategy2, strategy3));
+
+        CompiledPayoffFunction function = CompiledPayoffFunction.compilePayoff(expression);
+        double result = function.evaluate(strategy1, List.of(player1, player2), chosenStrategyIndices);
+
+        assertEquals(expected, result, 0.00001);
+    }
+
+    private static Stream<Arguments> compiledPayoff() {
+        return Stream.of(
+            Arguments.of("p1 + p10", new int[]{0, 0}, 11.0),
+            Arguments.of("p1 * P2p2", new int[]{0, 0}, 200.0),
+            Arguments.of("p1 * P2p2", new int[]{0, 1}, 400.0),
+            Arguments.of("P2p1 - P1p10 + logb(2, 8)", new int[]{0, 1}, 293.0),
+            Arguments.of("MAX", new int[]{0, 1}, 10.0)
+        );
+    }
+
     /**
      * Test built-in exp4j
      */
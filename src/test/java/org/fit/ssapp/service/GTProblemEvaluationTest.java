@@ -0,0 +1,67 @@
+package org.fit.ssapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.fit.ssapp.ss.gt.NormalPlayer;
+import org.fit.ssapp.ss.gt.Strategy;
+import org.fit.ssapp.ss.gt.implement.StandardGameTheoryProblem;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.variable.EncodingUtils;
+
+/**
+ * The double evaluation of a game theory problem must agree with the exact (BigDecimal) one.
+ */
+public class GTProblemEvaluationTest {
+
+  @ParameterizedTest
+  @CsvSource({
+      "'', '', 0, 1",
+      "p1 / 3 + p2, u1 * u2, 1, 0",
+      "P1p1 - P2p2 / 7, SUM, 1, 1",
+      "sqrt(p1) + p2, '(u1 + u2) / 3', 0, 0",
+      "PRODUCT, MAX, 0, 1"
+  })
+  public void doubleEvaluationMatchesExact(String payoffFunction, String fitnessFunction,
+                                           int firstChoice, int secondChoice) {
+    double fast = evaluate(payoffFunction, fitnessFunction, false, firstChoice, secondChoice);
+    double exact = evaluate(payoffFunction, fitnessFunction, true, firstChoice, secondChoice);
+
+    assertEquals(exact, fast, 1e-9);
+  }
+
+  private static double evaluate(String payoffFunction, String fitnessFunction,
+                                 boolean exactDecimal, int firstChoice, int secondChoice) {
+    StandardGameTheoryProblem problem = new StandardGameTheoryProblem();
+    problem.setDefaultPayoffFunction(payoffFunction);
+    problem.setFitnessFunction(fitnessFunction);
+    problem.setExactDecimal(exactDecimal);
+    problem.setMaximizing(true);
+    problem.setNormalPlayers(List.of(
+        player(new double[][]{{1.1, 2.2}, {3.3, 4.4}}),
+        player(new double[][]{{5.5, 6.6}, {7.7, 8.8}})));
+
+    Solution solution = problem.newSolution();
+    EncodingUtils.setInt(solution.getVariable(0), firstChoice);
+    EncodingUtils.setInt(solution.getVariable(1), secondChoice);
+    problem.evaluate(solution);
+    return solution.getObjective(0);
+  }
+
+  private static NormalPlayer player(double[][] strategyProperties) {
+    List<Strategy> strategies = new ArrayList<>();
+    for (double[] properties : strategyProperties) {
+      Strategy strategy = new Strategy();
+      for (double property : properties) {
+        strategy.addProperty(property);
+      }
+      strategies.add(strategy);
+    }
+    NormalPlayer player = new NormalPlayer();
+    player.setStrategies(strategies);
+    return player;
+  }
+}
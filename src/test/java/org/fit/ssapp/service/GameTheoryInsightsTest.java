@@ -0,0 +1,93 @@
+package org.fit.ssapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.fit.ssapp.config.AsyncConfig;
+import org.fit.ssapp.config.SolverPoolConfig;
+import org.fit.ssapp.constants.GameTheoryConst;
+import org.fit.ssapp.dto.request.GameTheoryProblemDto;
+import org.fit.ssapp.dto.response.Response;
+import org.fit.ssapp.ss.gt.NormalPlayer;
+import org.fit.ssapp.ss.gt.Strategy;
+import org.fit.ssapp.ss.gt.result.GameSolutionInsights;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Game theory insights run concurrently and stay reproducible for a seed.
+ */
+public class GameTheoryInsightsTest {
+
+  private ThreadPoolTaskExecutor insightExecutor;
+  private CoreBudgetScheduler coreBudgetScheduler;
+  private GameTheoryService service;
+
+  @BeforeEach
+  void setUp() {
+    SolverPoolConfig config = new SolverPoolConfig();
+    config.setCoreBudget(2);
+    config.setInsightParallelRuns(3);
+    insightExecutor = new AsyncConfig().insightExecutor(config);
+    coreBudgetScheduler = new CoreBudgetScheduler(config);
+    service = new GameTheoryService(Mockito.mock(SimpMessagingTemplate.class),
+        coreBudgetScheduler, new InsightRunScheduler(insightExecutor));
+  }
+
+  @AfterEach
+  void tearDown() {
+    insightExecutor.shutdown();
+    coreBudgetScheduler.shutdown();
+  }
+
+  @Test
+  void sameSeedGivesSameInsights() {
+    GameSolutionInsights first = insights(7L);
+    GameSolutionInsights second = insights(7L);
+
+    assertEquals(7L, first.getSeed());
+    for (String algorithm : GameTheoryConst.ALLOWED_INSIGHT_ALGORITHMS) {
+      assertEquals(2, first.getFitnessValues().get(algorithm).size());
+      assertEquals(first.getFitnessValues().get(algorithm),
+          second.getFitnessValues().get(algorithm), algorithm);
+    }
+  }
+
+  private GameSolutionInsights insights(long seed) {
+    GameTheoryProblemDto dto = new GameTheoryProblemDto();
+    dto.setNormalPlayers(players());
+    dto.setFitnessFunction("default");
+    dto.setDefaultPayoffFunction("default");
+    dto.setMaximizing(true);
+    dto.setDistributedCores("all");
+    dto.setMaxTime(5000);
+    dto.setGeneration(5);
+    dto.setPopulationSize(20);
+    dto.setRunCountPerAlgorithm(2);
+    dto.setSeed(seed);
+    Response response = service.getProblemResultInsights(dto, "session").getBody();
+    return (GameSolutionInsights) response.getData();
+  }
+
+  private static List<NormalPlayer> players() {
+    List<NormalPlayer> players = new ArrayList<>();
+    for (int p = 0; p < 4; p++) {
+      List<Strategy> strategies = new ArrayList<>();
+      for (int s = 0; s < 3; s++) {
+        Strategy strategy = new Strategy();
+        strategy.setProperties(new ArrayList<>(List.of(1.0 + p * s, 2.0 + s, 3.0 - p)));
+        strategies.add(strategy);
+      }
+      NormalPlayer player = new NormalPlayer();
+      player.setName("Player " + p);
+      player.setStrategies(strategies);
+      players.add(player);
+    }
+    return players;
+  }
+}
@@ -0,0 +1,76 @@
+package org.fit.ssapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.fit.ssapp.config.AsyncConfig;
+import org.fit.ssapp.config.SolverPoolConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.moeaframework.core.PRNG;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Concurrent insight runs stay reproducible.
+ */
+public class InsightRunSchedulerTest {
+
+  private ThreadPoolTaskExecutor executor;
+  private InsightRunScheduler scheduler;
+
+  @BeforeEach
+  void setUp() {
+    SolverPoolConfig config = new SolverPoolConfig();
+    config.setInsightParallelRuns(4);
+    executor = new AsyncConfig().insightExecutor(config);
+    scheduler = new InsightRunScheduler(executor);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  void runsAreSeededFromBaseSeed() {
+    long[][] first = draws(42L);
+    long[][] second = draws(42L);
+
+    for (int a = 0; a < first.length; a++) {
+      assertArrayEquals(first[a], second[a]);
+    }
+    assertNotEquals(first[0][0], first[0][1]);
+    assertNotEquals(first[0][0], first[1][0]);
+    assertNotEquals(first[0][0], draws(43L)[0][0]);
+  }
+
+  @Test
+  void rethrowsFailedRun() {
+    IllegalStateException e = assertThrows(IllegalStateException.class,
+        () -> scheduler.runAll(2, 3, 1L, (a, r) -> {
+          if (a == 1 && r == 2) {
+            throw new IllegalStateException("run failed");
+          }
+        }));
+    assertEquals("run failed", e.getMessage());
+  }
+
+  /**
+   * sum of the draws of each run, every run drawing from the shared PRNG at the same time.
+   */
+  private long[][] draws(long baseSeed) {
+    long[][] sums = new long[3][8];
+    scheduler.runAll(3, 8, baseSeed, (a, r) -> {
+      long sum = 0;
+      for (int k = 0; k < 1000; k++) {
+        sum = sum * 31 + PRNG.nextInt(1000);
+        Thread.yield();
+      }
+      sums[a][r] = sum;
+    });
+    return sums;
+  }
+}
@@ -0,0 +1,144 @@
+package org.fit.ssapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.fit.ssapp.constants.StableMatchingConst;
+import org.fit.ssapp.dto.mapper.StableMatchingProblemMapper;
+import org.fit.ssapp.dto.request.StableMatchingProblemDto;
+import org.fit.ssapp.ss.smt.MatchingDataFile;
+import org.fit.ssapp.util.MatchingProblemType;
+import org.fit.ssapp.util.SampleDataGenerator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Solving a matching data file of the data directory.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class MatchingDataFileIntegrationTest {
+
+  private static Path dataDirectory;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @DynamicPropertySource
+  static void dataDirectory(DynamicPropertyRegistry registry) {
+    try {
+      dataDirectory = Files.createTempDirectory("smtd");
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    registry.add("solver.data.directory", dataDirectory::toString);
+  }
+
+  @AfterAll
+  static void deleteDataDirectory() throws IOException {
+    try (Stream<Path> files = Files.list(dataDirectory)) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(dataDirectory);
+  }
+
+  @Test
+  void solvesMappedFile() throws Exception {
+    StableMatchingProblemDto dto = new SampleDataGenerator(MatchingProblemType.MTM, 20, 30, 3)
+        .generateDto();
+    dto.setExcludedPairs(new int[][]{{0, 20}});
+    MatchingDataFile.write(StableMatchingProblemMapper.toMatchingData(dto),
+        dataDirectory.resolve("sample" + MatchingDataFile.EXTENSION));
+    StableMatchingProblemDto config = runConfigOf(dto);
+
+    JsonNode response = solve("sample", config, 200);
+
+    JsonNode matches = response.get("data").get("matches").get("matches");
+    assertThat(matches.size()).isEqualTo(50);
+    for (JsonNode partner : matches.get(0)) {
+      assertThat(partner.asInt()).isNotEqualTo(20);
+    }
+  }
+
+  @Test
+  void rejectsUnknownAndInvalidIds() throws Exception {
+    StableMatchingProblemDto config = runConfigOf(
+        new SampleDataGenerator(MatchingProblemType.MTM, 5, 5, 3).generateDto());
+
+    assertThat(statusOf("missing", config)).isEqualTo(404);
+    assertThat(statusOf("..", config)).isEqualTo(400);
+  }
+
+  @Test
+  void rejectsInvalidRunConfig() throws Exception {
+    StableMatchingProblemDto dto = new SampleDataGenerator(MatchingProblemType.MTM, 5, 5, 3)
+        .generateDto();
+    MatchingDataFile.write(StableMatchingProblemMapper.toMatchingData(dto),
+        dataDirectory.resolve("small" + MatchingDataFile.EXTENSION));
+    StableMatchingProblemDto config = runConfigOf(dto);
+    config.setGeneration(1_000_000);
+
+    assertThat(solve("small", config, 400).get("message").asText()).contains("generation");
+  }
+
+  private static StableMatchingProblemDto runConfigOf(StableMatchingProblemDto dto) {
+    dto.setIndividualProperties(null);
+    dto.setIndividualWeights(null);
+    dto.setIndividualRequirements(null);
+    dto.setIndividualSetIndices(null);
+    dto.setIndividualCapacities(null);
+    dto.setExcludedPairs(null);
+    dto.setAlgorithm("NSGAII");
+    dto.setPopulationSize(20);
+    dto.setGeneration(10);
+    dto.setDistributedCores("all");
+    dto.setRunCountPerAlgorithm(StableMatchingConst.DEFAULT_RUN_COUNT_PER_ALGO);
+    return dto;
+  }
+
+  private JsonNode solve(String fileId, StableMatchingProblemDto config, int expectedStatus)
+      throws Exception {
+    MvcResult result = mockMvc.perform(post("/api/stable-matching-solver/files/" + fileId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(config)))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    String response = mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().is(expectedStatus))
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+    return objectMapper.readTree(response);
+  }
+
+  private int statusOf(String fileId, StableMatchingProblemDto config) throws Exception {
+    MvcResult result = mockMvc.perform(post("/api/stable-matching-solver/files/" + fileId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(config)))
+        .andReturn();
+    return mockMvc.perform(asyncDispatch(result)).andReturn().getResponse().getStatus();
+  }
+}
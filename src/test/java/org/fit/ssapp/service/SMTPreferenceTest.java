@@ -1,13 +1,24 @@
 package org.fit.ssapp.service;
 
+import java.util.Random;
 import java.util.stream.Stream;
 
+import net.objecthunter.exp4j.Expression;
+import net.objecthunter.exp4j.ExpressionBuilder;
 import org.fit.ssapp.dto.mapper.StableMatchingProblemMapper;
 import org.fit.ssapp.dto.request.StableMatchingProblemDto;
 import org.fit.ssapp.ss.smt.MatchingData;
 import org.fit.ssapp.ss.smt.preference.PreferenceList;
+import org.fit.ssapp.ss.smt.preference.PreferenceListWrapper;
+import org.fit.ssapp.ss.smt.preference.impl.list.TwoSetPreferenceList;
+import org.fit.ssapp.ss.smt.preference.impl.provider.CompiledPreferenceFunction;
 import org.fit.ssapp.ss.smt.preference.impl.provider.TwoSetPreferenceProvider;
+import org.fit.ssapp.ss.smt.requirement.Requirement;
+import org.fit.ssapp.ss.smt.requirement.impl.OneBound;
+import org.fit.ssapp.ss.smt.requirement.impl.ScaleTarget;
+import org.fit.ssapp.ss.smt.requirement.impl.TwoBound;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -253,4 +264,149 @@ public class SMTPreferenceTest {
           )
   );
     }
+
+    /**
+     * Tests that default scores equal the per cell requirement scaling for every requirement type.
+     */
+    @Test
+    public void testDefaultScoresMatchRequirementScaling() {
+        Requirement[] kinds = {
+            new OneBound(2.0, true),
+            new OneBound(3.0, false),
+            new OneBound(0.0, true),
+            new TwoBound(1.0, 4.0),
+            new TwoBound(2.0, 2.0),
+            new ScaleTarget(5)
+        };
+        int size = 7;
+        int propertyNum = 4;
+        Random random = new Random(42);
+        double[][] properties = new double[size][propertyNum];
+        double[][] weights = new double[size][propertyNum];
+        Requirement[][] requirements = new Requirement[size][propertyNum];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < propertyNum; j++) {
+                properties[i][j] = random.nextInt(25) / 2.0 - 1;
+                weights[i][j] = random.nextInt(10);
+                requirements[i][j] = kinds[(i + j) % kinds.length];
+            }
+        }
+        int[] sets = {0, 0, 0, 1, 1, 1, 1};
+        MatchingData matchingData = new MatchingData(size, propertyNum, sets, new int[size],
+            properties, weights, requirements);
+        TwoSetPreferenceProvider provider = new TwoSetPreferenceProvider(matchingData, new String[]{"", ""});
+
+        for (int evaluator = 0; evaluator < size; evaluator++) {
+            int from = sets[evaluator] == 0 ? 3 : 0;
+            int to = sets[evaluator] == 0 ? size : 3;
+            double[] scores = ((TwoSetPreferenceList) provider
+                .getPreferenceListByDefault(evaluator)).getScores();
+            for (int candidate = from; candidate < to; candidate++) {
+                double expected = 0;
+                for (int j = 0; j < propertyNum; j++) {
+                    expected += requirements[evaluator][j].getDefaultScaling(properties[candidate][j])
+                        * weights[evaluator][j];
+                }
+                Assertions.assertEquals(expected, scores[candidate - from], 0.0);
+            }
+        }
+    }
+
+    /**
+     * Tests that lists built in parallel equal the lists built one by one.
+     */
+    @Test
+    public void testParallelListsMatchSequential() {
+        int size = 400;
+        int propertyNum = 3;
+        Random random = new Random(7);
+        double[][] properties = new double[size][propertyNum];
+        double[][] weights = new double[size][propertyNum];
+        Requirement[][] requirements = new Requirement[size][propertyNum];
+        int[] sets = new int[size];
+        for (int i = 0; i < size; i++) {
+            sets[i] = i < size / 2 ? 0 : 1;
+            for (int j = 0; j < propertyNum; j++) {
+                properties[i][j] = random.nextInt(100) / 10.0;
+                weights[i][j] = random.nextInt(10);
+                requirements[i][j] = new TwoBound(1.0, 8.0);
+            }
+        }
+        MatchingData matchingData = new MatchingData(size, propertyNum, sets, new int[size],
+            properties, weights, requirements);
+        TwoSetPreferenceProvider provider = new TwoSetPreferenceProvider(matchingData,
+            new String[]{"P1 + P2", "P1 * W1 + R2 - P3"});
+
+        PreferenceListWrapper wrapper = provider.toListWrapper();
+        for (int i = 0; i < size; i++) {
+            TwoSetPreferenceList expected = (TwoSetPreferenceList) provider.getPreferenceListByFunction(i);
+            TwoSetPreferenceList actual = (TwoSetPreferenceList) wrapper.get(i);
+            Assertions.assertArrayEquals(expected.getScores(), actual.getScores(), 0.0);
+            Assertions.assertArrayEquals(expected.getPositions(), actual.getPositions());
+        }
+    }
+
+    /**
+     * Tests that a compiled evaluation function scores like the exp4j expression it replaces.
+     */
+    @Test
+    public void testCompiledFunctionMatchesExpression() {
+        MatchingData matchingData = StableMatchingProblemMapper.toMTM(genSampleDto()).getMatchingData();
+        String function = "P1 * W1 + log(R2) - P3^2 / (W3 + 1)";
+        CompiledPreferenceFunction compiled = CompiledPreferenceFunction.compile(function, matchingData);
+        Expression expression = new ExpressionBuilder(function)
+            .variables("P1", "P3", "W1", "W3", "R2")
+            .build();
+
+        for (int evaluator = 0; evaluator < 3; evaluator++) {
+            double[] slots = compiled.bindEvaluator(evaluator);
+            for (int candidate = 0; candidate < 3; candidate++) {
+                expression.setVariable("P1", matchingData.getPropertyValueOf(candidate, 0))
+                    .setVariable("P3", matchingData.getPropertyValueOf(candidate, 2))
+                    .setVariable("W1", matchingData.getPropertyWeightOf(evaluator, 0))
+                    .setVariable("W3", matchingData.getPropertyWeightOf(evaluator, 2))
+                    .setVariable("R2", matchingData.getRequirementOf(evaluator, 1).getValueForFunction());
+                Assertions.assertEquals(expression.evaluate(), compiled.evaluate(slots, candidate), 0.0);
+            }
+        }
+    }
+
+    /**
+     * Tests that the flat MatchingData layout returns the values and requirements it was built from.
+     */
+    @Test
+    public void testMatchingDataLayout() {
+        Requirement[][] requirements = {
+            {new OneBound(2.5, true), new TwoBound(1.0, 4.0)},
+            {new OneBound(3.0, false), new ScaleTarget(7)},
+            {new ScaleTarget(0), new OneBound(0.0, true)}
+        };
+        double[][] properties = {{1, 2}, {3, 4}, {5, 6}};
+        double[][] weights = {{7, 8}, {9, 10}, {11, 12}};
+        int[] sets = {0, 0, 1};
+        MatchingData matchingData = new MatchingData(3, 2, sets, new int[]{1, 1, 2},
+            properties, weights, requirements);
+
+        Assertions.assertEquals(2, matchingData.getNumberOfSets());
+        Assertions.assertEquals(2, matchingData.getTotalIndividualOfSet(0));
+        Assertions.assertEquals(1, matchingData.getTotalIndividualOfSet(1));
+        Assertions.assertEquals(0, matchingData.getSetOffsetOf(0));
+        Assertions.assertEquals(2, matchingData.getSetOffsetOf(1));
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 2; j++) {
+                Assertions.assertEquals(properties[i][j], matchingData.getPropertyValueOf(i, j));
+                Assertions.assertEquals(weights[i][j], matchingData.getPropertyWeightOf(i, j));
+                Requirement requirement = matchingData.getRequirementOf(i, j);
+                Assertions.assertEquals(requirements[i][j].toString(), requirement.toString());
+                Assertions.assertEquals(requirements[i][j].getType(),
+                    matchingData.getRequirementTypeOf(i, j));
+                Assertions.assertEquals(requirements[i][j].getValueForFunction(),
+                    matchingData.getRequirementValueOf(i, j));
+                for (double value = -1; value <= 11; value += 0.5) {
+                    Assertions.assertEquals(requirements[i][j].getDefaultScaling(value),
+                        requirement.getDefaultScaling(value));
+                }
+            }
+        }
+    }
 }
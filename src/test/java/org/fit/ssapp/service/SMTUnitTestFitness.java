@@ -78,7 +78,11 @@ public class SMTUnitTestFitness {
           "M1 + M2, 7.0",
           "SIGMA{S1} - M1, 9.0",
           "ceil(sqrt(SIGMA{S1})) + 2, 6",
-          "ceil(SIGMA{S1} / 4), 3.0"
+          "ceil(SIGMA{S1} / 4), 3.0",
+          "SIGMA{S1^2} / M3, 10.0",
+          "S(0) + SIGMA{2 * S1}, 36.0",
+          "S1 - M2, 8.0",
+          "SIGMA{M}, 0"
   })
   public void testFitnessCustom(String fitnessFunction, double expected) {
     MatchingData matchingData = setupMatchingData(3, 1, 3);
@@ -0,0 +1,157 @@
+package org.fit.ssapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import org.fit.ssapp.config.AsyncConfig;
+import org.fit.ssapp.config.SolverPoolConfig;
+import org.fit.ssapp.dto.response.Response;
+import org.fit.ssapp.dto.response.SolverJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Admission control and lifecycle of solver jobs.
+ */
+public class SolverJobServiceTest {
+
+  private ThreadPoolTaskExecutor executor;
+  private SolverJobService service;
+
+  @BeforeEach
+  void setUp() {
+    SolverPoolConfig config = new SolverPoolConfig();
+    config.setPoolSize(1);
+    config.setQueueCapacity(1);
+    config.setJobRetentionMinutes(30);
+    executor = new AsyncConfig().taskExecutor(config);
+    service = new SolverJobService(executor, Mockito.mock(SimpMessagingTemplate.class), config);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  void rejectsWhenQueueIsFull() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    SolverJob running = service.submit("test", blocking(started, release));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    SolverJob queued = service.submit("test", () -> ok("queued"));
+
+    assertThrows(RejectedExecutionException.class, () -> service.submit("test", () -> ok("x")));
+    assertEquals(1, service.getQueueDepth());
+
+    release.countDown();
+    awaitFinished(running);
+    awaitFinished(queued);
+    assertEquals(SolverJob.State.DONE, running.getState());
+    assertEquals(SolverJob.State.DONE, queued.getState());
+    assertEquals("queued", queued.getResult().getMessage());
+  }
+
+  @Test
+  void cancelledQueuedJobNeverRuns() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    SolverJob running = service.submit("test", blocking(started, release));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    AtomicBoolean ran = new AtomicBoolean();
+    SolverJob queued = service.submit("test", () -> {
+      ran.set(true);
+      return ok("queued");
+    });
+
+    assertTrue(service.cancel(queued.getId()).isPresent());
+    release.countDown();
+    awaitFinished(running);
+
+    assertEquals(SolverJob.State.CANCELLED, queued.getState());
+    assertFalse(ran.get());
+  }
+
+  @Test
+  void cancelledRunningJobStopsItsSolve() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    SolverJob job = service.submit("test", () -> {
+      BooleanSupplier cancelled = JobCancellation.current();
+      started.countDown();
+      while (!cancelled.getAsBoolean()) {
+        Thread.onSpinWait();
+      }
+      return ok("stopped");
+    });
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    assertTrue(service.cancel(job.getId()).isPresent());
+    assertTrue(job.isCancelRequested());
+    awaitFinished(job);
+
+    assertEquals(SolverJob.State.CANCELLED, job.getState());
+    assertEquals("stopped", job.getResult().getMessage());
+    assertFalse(JobCancellation.current().getAsBoolean());
+  }
+
+  @Test
+  void expiredJobsAreEvictedOnLookup() throws InterruptedException {
+    SolverPoolConfig config = new SolverPoolConfig();
+    config.setJobRetentionMinutes(0);
+    SolverJobService noRetention = new SolverJobService(executor,
+        Mockito.mock(SimpMessagingTemplate.class), config);
+    SolverJob job = noRetention.submit("test", () -> ok("done"));
+    awaitFinished(job);
+    Thread.sleep(5);
+
+    assertTrue(noRetention.find(job.getId()).isEmpty());
+  }
+
+  @Test
+  void failedSolveIsReported() throws InterruptedException {
+    SolverJob job = service.submit("test", () -> {
+      throw new IllegalStateException("boom");
+    });
+
+    awaitFinished(job);
+    assertEquals(SolverJob.State.FAILED, job.getState());
+    assertEquals("boom", job.getResult().getMessage());
+  }
+
+  private static Supplier<ResponseEntity<Response>> blocking(CountDownLatch started,
+                                                            CountDownLatch release) {
+    return () -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return ok("running");
+    };
+  }
+
+  private static ResponseEntity<Response> ok(String message) {
+    return ResponseEntity.ok(Response.builder().status(200).message(message).build());
+  }
+
+  private static void awaitFinished(SolverJob job) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!job.getState().isFinished() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+}
@@ -117,6 +117,62 @@ public class StableMatchingIntegrationTest {
         .andExpect(status().isBadRequest());
   }
 
+  @Test
+  void stableMatching_Invalid_EvaluationCacheOverCap() throws Exception {
+    StableMatchingProblemDto dto = createBaseCaseDto("NSGAII");
+    dto.setRunCountPerAlgorithm(StableMatchingConst.DEFAULT_RUN_COUNT_PER_ALGO);
+    dto.setEvaluationCacheSize(Integer.MAX_VALUE);
+
+    mockMvc.perform(post("/api/stable-matching-solver")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(dto)))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.errors.evaluationCacheSize").exists());
+  }
+
+  @Test
+  void stableMatchingStream_Solves() throws Exception {
+    StableMatchingProblemDto dto = createBaseCaseDto("NSGAII");
+    dto.setRunCountPerAlgorithm(StableMatchingConst.DEFAULT_RUN_COUNT_PER_ALGO);
+
+    MvcResult result = mockMvc.perform(post("/api/stable-matching-solver/stream")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(dto)))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    String response = mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+
+    JsonNode jsonNode = objectMapper.readTree(response);
+    assertThat(jsonNode.get("data").has("matches")).isTrue();
+    assertNoDuplication(jsonNode.get("data").get("matches").get("matches"));
+    assertCapacityValid(jsonNode.get("data"), dto);
+  }
+
+  @Test
+  void stableMatchingStream_Invalid_GenerationOverCap() throws Exception {
+    StableMatchingProblemDto dto = createBaseCaseDto("NSGAII");
+    dto.setGeneration(1_000_000);
+
+    MvcResult result = mockMvc.perform(post("/api/stable-matching-solver/stream")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(dto)))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    String response = mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isBadRequest())
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+
+    assertThat(objectMapper.readTree(response).get("message").asText()).contains("generation");
+  }
+
   private static String[] stableMatchingAlgorithms() {
     return StableMatchingConst.ALLOWED_INSIGHT_ALGORITHMS;
   }
@@ -0,0 +1,103 @@
+package org.fit.ssapp.st;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.fit.ssapp.constants.StableMatchingConst;
+import org.fit.ssapp.dto.mapper.StableMatchingProblemMapper;
+import org.fit.ssapp.ss.smt.Matches;
+import org.fit.ssapp.ss.smt.MatchingProblem;
+import org.fit.ssapp.ss.smt.cache.CachedMatchingProblem;
+import org.fit.ssapp.ss.smt.cache.EvaluationCache;
+import org.fit.ssapp.ss.smt.cache.MatchesScoreCache;
+import org.fit.ssapp.ss.smt.result.EvaluationCacheStats;
+import org.fit.ssapp.util.MatchingProblemType;
+import org.fit.ssapp.util.SampleDataGenerator;
+import org.junit.jupiter.api.Test;
+import org.moeaframework.core.Solution;
+
+class EvaluationCacheTest {
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        EvaluationCache cache = new EvaluationCache(1);
+        int[] first = {0, 1, 2};
+        int[] second = {2, 1, 0};
+        cache.put(EvaluationCache.hash(first), entry(first));
+        cache.put(EvaluationCache.hash(second), entry(second));
+
+        assertNull(cache.get(EvaluationCache.hash(first), first));
+        assertNotNull(cache.get(EvaluationCache.hash(second), second));
+        EvaluationCacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(0.5, stats.getHitRate());
+    }
+
+    // an entry is only returned for the permutation it was stored for, whatever its hash
+    @Test
+    void testVerifiesPermutationOnHit() {
+        EvaluationCache cache = new EvaluationCache(8);
+        int[] stored = {0, 1, 2};
+        cache.put(42L, entry(stored));
+
+        assertNull(cache.get(42L, new int[]{1, 0, 2}));
+        assertNotNull(cache.get(42L, new int[]{0, 1, 2}));
+    }
+
+    @Test
+    void testCachedProblemEvaluatesLikeProblem() {
+        MatchingProblem problem = StableMatchingProblemMapper.toMTM(
+                new SampleDataGenerator(MatchingProblemType.MTM, 10, 20, 3).generateDto());
+        CachedMatchingProblem cached = new CachedMatchingProblem(problem, 16);
+
+        Solution solution = problem.newSolution();
+        Solution expected = solution.copy();
+        Solution duplicate = solution.copy();
+        problem.evaluate(expected);
+        cached.evaluate(solution);
+        cached.evaluate(duplicate);
+
+        assertEquals(expected.getObjective(0), solution.getObjective(0));
+        assertEquals(expected.getObjective(0), duplicate.getObjective(0));
+        assertSame(solution.getAttribute(StableMatchingConst.MATCHES_KEY),
+                duplicate.getAttribute(StableMatchingConst.MATCHES_KEY));
+        assertEquals(1, cached.getCache().getStats().getHits());
+        assertEquals(1, cached.getCache().getStats().getMisses());
+    }
+
+    // an equal matching reached from another permutation is not scored again
+    @Test
+    void testScoresEqualMatchingsOnce() {
+        MatchingProblem problem = StableMatchingProblemMapper.toMTM(
+                new SampleDataGenerator(MatchingProblemType.MTM, 10, 20, 3).generateDto());
+        CachedMatchingProblem cached = new CachedMatchingProblem(problem, 16);
+        Solution solution = problem.newSolution();
+        Matches first = problem.stableMatching(solution.getVariable(0));
+        Matches second = problem.stableMatching(solution.copy().getVariable(0));
+
+        assertEquals(problem.scoreOf(first), cached.scoreOf(first));
+        assertEquals(problem.scoreOf(first), cached.scoreOf(second));
+        assertEquals(1, cached.getScores().getStats().getHits());
+        assertEquals(1, cached.getScores().getStats().getMisses());
+    }
+
+    @Test
+    void testMatchingCacheVerifiesMatchingOnHit() {
+        MatchesScoreCache cache = new MatchesScoreCache(8);
+        Matches stored = new Matches(4);
+        stored.addMatchBi(0, 1);
+        cache.put(stored, -1.0);
+        Matches other = new Matches(4);
+        other.addMatchBi(0, 2);
+
+        assertNull(cache.get(other));
+        Matches same = new Matches(4);
+        same.addMatchBi(1, 0);
+        assertEquals(-1.0, cache.get(same).objective());
+    }
+
+    private static EvaluationCache.Entry entry(int[] permutation) {
+        return new EvaluationCache.Entry(permutation, new double[]{-1.0}, null);
+    }
+}
@@ -0,0 +1,59 @@
+package org.fit.ssapp.st;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.fit.ssapp.dto.mapper.StableMatchingProblemMapper;
+import org.fit.ssapp.ss.smt.ExclusionIndex;
+import org.fit.ssapp.ss.smt.Matches;
+import org.fit.ssapp.ss.smt.MatchingProblem;
+import org.fit.ssapp.util.MatchingProblemType;
+import org.fit.ssapp.util.SampleDataGenerator;
+import org.junit.jupiter.api.Test;
+import org.moeaframework.core.Variable;
+
+class ExclusionIndexTest {
+
+    @Test
+    void testLookupIsSymmetric() {
+        ExclusionIndex index = ExclusionIndex.of(6, new int[][]{{0, 3}, {4, 1}, {3, 0}, {2, 9}});
+
+        assertTrue(index.isExcluded(0, 3));
+        assertTrue(index.isExcluded(3, 0));
+        assertTrue(index.isExcluded(1, 4));
+        assertFalse(index.isExcluded(0, 4));
+        assertFalse(index.isExcluded(2, 5));
+        assertTrue(index.isExcluded(List.of(5, 1), 4));
+        assertFalse(index.isExcluded(List.of(5, 2), 4));
+    }
+
+    @Test
+    void testEmptyWithoutPairs() {
+        assertTrue(ExclusionIndex.of(4, null).isEmpty());
+        assertFalse(ExclusionIndex.of(4, null).isExcluded(0, 1));
+    }
+
+    // pairs matched without exclusions are never formed once excluded
+    @Test
+    void testMatchingNeverFormsExcludedPairs() {
+        MatchingProblem problem = StableMatchingProblemMapper.toMTM(
+                new SampleDataGenerator(MatchingProblemType.MTM, 10, 20, 3).generateDto());
+        Variable order = problem.newSolution().getVariable(0);
+        Matches unconstrained = problem.stableMatching(order);
+        List<int[]> pairs = new ArrayList<>();
+        for (int node = 0; node < unconstrained.size(); node++) {
+            for (int partner : unconstrained.getSetOf(node)) {
+                pairs.add(new int[]{node, partner});
+            }
+        }
+        assertFalse(pairs.isEmpty());
+
+        problem.getMatchingData().setExcludedPairs(pairs.toArray(new int[0][]));
+        Matches constrained = problem.stableMatching(order);
+
+        for (int[] pair : pairs) {
+            assertFalse(constrained.isMatched(pair[0], pair[1]), "Excluded pair matched");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.fit.ssapp.st;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.fit.ssapp.dto.mapper.StableMatchingProblemMapper;
+import org.fit.ssapp.dto.request.StableMatchingProblemDto;
+import org.fit.ssapp.ss.smt.Matches;
+import org.fit.ssapp.ss.smt.MatchingProblem;
+import org.fit.ssapp.ss.smt.implement.MTMProblem;
+import org.fit.ssapp.ss.smt.implement.OTMProblem;
+import org.fit.ssapp.ss.smt.implement.OTOProblem;
+import org.fit.ssapp.ss.smt.preference.PreferenceListWrapper;
+import org.fit.ssapp.util.MatchingProblemType;
+import org.fit.ssapp.util.SampleDataGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class IncrementalSatisfactionsTest {
+
+    // satisfactions accumulated while matching equal a full pass over the matches
+    @ParameterizedTest
+    @EnumSource(MatchingProblemType.class)
+    void testAccumulatedSatisfactionsMatchFullPass(MatchingProblemType type) {
+        StableMatchingProblemDto dto = new SampleDataGenerator(type, 20, 30, 3).generateDto();
+        MatchingProblem problem;
+        PreferenceListWrapper preferenceLists;
+        switch (type) {
+            case OTO -> {
+                OTOProblem oto = StableMatchingProblemMapper.toOTO(dto);
+                problem = oto;
+                preferenceLists = oto.getPreferenceLists();
+            }
+            case OTM -> {
+                OTMProblem otm = StableMatchingProblemMapper.toOTM(dto);
+                problem = otm;
+                preferenceLists = otm.getPreferenceLists();
+            }
+            default -> {
+                MTMProblem mtm = StableMatchingProblemMapper.toMTM(dto);
+                problem = mtm;
+                preferenceLists = mtm.getPreferenceLists();
+            }
+        }
+
+        Matches matches = problem.stableMatching(problem.newSolution().getVariable(0));
+        double[] accumulated = matches.getSatisfactions();
+        assertNotNull(accumulated);
+        matches.setSatisfactions(null);
+        assertArrayEquals(preferenceLists.getMatchesSatisfactions(matches, problem.getMatchingData()),
+                accumulated, 1e-9);
+    }
+
+    @Test
+    void testChangeDropsSatisfactions() {
+        Matches matches = new Matches(4);
+        matches.setSatisfactions(new double[4]);
+        matches.addMatchBi(0, 1);
+        assertNull(matches.getSatisfactions());
+    }
+}
@@ -34,6 +34,140 @@ class MatchesTest {
         assertTrue(matches.getSetOf(node2).contains(node1), "Node2 should be matched with Node1");
     }
 
+    // Fingerprint depends on the matching only, not on the order matches were made in
+    @ParameterizedTest
+    @CsvSource({
+            "0,1,2,3",
+            "4,2,1,3",
+            "5,9,9,0"
+    })
+    void testFingerprintIgnoresMatchOrder(int a, int b, int c, int d) {
+        Matches forward = new Matches(10);
+        forward.addMatchBi(a, b);
+        forward.addMatchBi(c, d);
+        Matches backward = new Matches(10);
+        backward.addMatchBi(c, d);
+        backward.addMatchBi(a, b);
+        backward.addMatchBi(a, d);
+        backward.addMatch(a, b);
+        backward.removeMatchBi(a, d);
+
+        assertEquals(forward, backward);
+        assertEquals(forward.getFingerprint(), backward.getFingerprint());
+        assertEquals(forward.hashCode(), backward.hashCode());
+
+        backward.removeMatchBi(a, b);
+        assertNotEquals(forward.getFingerprint(), backward.getFingerprint());
+    }
+
+    // Bitset rows (dense problems) behave like slot regions, across word boundaries too
+    @ParameterizedTest
+    @CsvSource({
+            "10,1",
+            "70,2",
+            "130,3"
+    })
+    void testBitsetMatchesRegions(int size, long seed) {
+        Matches regions = new Matches(size);
+        Matches bitsets = Matches.withBitsets(size);
+        assertFalse(regions.isBitset());
+        assertTrue(bitsets.isBitset());
+        Random random = new Random(seed);
+        for (int step = 0; step < size * 8; step++) {
+            int node = random.nextInt(size);
+            int partner = random.nextInt(size);
+            if (random.nextInt(3) == 0) {
+                regions.removeMatch(node, partner);
+                bitsets.removeMatch(node, partner);
+            } else {
+                regions.addMatch(node, partner);
+                bitsets.addMatch(node, partner);
+            }
+        }
+
+        assertEquals(regions, bitsets);
+        assertEquals(bitsets, regions);
+        assertEquals(regions.getFingerprint(), bitsets.getFingerprint());
+        assertArrayEquals(regions.getMatches(), bitsets.getMatches());
+        for (int node = 0; node < size; node++) {
+            assertEquals(regions.getSetOf(node), bitsets.getSetOf(node));
+            for (int k = 0; k < regions.getCountOf(node); k++) {
+                assertEquals(regions.getPartnerOf(node, k), bitsets.getPartnerOf(node, k));
+            }
+        }
+    }
+
+    // Capacities close to the problem size select bitset rows
+    @ParameterizedTest
+    @CsvSource({
+            "64,1,false",
+            "64,2,true",
+            "200,7,false",
+            "200,8,true"
+    })
+    void testStorageChosenByDensity(int size, int capacity, boolean bitset) {
+        int[] capacities = new int[size];
+        Arrays.fill(capacities, capacity);
+        assertEquals(bitset, new Matches(capacities).isBitset());
+    }
+
+    // Partners beyond the reserved slots are kept sorted
+    @ParameterizedTest
+    @CsvSource({
+            "1,5",
+            "2,9",
+            "3,3"
+    })
+    void testAddBeyondCapacityKeepsOrder(int capacity, int matchesToAdd) {
+        int[] capacities = new int[20];
+        Arrays.fill(capacities, capacity);
+        Matches matches = new Matches(capacities);
+        for (int i = matchesToAdd; i > 0; i--) {
+            matches.addMatchBi(0, i + 10);
+            matches.addMatchBi(0, i + 10);
+        }
+
+        assertEquals(matchesToAdd, matches.getCountOf(0));
+        for (int k = 0; k < matchesToAdd; k++) {
+            assertEquals(k + 11, matches.getPartnerOf(0, k));
+            assertTrue(matches.isMatched(k + 11, 0));
+        }
+        assertTrue(matches.isFull(0, matchesToAdd));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0,1",
+            "3,7",
+            "9,2"
+    })
+    void testRemoveMatchBothWays(int node1, int node2) {
+        Matches matches = new Matches(10);
+        matches.addMatchBi(node1, node2);
+        matches.removeMatchBi(node1, node2);
+
+        assertFalse(matches.isMatched(node1, node2));
+        assertFalse(matches.isMatched(node1));
+        assertFalse(matches.isMatched(node2));
+        assertEquals(new TreeSet<>(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)), matches.getLeftOvers());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0,5",
+            "4,2"
+    })
+    void testMatchesArrayShape(int node1, int node2) {
+        Matches matches = new Matches(6);
+        matches.addMatchBi(node1, node2);
+
+        int[][] result = matches.getMatches();
+        assertEquals(6, result.length);
+        assertArrayEquals(new int[]{node2}, result[node1]);
+        assertArrayEquals(new int[]{node1}, result[node2]);
+        assertEquals(0, result[3].length);
+    }
+
     // Check Full
     // @ParameterizedTest
     @CsvSource({
@@ -0,0 +1,87 @@
+package org.fit.ssapp.st;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.fit.ssapp.constants.StableMatchingConst;
+import org.fit.ssapp.dto.mapper.StableMatchingProblemMapper;
+import org.fit.ssapp.dto.request.StableMatchingProblemDto;
+import org.fit.ssapp.ss.smt.MatchingData;
+import org.fit.ssapp.ss.smt.MatchingDataFile;
+import org.fit.ssapp.ss.smt.Matches;
+import org.fit.ssapp.ss.smt.implement.MTMProblem;
+import org.fit.ssapp.util.MatchingProblemType;
+import org.fit.ssapp.util.SampleDataGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.moeaframework.core.Solution;
+
+class MatchingDataFileTest {
+
+    @TempDir
+    Path dir;
+
+    // A mapped file must hold exactly the data it was written from
+    @Test
+    void testRoundTrip() throws IOException {
+        StableMatchingProblemDto dto = sampleDto();
+        dto.setExcludedPairs(new int[][]{{0, 25}, {3, 30}});
+        MatchingData expected = StableMatchingProblemMapper.toMatchingData(dto);
+        Path file = dir.resolve("data.bin");
+        MatchingDataFile.write(expected, file);
+
+        MatchingData actual = MatchingDataFile.map(file);
+
+        assertEquals(expected.getSize(), actual.getSize());
+        assertEquals(expected.getPropertyNum(), actual.getPropertyNum());
+        assertEquals(expected.getNumberOfSets(), actual.getNumberOfSets());
+        assertArrayEquals(expected.getSets(), actual.getSets());
+        assertArrayEquals(expected.getCapacities(), actual.getCapacities());
+        assertArrayEquals(expected.getExcludedPairs(), actual.getExcludedPairs());
+        for (int i = 0; i < expected.getSize(); i++) {
+            for (int j = 0; j < expected.getPropertyNum(); j++) {
+                assertEquals(expected.getPropertyValueOf(i, j), actual.getPropertyValueOf(i, j));
+                assertEquals(expected.getPropertyWeightOf(i, j), actual.getPropertyWeightOf(i, j));
+                assertEquals(expected.getRequirementTypeOf(i, j), actual.getRequirementTypeOf(i, j));
+                assertEquals(expected.getRequirementBound1Of(i, j),
+                        actual.getRequirementBound1Of(i, j));
+                assertEquals(expected.getRequirementBound2Of(i, j),
+                        actual.getRequirementBound2Of(i, j));
+            }
+        }
+    }
+
+    // A problem built over a mapped file must evaluate like the one built from the request
+    @Test
+    void testMappedProblemMatchesRequest() throws IOException {
+        StableMatchingProblemDto dto = sampleDto();
+        Path file = dir.resolve("data.bin");
+        MatchingDataFile.write(StableMatchingProblemMapper.toMatchingData(dto), file);
+
+        MTMProblem fromRequest = StableMatchingProblemMapper.toMTM(dto);
+        MTMProblem fromFile = StableMatchingProblemMapper.toMTM(dto, MatchingDataFile.map(file));
+
+        Solution solution = fromRequest.newSolution();
+        Solution copy = solution.copy();
+        fromRequest.evaluate(solution);
+        fromFile.evaluate(copy);
+        assertEquals(solution.getObjective(0), copy.getObjective(0));
+        Matches expected = (Matches) solution.getAttribute(StableMatchingConst.MATCHES_KEY);
+        Matches actual = (Matches) copy.getAttribute(StableMatchingConst.MATCHES_KEY);
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path file = dir.resolve("other.bin");
+        Files.write(file, new byte[64]);
+
+        assertThrows(IOException.class, () -> MatchingDataFile.map(file));
+    }
+
+    private static StableMatchingProblemDto sampleDto() {
+        return new SampleDataGenerator(MatchingProblemType.MTM, 20, 40, 4).generateDto();
+    }
+}
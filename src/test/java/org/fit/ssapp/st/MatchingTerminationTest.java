@@ -0,0 +1,62 @@
+package org.fit.ssapp.st;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.fit.ssapp.dto.mapper.StableMatchingProblemMapper;
+import org.fit.ssapp.ss.smt.implement.MTMProblem;
+import org.fit.ssapp.ss.smt.termination.MatchingTermination;
+import org.fit.ssapp.ss.smt.termination.TerminationReason;
+import org.fit.ssapp.util.MatchingProblemType;
+import org.fit.ssapp.util.SampleDataGenerator;
+import org.junit.jupiter.api.Test;
+import org.moeaframework.Executor;
+
+class MatchingTerminationTest {
+
+    private static final int POPULATION = 20;
+
+    @Test
+    void testEvaluationBudget() {
+        assertEquals(TerminationReason.MAX_EVALUATIONS,
+                run(new MatchingTermination(10 * POPULATION, POPULATION, 0, 0, null)));
+    }
+
+    @Test
+    void testDeadline() {
+        assertEquals(TerminationReason.MAX_TIME,
+                run(new MatchingTermination(Integer.MAX_VALUE, POPULATION, 200, 0, null)));
+    }
+
+    // a target below any fitness is reached by the first generation
+    @Test
+    void testTargetFitness() {
+        assertEquals(TerminationReason.TARGET_FITNESS,
+                run(new MatchingTermination(Integer.MAX_VALUE, POPULATION, 0, 0, -1e12)));
+    }
+
+    // the best fitness of a small instance stops improving long before the budget is spent
+    @Test
+    void testStagnation() {
+        assertEquals(TerminationReason.STAGNATION,
+                run(new MatchingTermination(Integer.MAX_VALUE, POPULATION, 60_000, 5, null)));
+    }
+
+    @Test
+    void testCancelled() {
+        assertEquals(TerminationReason.CANCELLED,
+                run(new MatchingTermination(Integer.MAX_VALUE, POPULATION, 0, 0, null,
+                        () -> true)));
+    }
+
+    private static TerminationReason run(MatchingTermination termination) {
+        MTMProblem problem = StableMatchingProblemMapper.toMTM(
+                new SampleDataGenerator(MatchingProblemType.MTM, 5, 10, 3).generateDto());
+        new Executor()
+                .withProblem(problem)
+                .withAlgorithm("NSGAII")
+                .withProperty("populationSize", POPULATION)
+                .withTerminationCondition(termination)
+                .run();
+        return termination.getReason();
+    }
+}
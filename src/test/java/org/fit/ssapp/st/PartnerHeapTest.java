@@ -0,0 +1,55 @@
+package org.fit.ssapp.st;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.TreeSet;
+import org.fit.ssapp.ss.smt.preference.PartnerHeap;
+import org.fit.ssapp.ss.smt.preference.impl.list.TwoSetPreferenceList;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class PartnerHeapTest {
+
+    // Top of the heap must be the node getLeastNode picks from the same partner set
+    @ParameterizedTest
+    @CsvSource({
+            "1,1,20",
+            "2,3,20",
+            "3,8,40",
+            "4,50,200",
+            "5,20,5"
+    })
+    void testTopIsLeastNode(long seed, int capacity, int candidates) {
+        Random random = new Random(seed);
+        TwoSetPreferenceList preferenceList = new TwoSetPreferenceList(candidates, 1);
+        for (int i = 0; i < candidates; i++) {
+            // few distinct values so ties are frequent
+            preferenceList.add(random.nextInt(5));
+        }
+        preferenceList.sort();
+
+        PartnerHeap heap = new PartnerHeap(new int[]{capacity});
+        TreeSet<Integer> current = new TreeSet<>();
+        for (int step = 0; step < 500; step++) {
+            int node = 1 + random.nextInt(candidates);
+            if (current.contains(node)) {
+                heap.remove(0, node);
+                current.remove(node);
+            } else if (current.size() < capacity) {
+                heap.add(0, node, preferenceList.getRankOf(0, node));
+                current.add(node);
+            } else {
+                int least = preferenceList.getLeastNode(0, node, current);
+                int expectedTop = preferenceList.getLeastNode(0, current.first(), current);
+                assertEquals(expectedTop, heap.peek(0));
+                if (least != node) {
+                    assertEquals(least, heap.replaceTop(0, node, preferenceList.getRankOf(0, node)));
+                    current.remove(least);
+                    current.add(node);
+                }
+            }
+            assertEquals(current.size(), heap.size(0));
+        }
+    }
+}
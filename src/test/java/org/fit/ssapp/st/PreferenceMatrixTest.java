@@ -0,0 +1,89 @@
+package org.fit.ssapp.st;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.fit.ssapp.dto.mapper.StableMatchingProblemMapper;
+import org.fit.ssapp.dto.request.StableMatchingProblemDto;
+import org.fit.ssapp.ss.smt.MatchingData;
+import org.fit.ssapp.ss.smt.MatchingProblem;
+import org.fit.ssapp.ss.smt.preference.PreferenceListWrapper;
+import org.fit.ssapp.ss.smt.preference.PreferenceMatrix;
+import org.fit.ssapp.ss.smt.preference.ScorePrecision;
+import org.fit.ssapp.ss.smt.preference.impl.list.TripletPreferenceList;
+import org.fit.ssapp.ss.smt.preference.impl.provider.TwoSetPreferenceProvider;
+import org.fit.ssapp.util.MatchingProblemType;
+import org.fit.ssapp.util.SampleDataGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.moeaframework.core.Variable;
+
+class PreferenceMatrixTest {
+
+    // the matrix answers every lookup like the preference lists it was packed from
+    @ParameterizedTest
+    @EnumSource(ScorePrecision.class)
+    void testMatrixMatchesLists(ScorePrecision precision) {
+        StableMatchingProblemDto dto = new SampleDataGenerator(MatchingProblemType.MTM, 12, 17, 3)
+                .generateDto();
+        MatchingData data = StableMatchingProblemMapper.toMatchingData(dto);
+        TwoSetPreferenceProvider provider = new TwoSetPreferenceProvider(data,
+                dto.getEvaluateFunctions());
+        PreferenceListWrapper lists = provider.toListWrapper();
+        PreferenceListWrapper matrix = provider.toMatrixWrapper(precision);
+        double delta = precision == ScorePrecision.DOUBLE ? 0.0 : 1e-4;
+
+        assertNotNull(matrix.getMatrix());
+        for (int owner = 0; owner < data.getSize(); owner++) {
+            assertEquals(lists.sizeOf(owner), matrix.sizeOf(owner));
+            for (int rank = 0; rank < lists.sizeOf(owner); rank++) {
+                int node = lists.getPositionByRank(owner, rank);
+                assertEquals(node, matrix.getPositionByRank(owner, rank));
+                assertEquals(lists.getRankOf(owner, node), matrix.getRankOf(owner, node));
+                double expected = precision == ScorePrecision.RANK16
+                        ? lists.sizeOf(owner) - lists.getRankOf(owner, node)
+                        : lists.getScore(owner, node);
+                assertEquals(expected, matrix.getScore(owner, node), Math.abs(expected) * delta);
+                assertEquals(expected, matrix.get(owner).getScore(node), Math.abs(expected) * delta);
+            }
+        }
+    }
+
+    // compact storages only change scores, deferred acceptance reads ranks and matches the same
+    @ParameterizedTest
+    @EnumSource(ScorePrecision.class)
+    void testCompactStorageKeepsMatching(ScorePrecision precision) {
+        StableMatchingProblemDto dto = new SampleDataGenerator(MatchingProblemType.MTM, 12, 17, 3)
+                .generateDto();
+        MatchingProblem exact = StableMatchingProblemMapper.toMTM(dto);
+        dto.setScorePrecision(precision);
+        MatchingProblem compact = StableMatchingProblemMapper.toMTM(dto);
+        Variable order = exact.newSolution().getVariable(0);
+
+        assertEquals(exact.stableMatching(order), compact.stableMatching(order));
+    }
+
+    @Test
+    void testRank16RejectsLongLists() {
+        int size = Character.MAX_VALUE + 3;
+        int[] sets = new int[size];
+        sets[size - 1] = 1;
+        assertThrows(IllegalArgumentException.class, () -> new PreferenceMatrix(sets,
+                new int[]{0, size - 1}, new int[]{size - 1, 1}, ScorePrecision.RANK16));
+    }
+
+    // a middle set's list skips its own set whatever set is looked up
+    @Test
+    void testTripletListSkipsOwnSet() {
+        // sets of 2, 3 and 4 individuals, owner in the middle set (individuals 2..4)
+        TripletPreferenceList list = new TripletPreferenceList(6, 2, 3);
+        list.addArray(new double[]{9, 8}, new int[]{1, 0});
+        list.addArray(new double[]{7, 6, 5, 4}, new int[]{2, 3, 4, 5});
+
+        assertEquals(1, list.getPositionByRank(0, 0));
+        assertEquals(0, list.getPositionByRank(0, 1));
+        assertEquals(5, list.getPositionByRank(0, 2));
+        assertEquals(8, list.getPositionByRank(0, 5));
+        assertEquals(list.getScore(5), list.getScores()[2]);
+    }
+}
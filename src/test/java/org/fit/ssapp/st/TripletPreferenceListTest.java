@@ -0,0 +1,93 @@
+package org.fit.ssapp.st;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.fit.ssapp.dto.mapper.StableMatchingProblemMapper;
+import org.fit.ssapp.dto.request.StableMatchingProblemDto;
+import org.fit.ssapp.ss.smt.MatchingData;
+import org.fit.ssapp.ss.smt.preference.PreferenceList;
+import org.fit.ssapp.ss.smt.preference.impl.provider.TripletPreferenceProvider;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class TripletPreferenceListTest {
+
+    // every owner, the middle set included, ranks the nodes of each other set by descending
+    // property, the lower set first, whatever the sizes of the sets
+    @ParameterizedTest
+    @CsvSource({
+            "2, 3, 5",
+            "5, 3, 2",
+            "4, 1, 3",
+            "1, 6, 2"
+    })
+    void testRanksMapToNodesOfOtherSets(int size0, int size1, int size2) {
+        int[] setSizes = {size0, size1, size2};
+        MatchingData data = StableMatchingProblemMapper.toMatchingData(dto(setSizes));
+        TripletPreferenceProvider provider = new TripletPreferenceProvider(data,
+                new String[]{"P1", "P1", "P1"});
+
+        for (int owner = 0; owner < data.getSize(); owner++) {
+            int ownerSet = data.getSetNoOf(owner);
+            List<Integer> expected = new ArrayList<>();
+            for (int set = 0; set < setSizes.length; set++) {
+                if (set != ownerSet) {
+                    expected.addAll(byDescendingProperty(data, set));
+                }
+            }
+            PreferenceList list = provider.getPreferenceListByFunction(owner);
+
+            List<Integer> actual = new ArrayList<>();
+            for (int rank = 0; rank < list.size(0); rank++) {
+                actual.add(list.getPositionByRank(0, rank));
+            }
+            assertEquals(expected, actual, "Preferences of " + owner + " in set " + ownerSet);
+        }
+    }
+
+    private static List<Integer> byDescendingProperty(MatchingData data, int set) {
+        List<Integer> nodes = new ArrayList<>();
+        for (int node = 0; node < data.getSize(); node++) {
+            if (data.getSetNoOf(node) == set) {
+                nodes.add(node);
+            }
+        }
+        nodes.sort(Comparator.comparingDouble((Integer node) -> data.getPropertyValueOf(node, 0))
+                .reversed());
+        return nodes;
+    }
+
+    // distinct properties in an order unrelated to the node ids
+    private static StableMatchingProblemDto dto(int[] setSizes) {
+        int size = Arrays.stream(setSizes).sum();
+        int[] sets = new int[size];
+        double[][] properties = new double[size][];
+        double[][] weights = new double[size][];
+        String[][] requirements = new String[size][];
+        int node = 0;
+        for (int set = 0; set < setSizes.length; set++) {
+            for (int i = 0; i < setSizes[set]; i++, node++) {
+                sets[node] = set;
+                properties[node] = new double[]{(node * 7 % size) + 0.5};
+                weights[node] = new double[]{1};
+                requirements[node] = new String[]{"0++"};
+            }
+        }
+        int[] capacities = new int[size];
+        Arrays.fill(capacities, 1);
+        StableMatchingProblemDto dto = new StableMatchingProblemDto();
+        dto.setNumberOfIndividuals(size);
+        dto.setNumberOfSets(setSizes.length);
+        dto.setNumberOfProperty(1);
+        dto.setIndividualSetIndices(sets);
+        dto.setIndividualCapacities(capacities);
+        dto.setIndividualProperties(properties);
+        dto.setIndividualWeights(weights);
+        dto.setIndividualRequirements(requirements);
+        return dto;
+    }
+}
@@ -0,0 +1,40 @@
+package org.fit.ssapp.st;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import org.fit.ssapp.ss.smt.preference.impl.list.TwoSetPreferenceList;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class TwoSetPreferenceListTest {
+
+    // Rank comparisons must agree with score comparisons, ties included
+    @ParameterizedTest
+    @CsvSource({
+            "0, '0.5;0.1;0.9;0.3'",
+            "3, '0;0;0;0'",
+            "5, '1;2;2;0;1;2;3'",
+            "2, '0.25'"
+    })
+    void testRankAgreesWithScore(int padding, String scoreList) {
+        double[] scores = Arrays.stream(scoreList.split(";")).mapToDouble(Double::parseDouble).toArray();
+        TwoSetPreferenceList preferenceList = new TwoSetPreferenceList(scores.length, padding);
+        for (double score : scores) {
+            preferenceList.add(score);
+        }
+        preferenceList.sort();
+
+        for (int a = padding; a < padding + scores.length; a++) {
+            for (int b = padding; b < padding + scores.length; b++) {
+                assertEquals(preferenceList.isScoreGreater(0, a, b),
+                        preferenceList.getRankOf(0, a) < preferenceList.getRankOf(0, b),
+                        "Rank order of " + a + " and " + b);
+            }
+        }
+        for (int rank = 0; rank < scores.length; rank++) {
+            int node = preferenceList.getPositionByRank(0, rank);
+            assertTrue(preferenceList.getRankOf(0, node) <= rank, "Rank of " + node);
+        }
+    }
+}